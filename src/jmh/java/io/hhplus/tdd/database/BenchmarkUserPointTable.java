@@ -0,0 +1,50 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 벤치마크용 UserPointTable
+ * UserPointTable 과 같은 지연(throttle)을 흉내내되, throttle 을 끄면 지연 없이 동작한다.
+ * UserPointTable 과 같이 동기화하지 않은 HashMap 을 사용한다. 동시 접근은 TableUserPointStore 가 막는다.
+ */
+public class BenchmarkUserPointTable extends UserPointTable {
+
+    private final Map<Long, UserPoint> table = new HashMap<>();
+
+    private volatile boolean throttle;
+
+    public void setThrottle(boolean throttle) {
+        this.throttle = throttle;
+    }
+
+    @Override
+    public UserPoint selectById(Long id) {
+        throttle(200);
+        return table.getOrDefault(id, UserPoint.empty(id));
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        throttle(300);
+        UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+        table.put(id, userPoint);
+        return userPoint;
+    }
+
+    private void throttle(long millis) {
+        if (!throttle) {
+            return;
+        }
+
+        try {
+            TimeUnit.MILLISECONDS.sleep((long) (ThreadLocalRandom.current().nextDouble() * millis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
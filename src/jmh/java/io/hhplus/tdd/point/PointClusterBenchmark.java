@@ -0,0 +1,134 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.TddApplication;
+import io.hhplus.tdd.point.partition.PointPartitioner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 노드 수에 따른 충전 처리량 (localhost 에 nodes 개의 노드를 띄워 HTTP 로 요청)
+ * - entry : any(아무 노드로 요청, 담당 노드가 아니면 한 번 더 넘김) / owner(클라이언트가 담당 노드를 골라 바로 요청)
+ * - lock : global 이면 노드마다 하나의 락으로 직렬화되므로, 처리량이 노드 수에 비례해 늘어나는 것을 확인할 수 있다.
+ *   user 는 한 노드 안에서도 유저별로 병렬 처리되므로, 한 머신에서는 CPU 를 나누어 쓰는 만큼 차이가 작다.
+ *   (노드를 서로 다른 머신에 띄우면 CPU 도 노드 수만큼 늘어난다)
+ * 테이블의 임의 지연(UserPointTable, PointHistoryTable)이 그대로 적용된다.
+ *
+ * ./gradlew jmhJar && java -jar build/libs/*-jmh.jar PointClusterBenchmark -p nodes=1,2,4
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(64)
+public class PointClusterBenchmark {
+
+    @Param({"1", "2", "4"})
+    public int nodes;
+
+    @Param({"global"})
+    public String lock;
+
+    @Param({"any", "owner"})
+    public String entry;
+
+    @Param({"1000"})
+    public int users;
+
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private final List<String> nodeIds = new ArrayList<>();
+    private final List<String> urls = new ArrayList<>();
+    private PointPartitioner pointPartitioner;
+    private HttpClient httpClient;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> nodeList = new ArrayList<>();
+        int[] ports = new int[nodes];
+        for (int i = 0; i < nodes; i++) {
+            ports[i] = freePort();
+            nodeIds.add("node-" + (i + 1));
+            urls.add("http://localhost:" + ports[i]);
+            nodeList.add(nodeIds.get(i) + "=" + urls.get(i));
+        }
+        String nodeConfig = String.join(",", nodeList);
+
+        for (int i = 0; i < nodes; i++) {
+            contexts.add(new SpringApplicationBuilder(TddApplication.class)
+                    .properties(
+                            "server.port=" + ports[i],
+                            "logging.level.root=warn",
+                            "point.lock.mode=" + lock,
+                            // 처리량을 재기 위해 한도로 거절하지 않는다.
+                            "point.admission.enabled=false",
+                            "point.partition.enabled=true",
+                            "point.partition.node-id=" + nodeIds.get(i),
+                            "point.partition.nodes=" + nodeConfig)
+                    .run());
+        }
+
+        // 노드와 같은 설정으로 만든 partitioner 로 클라이언트가 담당 노드를 고른다. (entry=owner)
+        pointPartitioner = new PointPartitioner(true, 64, nodeIds.get(0), nodeConfig);
+        httpClient = HttpClient.newHttpClient();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexts.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Benchmark
+    public int charge(Client client) throws Exception {
+        long userId = client.random.nextLong(users) + 1;
+        String url = "owner".equals(entry)
+                ? urls.get(nodeIds.indexOf(pointPartitioner.ownerOf(userId)))
+                : urls.get(client.random.nextInt(nodes));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/point/" + userId + "/charge"))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"id\":" + userId + ",\"amount\":1}"))
+                .build();
+
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        private final SplittableRandom random = new SplittableRandom();
+    }
+}
@@ -0,0 +1,161 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.BenchmarkPointHistoryTable;
+import io.hhplus.tdd.database.BenchmarkUserPointTable;
+import io.hhplus.tdd.database.PointHistoryOutbox;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.PointLedger;
+import io.hhplus.tdd.database.PointLots;
+import io.hhplus.tdd.database.TableUserPointStore;
+import io.hhplus.tdd.database.UserPointCache;
+import io.hhplus.tdd.database.UserPointImage;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.database.VersionedUserPointStore;
+import io.hhplus.tdd.database.wal.PointWriteAheadLog;
+import io.hhplus.tdd.point.executor.LockPointCommandExecutor;
+import io.hhplus.tdd.point.executor.OptimisticPointUpdater;
+import io.hhplus.tdd.point.executor.PointCommandCoalescer;
+import io.hhplus.tdd.point.executor.PointCommandExecutor;
+import io.hhplus.tdd.point.lock.UserPointLockManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 유저 락과 낙관적 변경(CAS)의 경합 비교
+ * users 가 적을수록 같은 유저에 요청이 몰린다. 반복(iteration)마다 아래 값을 로그로 남긴다.
+ * - optimistic : 성공 1건당 버전 충돌(재시도) 수, 재시도 초과 수
+ * - lock : 락 획득을 기다린 평균 시간
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public abstract class PointContentionBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(PointContentionBenchmark.class);
+
+    private static final long INITIAL_POINT = 500_000L;
+
+    @Param({"lock", "optimistic"})
+    public String update;
+
+    @Param({"1", "8", "1024"})
+    public int users;
+
+    @Param({"false"})
+    public boolean throttle;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PointHistoryOutbox pointHistoryOutbox;
+    private PointBalanceHub pointBalanceHub;
+    private PointService pointService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        PointMetrics pointMetrics = new PointMetrics(meterRegistry,
+                new PointContentionProfiler(true, 20, 4, 4096, Duration.ofSeconds(60)));
+        BenchmarkUserPointTable userPointTable = new BenchmarkUserPointTable();
+        BenchmarkPointHistoryTable pointHistoryTable = new BenchmarkPointHistoryTable();
+
+        UserPointRepository userPointRepository =
+                new UserPointRepository(new TableUserPointStore(userPointTable), new UserPointCache(100_000, 16),
+                        new UserPointImage(false), pointMetrics);
+        PointHistoryRepository pointHistoryRepository = new PointHistoryRepository(pointHistoryTable, pointMetrics);
+        pointHistoryOutbox = new PointHistoryOutbox(pointHistoryRepository, 10_000, 16, 100);
+        PointCommandExecutor pointCommandExecutor = new LockPointCommandExecutor(new UserPointLockManager(pointMetrics, Duration.ofSeconds(30)));
+        PointWriteAheadLog pointWriteAheadLog = new PointWriteAheadLog(false, "", 64);
+        pointBalanceHub = new PointBalanceHub(Duration.ofMinutes(30), 100, 1, Duration.ofSeconds(5), pointMetrics);
+        PointLedger pointLedger = new PointLedger(userPointRepository, pointHistoryOutbox, pointWriteAheadLog, pointBalanceHub,
+                new PointLots(false, Duration.ofDays(365), Duration.ofSeconds(1), 64, 5));
+
+        pointService = new PointService(userPointRepository, pointHistoryRepository, pointHistoryOutbox, pointLedger,
+                pointCommandExecutor, new PointCommandCoalescer(pointCommandExecutor, false, 100),
+                new OptimisticPointUpdater(new VersionedUserPointStore(userPointRepository, pointLedger, 100_000),
+                        pointMetrics, "optimistic".equals(update), 10, 50, 5000),
+                pointWriteAheadLog,
+                pointMetrics);
+
+        for (long userId = 1; userId <= users; userId++) {
+            userPointRepository.save(userId, INITIAL_POINT);
+        }
+
+        userPointTable.setThrottle(throttle);
+        pointHistoryTable.setThrottle(throttle);
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        if ("optimistic".equals(update)) {
+            double commits = meterRegistry.get("point.optimistic.commits").counter().count();
+            double conflicts = meterRegistry.get("point.optimistic.conflicts").counter().count();
+            double exhausted = meterRegistry.get("point.optimistic.exhausted").counter().count();
+            log.info("낙관적 변경 경합 users={}, retriesPerCommit={}, exhausted={}",
+                    users, String.format("%.4f", commits == 0 ? 0 : conflicts / commits), (long) exhausted);
+        } else {
+            log.info("유저 락 경합 users={}, lockWaitMeanMicros={}",
+                    users, String.format("%.1f", meterRegistry.get("point.lock.wait").timer().mean(TimeUnit.MICROSECONDS)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pointHistoryOutbox.shutdown();
+        pointBalanceHub.shutdown();
+    }
+
+    // 충전과 사용을 번갈아 요청해 잔액이 한도/0 에 닿지 않도록 한다.
+    @Benchmark
+    public UserPoint chargeAndUse(Requester requester) {
+        long userId = requester.nextUser(users);
+        try {
+            return requester.charge
+                    ? pointService.chargeUserPoint(userId, 1L)
+                    : pointService.UseUserPoint(userId, 1L);
+        } catch (IllegalStateException e) {
+            // 재시도 초과는 report 에서 집계한다.
+            return null;
+        } finally {
+            requester.charge = !requester.charge;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Requester {
+        private final SplittableRandom random = new SplittableRandom();
+        private boolean charge = true;
+
+        long nextUser(int users) {
+            return random.nextLong(users) + 1;
+        }
+    }
+
+    @Threads(8)
+    public static class EightThreads extends PointContentionBenchmark {
+    }
+
+    @Threads(32)
+    public static class ThirtyTwoThreads extends PointContentionBenchmark {
+    }
+}
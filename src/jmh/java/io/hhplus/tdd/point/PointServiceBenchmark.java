@@ -0,0 +1,238 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.BenchmarkPointHistoryTable;
+import io.hhplus.tdd.database.BenchmarkUserPointTable;
+import io.hhplus.tdd.database.LongKeyUserPointStore;
+import io.hhplus.tdd.database.PointHistoryOutbox;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.PointLedger;
+import io.hhplus.tdd.database.PointLots;
+import io.hhplus.tdd.database.TableUserPointStore;
+import io.hhplus.tdd.database.UserPointCache;
+import io.hhplus.tdd.database.UserPointImage;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.database.UserPointStore;
+import io.hhplus.tdd.database.VersionedUserPointStore;
+import io.hhplus.tdd.database.wal.PointWriteAheadLog;
+import io.hhplus.tdd.point.executor.ActorPointCommandExecutor;
+import io.hhplus.tdd.point.executor.LockPointCommandExecutor;
+import io.hhplus.tdd.point.executor.OptimisticPointUpdater;
+import io.hhplus.tdd.point.executor.PointCommandCoalescer;
+import io.hhplus.tdd.point.executor.PointCommandExecutor;
+import io.hhplus.tdd.point.lock.GlobalPointLockManager;
+import io.hhplus.tdd.point.lock.PointLockManager;
+import io.hhplus.tdd.point.lock.UserPointLockManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PointService 주요 기능의 처리량 벤치마크
+ * - distribution : hot(모든 스레드가 한 유저에 몰림) / uniform(users 명에게 고르게 분산)
+ * - throttle : 테이블 지연을 켜고 끌 수 있다. 끄면 서비스 자체(락, 캐시, outbox)의 비용만 측정된다.
+ * - lock, mode, coalesce, optimistic, cacheSize : 락/실행 방식/캐시 전략 비교용
+ * - store : table(UserPointTable, throttle 적용) / long-key(LongKeyUserPointStore, 지연 없음)
+ * - wal : WAL(디스크 기록) 사용 시 비용 확인용
+ * 스레드 수는 하위 클래스(1, 8, 32)로 나누어 측정한다.
+ *
+ * ./gradlew jmh
+ * ./gradlew jmhJar && java -jar build/libs/*-jmh.jar PointServiceBenchmark -p throttle=true -p mode=lock,actor
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public abstract class PointServiceBenchmark {
+
+    // 충전/사용 실패 시 잔액을 되돌리는 금액 (한도 1_000_000, 잔액 0 에 닿지 않도록)
+    private static final long RESET_AMOUNT = 900_000L;
+    private static final long INITIAL_POINT = 500_000L;
+    private static final int HISTORIES_PER_USER = 10;
+
+    @Param({"hot", "uniform"})
+    public String distribution;
+
+    @Param({"1000"})
+    public int users;
+
+    @Param({"false"})
+    public boolean throttle;
+
+    @Param({"user", "global"})
+    public String lock;
+
+    @Param({"lock"})
+    public String mode;
+
+    @Param({"false"})
+    public boolean coalesce;
+
+    @Param({"false"})
+    public boolean optimistic;
+
+    // true 면 임시 디렉토리에 WAL 을 기록하고, 응답 전에 디스크에 내려가기를 기다린다.
+    @Param({"false"})
+    public boolean wal;
+
+    @Param({"100000"})
+    public int cacheSize;
+
+    @Param({"table"})
+    public String store;
+
+    private BenchmarkUserPointTable userPointTable;
+    private BenchmarkPointHistoryTable pointHistoryTable;
+    private PointHistoryOutbox pointHistoryOutbox;
+    private PointWriteAheadLog pointWriteAheadLog;
+    private PointBalanceHub pointBalanceHub;
+    private ActorPointCommandExecutor actorPointCommandExecutor;
+    private PointMetrics pointMetrics;
+    private PointService pointService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 계측 비용까지 포함해 측정한다.
+        pointMetrics = new PointMetrics(new SimpleMeterRegistry(),
+                new PointContentionProfiler(true, 20, 4, 4096, Duration.ofSeconds(60)));
+        userPointTable = new BenchmarkUserPointTable();
+        pointHistoryTable = new BenchmarkPointHistoryTable();
+
+        UserPointStore userPointStore = "long-key".equals(store)
+                ? new LongKeyUserPointStore(64)
+                : new TableUserPointStore(userPointTable);
+        UserPointRepository userPointRepository =
+                new UserPointRepository(userPointStore, new UserPointCache(cacheSize, 16), new UserPointImage(wal), pointMetrics);
+        PointHistoryRepository pointHistoryRepository = new PointHistoryRepository(pointHistoryTable, pointMetrics);
+        pointHistoryOutbox = new PointHistoryOutbox(pointHistoryRepository, 10_000, 16, 100);
+
+        PointCommandExecutor pointCommandExecutor = commandExecutor();
+        pointWriteAheadLog = new PointWriteAheadLog(wal, walDirectory(), 64);
+        pointBalanceHub = new PointBalanceHub(Duration.ofMinutes(30), 100, 1, Duration.ofSeconds(5), pointMetrics);
+        PointLedger pointLedger = new PointLedger(userPointRepository, pointHistoryOutbox, pointWriteAheadLog, pointBalanceHub,
+                new PointLots(false, Duration.ofDays(365), Duration.ofSeconds(1), 64, 5));
+        pointService = new PointService(userPointRepository, pointHistoryRepository, pointHistoryOutbox, pointLedger,
+                pointCommandExecutor, new PointCommandCoalescer(pointCommandExecutor, coalesce, 100),
+                new OptimisticPointUpdater(new VersionedUserPointStore(userPointRepository, pointLedger, 100_000),
+                        pointMetrics, optimistic, 10, 50, 5000),
+                pointWriteAheadLog,
+                pointMetrics);
+
+        // 준비 데이터는 지연 없이 넣고, 측정할 때만 throttle 을 적용한다.
+        for (long userId = 1; userId <= users; userId++) {
+            userPointRepository.save(userId, INITIAL_POINT);
+            for (int i = 0; i < HISTORIES_PER_USER; i++) {
+                pointHistoryRepository.insert(userId, 1L, TransactionType.CHARGE, System.currentTimeMillis());
+            }
+        }
+
+        userPointTable.setThrottle(throttle);
+        pointHistoryTable.setThrottle(throttle);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pointHistoryOutbox.shutdown();
+        pointWriteAheadLog.shutdown();
+        pointBalanceHub.shutdown();
+        if (actorPointCommandExecutor != null) {
+            actorPointCommandExecutor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public UserPoint chargeUserPoint(UserSelector userSelector) {
+        long userId = userSelector.next(this);
+        try {
+            return pointService.chargeUserPoint(userId, 1L);
+        } catch (IllegalArgumentException e) {
+            return pointService.UseUserPoint(userId, RESET_AMOUNT);
+        }
+    }
+
+    @Benchmark
+    public UserPoint useUserPoint(UserSelector userSelector) {
+        long userId = userSelector.next(this);
+        try {
+            return pointService.UseUserPoint(userId, 1L);
+        } catch (IllegalArgumentException e) {
+            return pointService.chargeUserPoint(userId, RESET_AMOUNT);
+        }
+    }
+
+    @Benchmark
+    public UserPoint getUserPoint(UserSelector userSelector) {
+        return pointService.getUserPoint(userSelector.next(this));
+    }
+
+    @Benchmark
+    public List<PointHistory> getUserPointHistory(UserSelector userSelector) {
+        return pointService.getUserPointHistory(userSelector.next(this));
+    }
+
+    private String walDirectory() {
+        if (!wal) {
+            return "";
+        }
+
+        try {
+            return Files.createTempDirectory("point-wal-bench").toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private PointCommandExecutor commandExecutor() {
+        if ("actor".equals(mode)) {
+            actorPointCommandExecutor = new ActorPointCommandExecutor(64);
+            return actorPointCommandExecutor;
+        }
+
+        PointLockManager pointLockManager = "global".equals(lock)
+                ? new GlobalPointLockManager(pointMetrics, Duration.ofSeconds(30))
+                : new UserPointLockManager(pointMetrics, Duration.ofSeconds(30));
+        return new LockPointCommandExecutor(pointLockManager);
+    }
+
+    @State(Scope.Thread)
+    public static class UserSelector {
+        private final SplittableRandom random = new SplittableRandom();
+
+        long next(PointServiceBenchmark benchmark) {
+            return "hot".equals(benchmark.distribution) ? 1L : random.nextLong(benchmark.users) + 1;
+        }
+    }
+
+    @Threads(1)
+    public static class SingleThread extends PointServiceBenchmark {
+    }
+
+    @Threads(8)
+    public static class EightThreads extends PointServiceBenchmark {
+    }
+
+    @Threads(32)
+    public static class ThirtyTwoThreads extends PointServiceBenchmark {
+    }
+}
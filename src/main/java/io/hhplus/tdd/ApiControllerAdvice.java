@@ -1,5 +1,7 @@
 package io.hhplus.tdd;
 
+import io.hhplus.tdd.point.PointBusyException;
+import io.hhplus.tdd.point.partition.PointPartitionAssignException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -11,6 +13,14 @@ class ApiControllerAdvice extends ResponseEntityExceptionHandler {
     public ResponseEntity<ErrorResponse> handleIllegalArgumentException(Exception e) {
         return ResponseEntity.status(400).body(new ErrorResponse("400", e.getMessage()));
     }
+    @ExceptionHandler(value = {PointBusyException.class})
+    public ResponseEntity<ErrorResponse> handlePointBusyException(Exception e) {
+        return ResponseEntity.status(429).body(new ErrorResponse("429", e.getMessage()));
+    }
+    @ExceptionHandler(value = {PointPartitionAssignException.class})
+    public ResponseEntity<ErrorResponse> handlePointPartitionAssignException(Exception e) {
+        return ResponseEntity.status(502).body(new ErrorResponse("502", e.getMessage()));
+    }
     @ExceptionHandler(value = Exception.class)
     public ResponseEntity<ErrorResponse> handleException(Exception e) {
         return ResponseEntity.status(500).body(new ErrorResponse("500", "에러가 발생했습니다."));
@@ -1,7 +1,20 @@
 package io.hhplus.tdd;
 
+import io.hhplus.tdd.point.PointBusyException;
+
 public record ErrorResponse(
         String code,
         String message
 ) {
+
+    // ApiControllerAdvice 와 같은 규칙으로 예외를 응답으로 변환한다.
+    public static ErrorResponse from(Exception e) {
+        if (e instanceof IllegalArgumentException) {
+            return new ErrorResponse("400", e.getMessage());
+        }
+        if (e instanceof PointBusyException) {
+            return new ErrorResponse("429", e.getMessage());
+        }
+        return new ErrorResponse("500", "에러가 발생했습니다.");
+    }
 }
@@ -0,0 +1,20 @@
+package io.hhplus.tdd;
+
+/**
+ * userId 로 위치(stripe, 슬롯, 파티션 등)를 고를 때 사용하는 hash
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    // 연속된 값도 고르게 퍼지도록 섞는다. (murmur3 fmix64)
+    public static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
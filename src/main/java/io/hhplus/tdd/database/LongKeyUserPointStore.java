@@ -0,0 +1,201 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.Hashing;
+import io.hhplus.tdd.point.UserPoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * long 키로 UserPoint 를 담는 저장소
+ * HashMap<Long, UserPoint> 는 조회마다 키를 boxing 하고, 유저마다 Node 와 Long 객체를 더 만든다.
+ * 여기서는 long[] 키와 UserPoint[] 값의 open addressing 으로 담아, 유저마다 UserPoint 객체 하나만 남긴다.
+ * - 조회 : stripe 의 StampedLock 으로 낙관적으로 읽고, 그 사이 쓰기가 있었을 때만 읽기 락을 잡는다. 저장된 UserPoint 를 그대로 반환하므로 할당이 없다.
+ *   저장된 적 없는 유저만 UserPoint.empty 를 새로 만든다.
+ * - 저장 : stripe 의 쓰기 락 안에서 값을 교체한다.
+ * - 순회 : stripe 의 읽기 락 안에서는 값만 복사하고, 복사한 값은 락 밖에서 넘기므로 순회가 느려도 쓰기를 오래 막지 않는다.
+ */
+@Component
+@ConditionalOnProperty(name = "point.store.mode", havingValue = "long-key")
+public class LongKeyUserPointStore implements UserPointStore {
+
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final float LOAD_FACTOR = 0.7f;
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+
+    public LongKeyUserPointStore(@Value("${point.store.stripes:64}") int stripeCount) {
+        if (stripeCount < 1 || Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("stripe 수는 2 의 거듭제곱이어야 합니다.");
+        }
+
+        this.stripes = new Stripe[stripeCount];
+        this.stripeShift = Long.SIZE - Integer.numberOfTrailingZeros(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    // 없는 유저는 조회할 때마다 UserPoint.empty 를 만든다. userId 와 조회 시각을 담으므로 미리 만들어 둘 수 없다.
+    @Override
+    public UserPoint selectById(long id) {
+        UserPoint userPoint = selectStored(id);
+
+        return userPoint == null ? UserPoint.empty(id) : userPoint;
+    }
+
+    @Override
+    public UserPoint selectStored(long id) {
+        long hash = Hashing.mix(id);
+
+        return stripeOf(hash).get(id, hash);
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        long hash = Hashing.mix(id);
+        UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+        stripeOf(hash).put(id, hash, userPoint);
+
+        return userPoint;
+    }
+
+    @Override
+    public boolean requiresCache() {
+        return false;
+    }
+
+    @Override
+    public boolean supportsScan() {
+        return true;
+    }
+
+    @Override
+    public void forEach(Consumer<UserPoint> action) {
+        for (Stripe stripe : stripes) {
+            for (UserPoint userPoint : stripe.copy()) {
+                action.accept(userPoint);
+            }
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    // 상위 비트로 stripe 를, 하위 비트로 stripe 안의 위치를 고른다.
+    private Stripe stripeOf(long hash) {
+        return stripes.length == 1 ? stripes[0] : stripes[(int) (hash >>> stripeShift)];
+    }
+
+    private static final class Stripe {
+        private final StampedLock lock = new StampedLock();
+        // 크기를 늘릴 때는 키와 값을 함께 교체하므로, 낙관적으로 읽는 동안에도 길이가 어긋나지 않는다.
+        private volatile Slots slots = new Slots(INITIAL_CAPACITY);
+        private int size;
+
+        private UserPoint get(long id, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                UserPoint userPoint = slots.find(id, hash);
+                if (lock.validate(stamp)) {
+                    return userPoint;
+                }
+            }
+
+            stamp = lock.readLock();
+            try {
+                return slots.find(id, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private void put(long id, long hash, UserPoint userPoint) {
+            long stamp = lock.writeLock();
+            try {
+                Slots current = slots;
+                int index = current.indexOf(id, hash);
+                if (current.values[index] == null) {
+                    if (size + 1 > current.keys.length * LOAD_FACTOR) {
+                        current = current.resize();
+                        slots = current;
+                        index = current.indexOf(id, hash);
+                    }
+                    current.keys[index] = id;
+                    size++;
+                }
+                current.values[index] = userPoint;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        // 담긴 값을 복사한다. UserPoint 는 바뀌지 않으므로 참조만 복사한다.
+        private UserPoint[] copy() {
+            long stamp = lock.readLock();
+            try {
+                return Arrays.stream(slots.values).filter(Objects::nonNull).toArray(UserPoint[]::new);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    // 값이 null 인 칸은 비어있는 칸이다.
+    private static final class Slots {
+        private final long[] keys;
+        private final UserPoint[] values;
+
+        private Slots(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new UserPoint[capacity];
+        }
+
+        private UserPoint find(long id, long hash) {
+            return values[indexOf(id, hash)];
+        }
+
+        // id 가 있는 위치, 없으면 넣을 위치 (linear probing)
+        // 낙관적 읽기 중에는 쓰기와 겹칠 수 있지만, 빈 칸이 항상 남아있으므로 탐색은 끝난다.
+        private int indexOf(long id, long hash) {
+            int mask = keys.length - 1;
+            int index = (int) hash & mask;
+            while (values[index] != null && keys[index] != id) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+        private Slots resize() {
+            Slots resized = new Slots(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null) {
+                    int index = resized.indexOf(keys[i], Hashing.mix(keys[i]));
+                    resized.keys[index] = keys[i];
+                    resized.values[index] = values[i];
+                }
+            }
+            return resized;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package io.hhplus.tdd.database;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
+
+/**
+ * 만료 시각이 된 유저를 찾기 위한 계층형 타이밍 휠 (hashed hierarchical timing wheel)
+ * - 레벨 l 의 칸 하나는 tick * wheelSize^l 의 시간을 맡는다. 만료까지 남은 시간에 맞는 레벨의 칸에 넣고,
+ *   윗 레벨의 칸은 그 칸의 시간이 시작될 때 아래 레벨로 다시 나누어 담는다.
+ * - 넣기와 꺼내기는 항목마다 O(1) 이다. (다시 나누어 담는 것은 항목마다 최대 levels 번)
+ *   맨 위 레벨보다 먼 항목은 맨 위 레벨에 넣어 두고, 그 칸을 다시 나눌 때 남은 시간으로 다시 넣는다.
+ * - schedule 은 여러 스레드에서 lock 없이(CAS) 대기 목록에 쌓고, 휠은 advance 를 호출하는 한 스레드만 다룬다.
+ */
+public final class PointExpirationWheel {
+
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final int levels;
+    private final Entry[][] buckets;
+
+    // 아직 휠에 넣지 않은 항목 (Treiber stack)
+    private final AtomicReference<Entry> pending = new AtomicReference<>();
+
+    // 마지막으로 처리한 tick (epoch millis / tickMillis)
+    private long currentTick;
+
+    public PointExpirationWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (tickMillis < 1 || levels < 1 || wheelSize < 2 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("타이밍 휠의 tick 은 1ms 이상, 칸 수는 2 이상의 2의 거듭제곱, 레벨은 1 이상이어야 합니다.");
+        }
+
+        if ((long) Integer.numberOfTrailingZeros(wheelSize) * levels > 62) {
+            throw new IllegalArgumentException("타이밍 휠이 맡는 tick 수(칸 수^레벨)는 2^62 이하여야 합니다.");
+        }
+
+        this.tickMillis = tickMillis;
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        this.levels = levels;
+        this.buckets = new Entry[levels][wheelSize];
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public long tickMillis() {
+        return tickMillis;
+    }
+
+    // expireAtMillis 가 지나면 advance 에서 userId 를 알린다. 어느 스레드에서나 호출할 수 있다.
+    public void schedule(long userId, long expireAtMillis) {
+        Entry entry = new Entry(userId, (expireAtMillis + tickMillis - 1) / tickMillis);
+
+        Entry head;
+        do {
+            head = pending.get();
+            entry.next = head;
+        } while (!pending.compareAndSet(head, entry));
+    }
+
+    /**
+     * nowMillis 까지 tick 을 하나씩 진행하며 만료 시각이 지난 항목의 userId 를 expired 로 알린다.
+     * 같은 유저가 여러 번 알려질 수 있다. 한 스레드에서만 호출해야 한다.
+     */
+    public void advance(long nowMillis, LongConsumer expired) {
+        Entry entry = pending.getAndSet(null);
+        while (entry != null) {
+            Entry next = entry.next;
+            place(entry, expired);
+            entry = next;
+        }
+
+        long nowTick = nowMillis / tickMillis;
+        while (currentTick < nowTick) {
+            currentTick++;
+
+            // 윗 레벨부터 이번 tick 에 시작하는 칸을 아래 레벨로 다시 담는다.
+            for (int level = levels - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (bits * level)) - 1)) == 0) {
+                    Entry cascaded = detach(level, (int) ((currentTick >>> (bits * level)) & mask));
+                    while (cascaded != null) {
+                        Entry next = cascaded.next;
+                        place(cascaded, expired);
+                        cascaded = next;
+                    }
+                }
+            }
+
+            Entry due = detach(0, (int) (currentTick & mask));
+            while (due != null) {
+                expired.accept(due.userId);
+                due = due.next;
+            }
+        }
+    }
+
+    private void place(Entry entry, LongConsumer expired) {
+        long delta = entry.expireTick - currentTick;
+        if (delta <= 0) {
+            expired.accept(entry.userId);
+            return;
+        }
+
+        int level = 0;
+        while (level < levels - 1 && delta >= (1L << (bits * (level + 1)))) {
+            level++;
+        }
+
+        int slot = (int) ((entry.expireTick >>> (bits * level)) & mask);
+        entry.next = buckets[level][slot];
+        buckets[level][slot] = entry;
+    }
+
+    private Entry detach(int level, int slot) {
+        Entry head = buckets[level][slot];
+        buckets[level][slot] = null;
+        return head;
+    }
+
+    private static final class Entry {
+        private final long userId;
+        private final long expireTick;
+        private Entry next;
+
+        private Entry(long userId, long expireTick) {
+            this.userId = userId;
+            this.expireTick = expireTick;
+        }
+    }
+}
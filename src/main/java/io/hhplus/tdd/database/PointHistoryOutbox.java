@@ -0,0 +1,169 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 포인트 내역을 바로 PointHistoryTable 에 쓰지 않고 outbox 에 쌓아두면,
+ * 백그라운드 appender 가 꺼내서 PointHistoryRepository 에 기록한다. (write-behind)
+ * - 유저는 항상 같은 appender 에 배정되므로 유저별 내역 순서가 유지된다.
+ * - outbox 가 가득 차면 append 는 자리가 날 때까지 기다린다.
+ * - flush(userId) 로 해당 유저의 내역이 모두 기록될 때까지 기다릴 수 있다.
+ * PointHistoryTable 에는 여러 건을 한 번에 쓰는 API 가 없고 기록은 한 번에 하나씩만 할 수 있으므로(PointHistoryRepository),
+ * appender 는 대기열에서 batch-size 건까지 한 번에 꺼내되 테이블에는 한 건씩 기록한다.
+ * appender 를 늘려도 테이블 기록은 겹치지 않으므로 기본값은 1 이다. 테이블보다 빠른 저장소를 쓸 때만 늘린다.
+ */
+@Component
+public class PointHistoryOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(PointHistoryOutbox.class);
+
+    // 테이블이 id 를 매기는 내역 (WAL 순번은 1 부터 시작한다.)
+    private static final long UNASSIGNED_ID = 0;
+
+    private final PointHistoryRepository pointHistoryRepository;
+    private final int batchSize;
+    private final List<BlockingQueue<PendingHistory>> queues = new ArrayList<>();
+    private final List<Thread> appenders = new ArrayList<>();
+    // 유저별 마지막으로 append 된 내역, 이 내역이 기록되면 그 이전 내역도 모두 기록된 상태이다.
+    private final ConcurrentHashMap<Long, CompletableFuture<PointHistory>> lastWrites = new ConcurrentHashMap<>();
+
+    private volatile boolean running = true;
+
+    public PointHistoryOutbox(
+            PointHistoryRepository pointHistoryRepository,
+            @Value("${point.history.outbox.capacity:10000}") int capacity,
+            @Value("${point.history.outbox.appenders:1}") int appenderCount,
+            @Value("${point.history.outbox.batch-size:100}") int batchSize
+    ) {
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.batchSize = batchSize;
+
+        int queueCapacity = Math.max(1, capacity / appenderCount);
+        for (int i = 0; i < appenderCount; i++) {
+            BlockingQueue<PendingHistory> queue = new ArrayBlockingQueue<>(queueCapacity);
+            Thread appender = new Thread(() -> append(queue), "point-history-appender-" + i);
+            appender.setDaemon(true);
+            appender.start();
+
+            queues.add(queue);
+            appenders.add(appender);
+        }
+    }
+
+    // 같은 유저에 대해서는 포인트 변경과 같은 순서(직렬화된 구간 안)로 호출되어야 한다.
+    public CompletableFuture<PointHistory> append(long userId, long amount, TransactionType type, long updateMillis) {
+
+        return append(UNASSIGNED_ID, userId, amount, type, updateMillis);
+    }
+
+    // id 를 미리 정한 내역(WAL 순번)을 기록한다.
+    public CompletableFuture<PointHistory> append(long id, long userId, long amount, TransactionType type, long updateMillis) {
+        PendingHistory pending = new PendingHistory(id, userId, amount, type, updateMillis, new CompletableFuture<>());
+
+        lastWrites.put(userId, pending.future());
+        pending.future().whenComplete((history, e) -> lastWrites.remove(userId, pending.future()));
+
+        try {
+            queueOf(userId).put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.future().completeExceptionally(e);
+            throw new IllegalStateException("포인트 내역을 저장하지 못했습니다.", e);
+        }
+
+        return pending.future();
+    }
+
+    // 해당 유저의 내역이 모두 기록될 때까지 기다린다.
+    public void flush(long userId) {
+        CompletableFuture<PointHistory> lastWrite = lastWrites.get(userId);
+
+        if (lastWrite != null) {
+            lastWrite.exceptionally(e -> null).join();
+        }
+    }
+
+    // 아직 기록되지 않은 내역 수
+    public int pendingCount() {
+        return queues.stream().mapToInt(BlockingQueue::size).sum();
+    }
+
+    // 남아있는 내역을 모두 기록한 뒤 appender 를 종료한다.
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+
+        for (Thread appender : appenders) {
+            try {
+                appender.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private BlockingQueue<PendingHistory> queueOf(long userId) {
+        return queues.get(Math.floorMod(Long.hashCode(userId), queues.size()));
+    }
+
+    private void append(BlockingQueue<PendingHistory> queue) {
+        List<PendingHistory> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingHistory first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            for (PendingHistory pending : batch) {
+                write(pending);
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(PendingHistory pending) {
+        try {
+            PointHistory history = pending.id() == UNASSIGNED_ID
+                    ? pointHistoryRepository.insert(pending.userId(), pending.amount(), pending.type(), pending.updateMillis())
+                    : pointHistoryRepository.insert(pending.id(), pending.userId(), pending.amount(), pending.type(), pending.updateMillis());
+            pending.future().complete(history);
+        } catch (RuntimeException e) {
+            log.error("포인트 내역 저장 실패 userId={}", pending.userId(), e);
+            pending.future().completeExceptionally(e);
+        }
+    }
+
+    private record PendingHistory(
+            long id,
+            long userId,
+            long amount,
+            TransactionType type,
+            long updateMillis,
+            CompletableFuture<PointHistory> future
+    ) {
+    }
+}
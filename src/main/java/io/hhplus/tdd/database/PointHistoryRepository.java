@@ -0,0 +1,329 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.PointSummary;
+import io.hhplus.tdd.point.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * PointHistoryTable 앞에서 userId -> 내역 목록 인덱스를 관리한다.
+ * PointHistoryTable.selectAllByUserId 는 전체 내역을 훑기 때문에, 유저별 첫 조회에서만 사용하고
+ * 이후에는 insert 시점에 인덱스에 추가된 내역을 그대로 반환한다.
+ * 인덱스에 내역을 추가할 때 유저별 합계(PointSummary)도 함께 갱신하므로, 합계는 내역을 다시 훑지 않고 조회한다.
+ * 기간 조회를 위해 유저별로 내역의 위치를 시각(updateMillis) 순으로 정렬해 함께 유지한다. (전체, 종류별)
+ * PointHistoryTable 은 동기화하지 않은 ArrayList 와 id 순번을 사용하므로, 기록은 한 번에 하나씩 하고 조회는 기록과 겹치지 않게 한다.
+ * 테이블의 모든 내역을 이 저장소가 기록했으면(테이블이 매긴 id 가 1 부터 빠짐없이 이어지면) 인덱스가 전체 내역을 담고 있으므로,
+ * 그때부터는 기록마다 인덱스에 바로 추가하고 인덱스에 없는 유저는 테이블을 읽지 않고 내역이 없는 것으로 본다. (내보내기처럼 모든 유저를 조회할 때 유저마다 테이블을 훑지 않는다)
+ */
+@Component
+@RequiredArgsConstructor
+public class PointHistoryRepository {
+
+    private final PointHistoryTable pointHistoryTable;
+    private final PointMetrics pointMetrics;
+
+    private final ConcurrentHashMap<Long, UserHistories> index = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock tableLock = new ReentrantReadWriteLock();
+
+    // 이 저장소가 테이블에 기록한 내역 수, tableLock 의 쓰기 락 안에서만 바꾼다.
+    private long recordedRows;
+    // 테이블의 모든 내역을 이 저장소가 기록했는지, 한 번 false 가 되면 다시 true 가 되지 않는다.
+    private volatile boolean indexComplete;
+
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        long start = System.nanoTime();
+        PointHistory history = withTable(tableLock.writeLock(), () -> record(userId, amount, type, updateMillis));
+        pointMetrics.recordTable(PointMetrics.TableOperation.POINT_HISTORY_INSERT, start);
+        pointMetrics.recordHistory(type);
+
+        // 인덱스가 전체 내역을 담고 있지 않으면, 아직 한 번도 조회되지 않은 유저는 첫 조회 시 테이블에서 함께 읽어온다.
+        if (indexComplete) {
+            index.compute(userId, (id, histories) ->
+                    (histories == null ? new UserHistories(id, List.of()) : histories).append(history));
+        } else {
+            index.computeIfPresent(userId, (id, histories) -> histories.append(history));
+        }
+
+        return history;
+    }
+
+    /**
+     * WAL 을 사용할 때는 WAL 의 순번을 내역 id 로 사용한다.
+     * 테이블에도 기록하지만 테이블이 매기는 id 는 기록 순서에 따라 달라지므로, 인덱스에는 순번을 id 로 담는다.
+     * 테이블에 기록하기 전에 인덱스에 먼저 담는다. 그 사이의 첫 조회가 테이블을 읽으면 같은 내역을 테이블의 id 로 한 번 더 담게 된다.
+     */
+    public PointHistory insert(long id, long userId, long amount, TransactionType type, long updateMillis) {
+        PointHistory history = new PointHistory(id, userId, amount, type, updateMillis);
+        restore(history);
+
+        long start = System.nanoTime();
+        withTable(tableLock.writeLock(), () -> record(userId, amount, type, updateMillis));
+        pointMetrics.recordTable(PointMetrics.TableOperation.POINT_HISTORY_INSERT, start);
+        pointMetrics.recordHistory(type);
+
+        return history;
+    }
+
+    /**
+     * 복구한 내역을 인덱스에만 담는다. (WAL 복구용)
+     * WAL 을 사용하면 모든 내역이 복구 시점부터 인덱스에 있으므로, 인덱스에 없는 유저도 테이블에서 읽지 않고 바로 만든다.
+     */
+    public void restore(PointHistory history) {
+        index.compute(history.userId(), (id, histories) ->
+                (histories == null ? new UserHistories(id, List.of()) : histories).append(history));
+    }
+
+    public List<PointHistory> findAllByUserId(long userId) {
+        UserHistories histories = histories(userId);
+
+        return histories == null ? List.of() : histories.snapshot();
+    }
+
+    // cursor(PointHistory.id) 이후의 내역을 최대 limit 건 반환한다.
+    public List<PointHistory> findAllByUserIdAfter(long userId, long cursor, int limit) {
+        UserHistories histories = histories(userId);
+
+        return histories == null ? List.of() : histories.page(cursor, limit);
+    }
+
+    /**
+     * [fromMillis, toMillis) 사이에 기록된 내역을 시각 순으로 반환한다. type 이 null 이면 모든 종류를 반환한다.
+     * 시각 순 인덱스를 이진 탐색하므로 O(log n + k) 이고, 반환할 내역만 만든다.
+     */
+    public List<PointHistory> findAllByUserIdBetween(long userId, long fromMillis, long toMillis, TransactionType type) {
+        UserHistories histories = histories(userId);
+
+        return histories == null ? List.of() : histories.between(fromMillis, toMillis, type);
+    }
+
+    // 인덱스에 담긴 내역과 같은 시점의 합계, 첫 조회에서는 테이블의 내역으로 다시 계산한다.
+    public PointSummary findSummaryByUserId(long userId) {
+        UserHistories histories = histories(userId);
+
+        return histories == null ? PointSummary.empty(userId) : histories.summary();
+    }
+
+    private UserHistories histories(long userId) {
+        return indexComplete ? index.get(userId) : index.computeIfAbsent(userId, this::load);
+    }
+
+    // 테이블이 매긴 id 가 기록한 수와 같으면, 그 앞의 내역도 모두 이 저장소가 기록한 것이다.
+    private PointHistory record(long userId, long amount, TransactionType type, long updateMillis) {
+        PointHistory history = pointHistoryTable.insert(userId, amount, type, updateMillis);
+        recordedRows++;
+        indexComplete = history != null && history.id() == recordedRows && (recordedRows == 1 || indexComplete);
+
+        return history;
+    }
+
+    // 내역이 없는 유저는 인덱스에 담지 않는다. (존재하지 않는 userId 조회로 인덱스가 커지는 것을 방지)
+    private UserHistories load(long userId) {
+        long start = System.nanoTime();
+        List<PointHistory> histories = withTable(tableLock.readLock(), () -> pointHistoryTable.selectAllByUserId(userId));
+        pointMetrics.recordTable(PointMetrics.TableOperation.POINT_HISTORY_SELECT_ALL, start);
+
+        return histories.isEmpty() ? null : new UserHistories(userId, histories);
+    }
+
+    private <T> T withTable(Lock lock, Supplier<T> action) {
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 한 유저의 내역을 열(column) 단위의 primitive 배열로 담는다.
+     * PointHistory 객체와 목록의 참조를 들고 있지 않으므로 내역마다 객체 헤더와 참조가 없다. (측정값은 README 의 내역 인덱스 메모리)
+     * userId 는 유저마다 같으므로 담지 않고, PointHistory 는 조회할 때만 만든다.
+     */
+    private static final class UserHistories {
+        private static final int INITIAL_CAPACITY = 4;
+        private static final TransactionType[] TYPES = TransactionType.values();
+
+        private final long userId;
+        private long[] ids;
+        private long[] amounts;
+        private long[] millis;
+        private byte[] types;
+        private int size;
+
+        // 내역의 위치(배열 index)를 시각 순으로 담는다. 같은 시각이면 추가된 순서를 따른다.
+        private int[] timeOrder;
+        // 종류별 시각 순 위치, typeTimeOrder[type] 에 typeSizes[type] 건
+        private final int[][] typeTimeOrder = new int[TYPES.length][];
+        private final int[] typeSizes = new int[TYPES.length];
+
+        // 내역을 추가할 때 함께 갱신하는 합계
+        private long totalCharged;
+        private long totalUsed;
+        private long totalExpired;
+        private long chargeCount;
+        private long useCount;
+        private long expireCount;
+        private long lastActivityMillis;
+
+        private UserHistories(long userId, List<PointHistory> histories) {
+            int capacity = Math.max(INITIAL_CAPACITY, histories.size());
+            this.userId = userId;
+            this.ids = new long[capacity];
+            this.amounts = new long[capacity];
+            this.millis = new long[capacity];
+            this.types = new byte[capacity];
+            this.timeOrder = new int[capacity];
+            for (int type = 0; type < TYPES.length; type++) {
+                this.typeTimeOrder[type] = new int[INITIAL_CAPACITY];
+            }
+            for (PointHistory history : histories) {
+                add(history);
+            }
+        }
+
+        // 테이블 조회와 insert 가 겹쳐 이미 읽어온 내역이면 다시 추가하지 않는다. (id 는 증가하는 값)
+        private synchronized UserHistories append(PointHistory history) {
+            if (size == 0 || ids[size - 1] < history.id()) {
+                add(history);
+            }
+            return this;
+        }
+
+        private synchronized PointSummary summary() {
+            return new PointSummary(userId, totalCharged, totalUsed, totalExpired, chargeCount, useCount, expireCount, lastActivityMillis);
+        }
+
+        private synchronized List<PointHistory> snapshot() {
+            return histories(0, size);
+        }
+
+        // id 순으로 쌓여 있으므로 이진 탐색으로 시작 위치를 찾는다.
+        private synchronized List<PointHistory> page(long cursor, int limit) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ids[mid] <= cursor) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+
+            return histories(low, Math.min(size, low + limit));
+        }
+
+        private synchronized List<PointHistory> between(long fromMillis, long toMillis, TransactionType type) {
+            int[] order = type == null ? timeOrder : typeTimeOrder[type.ordinal()];
+            int count = type == null ? size : typeSizes[type.ordinal()];
+
+            int from = firstAtOrAfter(order, count, fromMillis);
+            int to = firstAtOrAfter(order, count, toMillis);
+            if (from >= to) {
+                return List.of();
+            }
+
+            PointHistory[] histories = new PointHistory[to - from];
+            for (int i = from; i < to; i++) {
+                histories[i - from] = history(order[i]);
+            }
+            return List.of(histories);
+        }
+
+        // order 의 앞 count 건 중 시각이 millis 이상인 첫 위치
+        private int firstAtOrAfter(int[] order, int count, long millis) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (this.millis[order[mid]] < millis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void add(PointHistory history) {
+            if (size == ids.length) {
+                grow();
+            }
+            ids[size] = history.id();
+            amounts[size] = history.amount();
+            millis[size] = history.updateMillis();
+            types[size] = (byte) history.type().ordinal();
+            timeOrder = insertByTime(timeOrder, size, size);
+            int type = history.type().ordinal();
+            typeTimeOrder[type] = insertByTime(typeTimeOrder[type], typeSizes[type], size);
+            typeSizes[type]++;
+            size++;
+
+            switch (history.type()) {
+                case CHARGE -> {
+                    totalCharged += history.amount();
+                    chargeCount++;
+                }
+                case USE -> {
+                    totalUsed += history.amount();
+                    useCount++;
+                }
+                case EXPIRE -> {
+                    totalExpired += history.amount();
+                    expireCount++;
+                }
+            }
+            lastActivityMillis = Math.max(lastActivityMillis, history.updateMillis());
+        }
+
+        /**
+         * 시각 순 위치 배열의 앞 count 건에 position 을 끼워 넣는다.
+         * 유저의 내역은 대부분 시각 순으로 추가되므로 보통은 끝에 붙이고, 시각이 앞서는 내역만 뒤의 위치를 민다.
+         */
+        private int[] insertByTime(int[] order, int count, int position) {
+            if (count == order.length) {
+                order = Arrays.copyOf(order, count + (count >> 1) + 1);
+            }
+
+            int at = count;
+            while (at > 0 && millis[order[at - 1]] > millis[position]) {
+                at--;
+            }
+            System.arraycopy(order, at, order, at + 1, count - at);
+            order[at] = position;
+
+            return order;
+        }
+
+        // ArrayList 와 같이 1.5 배씩 늘린다.
+        private void grow() {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            millis = Arrays.copyOf(millis, capacity);
+            types = Arrays.copyOf(types, capacity);
+            timeOrder = Arrays.copyOf(timeOrder, capacity);
+        }
+
+        private List<PointHistory> histories(int from, int to) {
+            PointHistory[] histories = new PointHistory[to - from];
+            for (int i = from; i < to; i++) {
+                histories[i - from] = history(i);
+            }
+            return List.of(histories);
+        }
+
+        private PointHistory history(int position) {
+            return new PointHistory(ids[position], userId, amounts[position], TYPES[types[position]], millis[position]);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.database.wal.PointWriteAheadLog;
+import io.hhplus.tdd.point.PointBalanceHub;
+import io.hhplus.tdd.point.PointCommand;
+import io.hhplus.tdd.point.PointCommandResult;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointTransfer;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 한 유저의 포인트 변경(최종 포인트 + 성공한 요청별 내역)을 저장한다.
+ * WAL 을 사용하면 WAL 에 먼저 기록한 뒤 테이블에 저장하고, WAL 순번을 내역 id 로 사용한다.
+ * WAL 에 기록되지 않은 포인트가 테이블(이미지)에 먼저 반영되지 않으므로, 스냅샷에 담긴 포인트는 항상 WAL 에 근거가 있다.
+ * 이미지에 반영한 뒤 WAL 에 알려, 그 전에 만든 스냅샷은 이 레코드 앞까지만 담게 한다. (PointWriteAheadLog.applied)
+ * 저장한 포인트는 저장 순서대로 구독자에게 알린다. (PointBalanceHub)
+ * 충전은 만료를 위해 충전 건으로도 담는다. (PointLots)
+ * 가져오기(PointBulkService)로 들어온 포인트와 내역도 같은 순서로 저장한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PointLedger {
+
+    private final UserPointRepository userPointRepository;
+    private final PointHistoryOutbox pointHistoryOutbox;
+    private final PointWriteAheadLog pointWriteAheadLog;
+    private final PointBalanceHub pointBalanceHub;
+    private final PointLots pointLots;
+
+    // 같은 유저에 대해서는 직렬화된 구간 안에서 호출되어야 한다. 저장된 UserPoint 를 반환한다.
+    public UserPoint record(long userId, long point, List<PointCommandResult> succeeded) {
+        if (!pointWriteAheadLog.isEnabled()) {
+            UserPoint saved = userPointRepository.save(userId, point);
+            for (PointCommandResult result : succeeded) {
+                PointCommand command = result.command();
+                pointHistoryOutbox.append(userId, command.amount(), command.type(), saved.updateMillis());
+                if (command.type() == TransactionType.CHARGE) {
+                    pointLots.charged(userId, command.amount(), saved.updateMillis());
+                }
+            }
+            pointBalanceHub.publish(saved);
+            return saved;
+        }
+
+        long updateMillis = System.currentTimeMillis();
+        long[] seqs = new long[succeeded.size()];
+        UserPoint saved;
+        try {
+            for (int i = 0; i < seqs.length; i++) {
+                PointCommandResult result = succeeded.get(i);
+                PointCommand command = result.command();
+                seqs[i] = pointWriteAheadLog.append(userId, command.type(), command.amount(), result.userPoint().point(), updateMillis);
+            }
+
+            saved = userPointRepository.save(userId, point);
+        } finally {
+            pointWriteAheadLog.applied(seqs);
+        }
+        for (int i = 0; i < seqs.length; i++) {
+            PointCommand command = succeeded.get(i).command();
+            pointHistoryOutbox.append(seqs[i], userId, command.amount(), command.type(), updateMillis);
+            if (command.type() == TransactionType.CHARGE) {
+                pointLots.charged(userId, command.amount(), updateMillis);
+            }
+        }
+        pointBalanceHub.publish(saved);
+
+        return saved;
+    }
+
+    /**
+     * 포인트 전송의 보내는 유저(use)와 받는 유저(charge)의 변경을 함께 저장한다. 두 유저 모두에 대해 직렬화된 구간 안에서 호출되어야 한다.
+     * WAL 을 사용하면 두 레코드를 모두 기록한 뒤에 반영하고, 복구할 때도 둘 다 반영되거나 둘 다 반영되지 않는다. (PointWriteAheadLog.appendTransfer)
+     */
+    public PointTransfer transfer(PointCommandResult use, PointCommandResult charge) {
+        long fromId = use.command().userId();
+        long toId = charge.command().userId();
+
+        if (!pointWriteAheadLog.isEnabled()) {
+            return new PointTransfer(
+                    record(fromId, use.userPoint().point(), List.of(use)),
+                    record(toId, charge.userPoint().point(), List.of(charge)));
+        }
+
+        long updateMillis = System.currentTimeMillis();
+        long[] seqs = {0, 0};
+        UserPoint savedFrom;
+        UserPoint savedTo;
+        try {
+            seqs = pointWriteAheadLog.appendTransfer(fromId, use.userPoint().point(), toId, charge.userPoint().point(),
+                    use.command().amount(), updateMillis);
+
+            savedFrom = userPointRepository.save(fromId, use.userPoint().point());
+            savedTo = userPointRepository.save(toId, charge.userPoint().point());
+        } finally {
+            pointWriteAheadLog.applied(seqs);
+        }
+        pointHistoryOutbox.append(seqs[0], fromId, use.command().amount(), TransactionType.USE, updateMillis);
+        pointHistoryOutbox.append(seqs[1], toId, charge.command().amount(), TransactionType.CHARGE, updateMillis);
+        pointLots.charged(toId, charge.command().amount(), updateMillis);
+        pointBalanceHub.publish(savedFrom);
+        pointBalanceHub.publish(savedTo);
+
+        return new PointTransfer(savedFrom, savedTo);
+    }
+
+    /**
+     * 가져온 포인트와 내역을 저장하고, 마지막 내역이 기록되면 완료되는 future 를 반환한다.
+     * point 가 null 이면 포인트는 그대로 두고 내역만 기록한다. 내역은 기록된 시각(updateMillis)을 그대로 두고 id 는 새로 매긴다.
+     * 같은 유저에 대해서는 직렬화된 구간 안에서 호출되어야 한다.
+     */
+    public CompletableFuture<PointHistory> imported(long userId, Long point, List<PointHistory> histories) {
+        CompletableFuture<PointHistory> lastWrite = CompletableFuture.completedFuture(null);
+
+        if (!pointWriteAheadLog.isEnabled()) {
+            UserPoint saved = point == null ? null : userPointRepository.save(userId, point);
+            for (PointHistory history : histories) {
+                lastWrite = pointHistoryOutbox.append(userId, history.amount(), history.type(), history.updateMillis());
+                if (history.type() == TransactionType.CHARGE) {
+                    pointLots.charged(userId, history.amount(), history.updateMillis());
+                }
+            }
+            if (saved != null) {
+                pointBalanceHub.publish(saved);
+            }
+            return lastWrite;
+        }
+
+        // WAL 레코드는 반영 후 잔액을 담으므로, 가져온 내역의 레코드에는 가져온 뒤의 포인트를 담는다.
+        long balance = point == null ? userPointRepository.findById(userId).point() : point;
+        long[] seqs = new long[histories.size()];
+        UserPoint saved;
+        try {
+            for (int i = 0; i < seqs.length; i++) {
+                PointHistory history = histories.get(i);
+                seqs[i] = pointWriteAheadLog.append(userId, history.type(), history.amount(), balance, history.updateMillis());
+            }
+
+            saved = point == null ? null : userPointRepository.save(userId, point);
+        } finally {
+            pointWriteAheadLog.applied(seqs);
+        }
+        for (int i = 0; i < seqs.length; i++) {
+            PointHistory history = histories.get(i);
+            lastWrite = pointHistoryOutbox.append(seqs[i], userId, history.amount(), history.type(), history.updateMillis());
+            if (history.type() == TransactionType.CHARGE) {
+                pointLots.charged(userId, history.amount(), history.updateMillis());
+            }
+        }
+        if (saved != null) {
+            pointBalanceHub.publish(saved);
+        }
+
+        return lastWrite;
+    }
+}
@@ -0,0 +1,152 @@
+package io.hhplus.tdd.database;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * 충전된 포인트를 충전 건(lot)별로 담아, 충전 후 period 가 지나면 만료할 수 있게 한다. (point.expiration.enabled)
+ * - 충전이 저장될 때(PointLedger) 충전 건을 유저의 목록 끝에 붙이고, 만료 시각을 타이밍 휠에 넣는다.
+ * - 사용은 오래된 충전 건부터 차감한다.(FIFO) 충전 건마다 남은 포인트를 고치지 않고,
+ *   잔액은 항상 가장 최근 충전 건부터 채워져 있다고 보아 만료할 포인트를 잔액으로 계산한다.
+ *   만료할 포인트 = min(만료된 충전 건의 합, max(0, 잔액 - 만료되지 않은 충전 건의 합))
+ *   따라서 사용은 충전 건을 건드리지 않고(O(1)), 만료를 처리할 때만 만료된 충전 건을 목록에서 뺀다.
+ * - 충전 건 없이 들어온 포인트(기능을 켜기 전의 잔액, WAL 스냅샷 이전의 충전 등)는 가장 오래된 포인트로 보아 먼저 사용되고 만료되지 않는다.
+ * 같은 유저에 대해서는 직렬화된 구간 안에서 호출되어야 한다. (PointLedger, PointService)
+ */
+@Component
+public class PointLots {
+
+    private final boolean enabled;
+    private final long periodMillis;
+    private final PointExpirationWheel wheel;
+
+    private final ConcurrentHashMap<Long, UserLots> lots = new ConcurrentHashMap<>();
+
+    public PointLots(
+            @Value("${point.expiration.enabled:false}") boolean enabled,
+            @Value("${point.expiration.period:365d}") Duration period,
+            @Value("${point.expiration.tick:1s}") Duration tick,
+            @Value("${point.expiration.wheel-size:64}") int wheelSize,
+            @Value("${point.expiration.levels:5}") int levels
+    ) {
+        this.enabled = enabled;
+        this.periodMillis = period.toMillis();
+        this.wheel = new PointExpirationWheel(tick.toMillis(), wheelSize, levels, System.currentTimeMillis());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long tickMillis() {
+        return wheel.tickMillis();
+    }
+
+    // 충전 건을 붙이고 만료 시각을 타이밍 휠에 넣는다.
+    public void charged(long userId, long amount, long chargedMillis) {
+        if (!enabled) {
+            return;
+        }
+
+        long expireAtMillis = chargedMillis + periodMillis;
+        lots.compute(userId, (id, userLots) -> {
+            if (userLots == null) {
+                userLots = new UserLots();
+            }
+            userLots.add(amount, expireAtMillis);
+            return userLots;
+        });
+        wheel.schedule(userId, expireAtMillis);
+    }
+
+    // balance 중 nowMillis 까지 만료된 포인트
+    public long expirable(long userId, long balance, long nowMillis) {
+        UserLots userLots = lots.get(userId);
+
+        return userLots == null ? 0 : userLots.expirable(balance, nowMillis);
+    }
+
+    // nowMillis 까지 만료된 충전 건을 목록에서 뺀다. 만료를 처리한 뒤 호출한다.
+    public void retire(long userId, long nowMillis) {
+        lots.computeIfPresent(userId, (id, userLots) -> userLots.retire(nowMillis) ? null : userLots);
+    }
+
+    // 만료를 처리하지 못한 유저를 atMillis 에 다시 알린다.
+    public void retryAt(long userId, long atMillis) {
+        wheel.schedule(userId, atMillis);
+    }
+
+    // 만료 시각이 지난 충전 건이 있는 유저를 알린다. 한 스레드(PointExpirationScheduler)에서만 호출한다.
+    public void advance(long nowMillis, LongConsumer expired) {
+        wheel.advance(nowMillis, expired);
+    }
+
+    /**
+     * 한 유저의 충전 건을 만료 시각 순으로 담는 원형 배열
+     * 만료 기간이 모두 같으므로 충전된 순서가 곧 만료 순서이다.
+     */
+    private static final class UserLots {
+        private static final int INITIAL_CAPACITY = 4;
+
+        private long[] amounts = new long[INITIAL_CAPACITY];
+        private long[] expireAts = new long[INITIAL_CAPACITY];
+        private int head;
+        private int size;
+        // 담긴 충전 건의 합
+        private long total;
+
+        private synchronized void add(long amount, long expireAtMillis) {
+            if (size == amounts.length) {
+                grow();
+            }
+            int tail = (head + size) % amounts.length;
+            amounts[tail] = amount;
+            expireAts[tail] = expireAtMillis;
+            size++;
+            total += amount;
+        }
+
+        private synchronized long expirable(long balance, long nowMillis) {
+            long expired = 0;
+            for (int i = 0; i < size; i++) {
+                int index = (head + i) % amounts.length;
+                if (expireAts[index] > nowMillis) {
+                    break;
+                }
+                expired += amounts[index];
+            }
+
+            long live = total - expired;
+            return Math.min(expired, Math.max(0, balance - live));
+        }
+
+        // 모두 빠졌으면 true
+        private synchronized boolean retire(long nowMillis) {
+            while (size > 0 && expireAts[head] <= nowMillis) {
+                total -= amounts[head];
+                head = (head + 1) % amounts.length;
+                size--;
+            }
+            return size == 0;
+        }
+
+        // ArrayList 와 같이 1.5 배씩 늘린다.
+        private void grow() {
+            int capacity = amounts.length + (amounts.length >> 1);
+            long[] grownAmounts = new long[capacity];
+            long[] grownExpireAts = new long[capacity];
+            for (int i = 0; i < size; i++) {
+                int index = (head + i) % amounts.length;
+                grownAmounts[i] = amounts[index];
+                grownExpireAts[i] = expireAts[index];
+            }
+            amounts = grownAmounts;
+            expireAts = grownExpireAts;
+            head = 0;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * UserPointTable 에 그대로 위임한다. 조회/저장마다 테이블 지연이 있으므로 캐시를 함께 사용한다.
+ * UserPointTable 은 유저 목록을 조회하는 API 가 없으므로 모든 유저를 순회할 수 없다.
+ *
+ * UserPointTable 은 동기화하지 않은 HashMap 이므로, 유저별 락으로 다른 유저의 요청이 동시에 들어오면 맵이 깨질 수 있다.
+ * - 새 유저의 저장은 맵에 항목을 더하고 크기를 늘릴 수 있으므로(resize), write lock 으로 다른 조회/저장과 겹치지 않게 한다.
+ * - 이미 저장한 유저의 저장은 항목의 값만 바꾸므로 조회와 함께 read lock 으로 동시에 실행한다.
+ *   같은 유저의 저장은 PointCommandExecutor 가 직렬화하므로 같은 항목을 동시에 바꾸지 않는다.
+ * 테이블 지연이 메서드 안에 있어 write lock 을 잡은 동안에는 지연만큼 다른 요청이 기다린다. 유저마다 처음 한 번뿐이다.
+ */
+@Component
+@ConditionalOnProperty(name = "point.store.mode", havingValue = "table", matchIfMissing = true)
+@RequiredArgsConstructor
+public class TableUserPointStore implements UserPointStore {
+
+    private final UserPointTable userPointTable;
+
+    private final ReentrantReadWriteLock tableLock = new ReentrantReadWriteLock();
+    // 이 저장소를 통해 테이블에 저장한 유저, 이 유저들의 저장은 맵의 구조를 바꾸지 않는다.
+    private final Set<Long> storedIds = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public UserPoint selectById(long id) {
+        Lock lock = tableLock.readLock();
+        lock.lock();
+        try {
+            return userPointTable.selectById(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // UserPointTable 은 없는 유저도 포인트가 0 인 UserPoint 를 반환하므로 저장 여부를 알 수 없다.
+    @Override
+    public UserPoint selectStored(long id) {
+        return selectById(id);
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        boolean stored = storedIds.contains(id);
+        Lock lock = stored ? tableLock.readLock() : tableLock.writeLock();
+        lock.lock();
+        try {
+            UserPoint userPoint = userPointTable.insertOrUpdate(id, amount);
+            if (!stored) {
+                storedIds.add(id);
+            }
+            return userPoint;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean requiresCache() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsScan() {
+        return false;
+    }
+
+    @Override
+    public void forEach(Consumer<UserPoint> action) {
+        throw new UnsupportedOperationException("UserPointTable 은 모든 유저를 순회할 수 없습니다.");
+    }
+}
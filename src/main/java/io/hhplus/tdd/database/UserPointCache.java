@@ -0,0 +1,128 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * UserPoint 를 담아두는 크기 제한이 있는 LRU 캐시
+ * 여러 개의 세그먼트로 나누어 세그먼트 단위로만 동기화한다.
+ * 최대 크기를 넘으면 세그먼트 안에서 가장 오래 사용되지 않은 유저부터 제거한다.
+ */
+@Component
+public class UserPointCache {
+
+    private final Segment[] segments;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public UserPointCache(
+            @Value("${point.cache.max-size:100000}") int maxSize,
+            @Value("${point.cache.segments:16}") int segmentCount
+    ) {
+        if (maxSize < segmentCount) {
+            throw new IllegalArgumentException("캐시 크기는 세그먼트 수보다 작을 수 없습니다.");
+        }
+
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(maxSize / segmentCount, evictions);
+        }
+    }
+
+    // 캐시에 없으면 null 을 반환한다.
+    public UserPoint get(long userId) {
+        UserPoint userPoint = segmentOf(userId).get(userId);
+
+        if (userPoint == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+
+        return userPoint;
+    }
+
+    // 포인트 변경이 반영된 값을 저장한다.
+    public void put(long userId, UserPoint userPoint) {
+        segmentOf(userId).put(userId, userPoint);
+    }
+
+    // 조회를 시작하기 전의 쓰기 횟수, 테이블에서 읽어온 값을 저장할 때 putIfUnchanged 에 넘긴다.
+    public long writeStamp(long userId) {
+        return segmentOf(userId).writeStamp();
+    }
+
+    // 테이블을 읽는 동안 같은 세그먼트에 쓰기가 있었다면 읽어온 값이 오래된 값일 수 있으므로 저장하지 않는다.
+    public void putIfUnchanged(long userId, UserPoint userPoint, long writeStamp) {
+        segmentOf(userId).putIfUnchanged(userId, userPoint, writeStamp);
+    }
+
+    public Stats stats() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    private Segment segmentOf(long userId) {
+        return segments[Math.floorMod(Long.hashCode(userId), segments.length)];
+    }
+
+    public record Stats(
+            long hits,
+            long misses,
+            long evictions,
+            long size
+    ) {
+    }
+
+    private static final class Segment {
+        private final Map<Long, UserPoint> entries;
+        private long writes;
+
+        private Segment(int maxSize, LongAdder evictions) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, UserPoint> eldest) {
+                    if (size() > maxSize) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        private synchronized UserPoint get(long userId) {
+            return entries.get(userId);
+        }
+
+        private synchronized void put(long userId, UserPoint userPoint) {
+            writes++;
+            entries.put(userId, userPoint);
+        }
+
+        private synchronized long writeStamp() {
+            return writes;
+        }
+
+        private synchronized void putIfUnchanged(long userId, UserPoint userPoint, long writeStamp) {
+            if (writes == writeStamp) {
+                entries.putIfAbsent(userId, userPoint);
+            }
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+    }
+}
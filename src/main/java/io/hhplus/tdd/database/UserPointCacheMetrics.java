@@ -0,0 +1,32 @@
+package io.hhplus.tdd.database;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 캐시 크기를 정할 수 있도록 hit/miss/eviction 수를 /actuator/metrics 로 노출한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserPointCacheMetrics implements MeterBinder {
+
+    private final UserPointCache userPointCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("point.cache.requests", userPointCache, cache -> cache.stats().hits())
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("point.cache.requests", userPointCache, cache -> cache.stats().misses())
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("point.cache.evictions", userPointCache, cache -> cache.stats().evictions())
+                .register(registry);
+        Gauge.builder("point.cache.size", userPointCache, cache -> cache.stats().size())
+                .register(registry);
+    }
+}
@@ -0,0 +1,185 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.Hashing;
+import io.hhplus.tdd.point.UserPoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * WAL 을 사용할 때 모든 유저의 마지막 포인트를 메모리에 담아두는 이미지
+ * - 스냅샷은 이 이미지를 그대로 파일로 내린다.
+ * - 재시작 시 스냅샷과 WAL 로 이 이미지만 복구하고, 테이블에는 해당 유저가 처음 변경될 때 저장된다.
+ * 유저 수가 수천만이어도 객체를 만들지 않도록 long 배열 기반의 open addressing 으로 저장하고,
+ * 여러 stripe 로 나누어 stripe 단위로만 동기화한다. WAL 을 사용하지 않으면 아무것도 담지 않는다.
+ */
+@Component
+public class UserPointImage {
+
+    private static final int STRIPES = 64;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final float LOAD_FACTOR = 0.7f;
+
+    private final boolean enabled;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public UserPointImage(@Value("${point.wal.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 이미지에 없으면 null 을 반환한다.
+    public UserPoint get(long userId) {
+        if (!enabled) {
+            return null;
+        }
+
+        return stripeOf(userId).get(userId);
+    }
+
+    public void put(long userId, long point, long updateMillis) {
+        if (!enabled) {
+            return;
+        }
+
+        stripeOf(userId).put(userId, point, updateMillis);
+    }
+
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * 모든 유저를 순회한다. stripe 하나씩만 잠그므로 순회하는 동안에도 다른 stripe 에는 쓸 수 있다.
+     * 따라서 순회 결과는 특정 시점의 값이 아닐 수 있으며(fuzzy), 스냅샷은 WAL 로 이를 보정한다.
+     */
+    public void forEach(Visitor visitor) {
+        for (Stripe stripe : stripes) {
+            stripe.forEach(visitor);
+        }
+    }
+
+    /**
+     * 모든 유저를 순회하되, stripe 를 잠그는 동안에는 값만 복사하고 visitor 는 잠그지 않고 호출한다.
+     * visitor 가 느려도(내보내기 등) 쓰기를 막지 않는 대신, stripe 하나만큼의 복사본을 더 사용한다.
+     */
+    public void scan(Visitor visitor) {
+        for (Stripe stripe : stripes) {
+            long[][] copied = stripe.copy();
+            long[] keys = copied[0];
+            long[] points = copied[1];
+            long[] millis = copied[2];
+            for (int i = 0; i < keys.length; i++) {
+                visitor.visit(keys[i], points[i], millis[i]);
+            }
+        }
+    }
+
+    private Stripe stripeOf(long userId) {
+        return stripes[(int) (Hashing.mix(userId) >>> 58)];
+    }
+
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(long userId, long point, long updateMillis);
+    }
+
+    private static final class Stripe {
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private long[] points = new long[INITIAL_CAPACITY];
+        private long[] millis = new long[INITIAL_CAPACITY];
+        private boolean[] used = new boolean[INITIAL_CAPACITY];
+        private int size;
+
+        private synchronized UserPoint get(long userId) {
+            int index = indexOf(keys, used, userId);
+            return used[index] ? new UserPoint(userId, points[index], millis[index]) : null;
+        }
+
+        private synchronized void put(long userId, long point, long updateMillis) {
+            int index = indexOf(keys, used, userId);
+            if (!used[index]) {
+                if (size + 1 > keys.length * LOAD_FACTOR) {
+                    resize();
+                    index = indexOf(keys, used, userId);
+                }
+                used[index] = true;
+                keys[index] = userId;
+                size++;
+            }
+            points[index] = point;
+            millis[index] = updateMillis;
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        private synchronized void forEach(Visitor visitor) {
+            for (int i = 0; i < keys.length; i++) {
+                if (used[i]) {
+                    visitor.visit(keys[i], points[i], millis[i]);
+                }
+            }
+        }
+
+        // 담긴 유저의 키, 포인트, 시각을 차례로 복사한다.
+        private synchronized long[][] copy() {
+            long[] copiedKeys = new long[size];
+            long[] copiedPoints = new long[size];
+            long[] copiedMillis = new long[size];
+            int count = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (used[i]) {
+                    copiedKeys[count] = keys[i];
+                    copiedPoints[count] = points[i];
+                    copiedMillis[count] = millis[i];
+                    count++;
+                }
+            }
+            return new long[][]{copiedKeys, copiedPoints, copiedMillis};
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            long[] oldPoints = points;
+            long[] oldMillis = millis;
+            boolean[] oldUsed = used;
+
+            int capacity = oldKeys.length * 2;
+            keys = new long[capacity];
+            points = new long[capacity];
+            millis = new long[capacity];
+            used = new boolean[capacity];
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    int index = indexOf(keys, used, oldKeys[i]);
+                    used[index] = true;
+                    keys[index] = oldKeys[i];
+                    points[index] = oldPoints[i];
+                    millis[index] = oldMillis[i];
+                }
+            }
+        }
+
+        // userId 가 있는 위치, 없으면 넣을 위치 (linear probing)
+        private static int indexOf(long[] keys, boolean[] used, long userId) {
+            int mask = keys.length - 1;
+            int index = (int) Hashing.mix(userId) & mask;
+            while (used[index] && keys[index] != userId) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+    }
+}
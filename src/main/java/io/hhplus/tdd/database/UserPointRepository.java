@@ -0,0 +1,99 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.UserPoint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * UserPointStore 앞에 캐시를 두고 조회/저장한다.
+ * - 조회 : 캐시에 없을 때만 테이블에서 읽고 캐시에 담는다. (read-through)
+ * - 저장 : 테이블에 저장한 값을 바로 캐시에 반영한다. (write-through)
+ * 저장은 유저별로 직렬화된 구간 안에서만 호출되므로 캐시에는 항상 마지막으로 저장된 값이 남는다.
+ * WAL 을 사용하면 캐시에 없을 때 테이블보다 먼저 UserPointImage 를 본다. (재시작 후 테이블이 비어있으므로)
+ * 조회 비용이 작은 저장소(LongKeyUserPointStore)는 캐시를 거치지 않고 바로 읽고, 저장소에 없을 때만 UserPointImage 를 본다.
+ * 모든 유저의 순회(내보내기)도 WAL 을 사용하면 UserPointImage 를, 아니면 저장소를 순회한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserPointRepository {
+
+    private final UserPointStore userPointStore;
+    private final UserPointCache userPointCache;
+    private final UserPointImage userPointImage;
+    private final PointMetrics pointMetrics;
+
+    public UserPoint findById(long userId) {
+        if (!userPointStore.requiresCache()) {
+            // 저장소에 있는 유저는 이미지를 보지 않는다. 이미지에만 있는 유저는 재시작 후 아직 변경되지 않은 유저이다.
+            long start = System.nanoTime();
+            UserPoint stored = userPointStore.selectStored(userId);
+            pointMetrics.recordTable(PointMetrics.TableOperation.USER_POINT_SELECT, start);
+            if (stored != null) {
+                return stored;
+            }
+
+            UserPoint imaged = userPointImage.get(userId);
+            return imaged != null ? imaged : UserPoint.empty(userId);
+        }
+
+        UserPoint cached = userPointCache.get(userId);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        long writeStamp = userPointCache.writeStamp(userId);
+
+        UserPoint imaged = userPointImage.get(userId);
+        if (imaged != null) {
+            userPointCache.putIfUnchanged(userId, imaged, writeStamp);
+            return imaged;
+        }
+
+        UserPoint userPoint = select(userId);
+        userPointCache.putIfUnchanged(userId, userPoint, writeStamp);
+
+        return userPoint;
+    }
+
+    public UserPoint save(long userId, long point) {
+        long start = System.nanoTime();
+        UserPoint userPoint = userPointStore.insertOrUpdate(userId, point);
+        pointMetrics.recordTable(PointMetrics.TableOperation.USER_POINT_INSERT_OR_UPDATE, start);
+        userPointImage.put(userId, userPoint.point(), userPoint.updateMillis());
+        if (userPointStore.requiresCache()) {
+            userPointCache.put(userId, userPoint);
+        }
+
+        return userPoint;
+    }
+
+    // 모든 유저를 순회할 수 있는지, UserPointTable 은 WAL 을 사용할 때만 순회할 수 있다.
+    public boolean supportsScan() {
+        return userPointImage.isEnabled() || userPointStore.supportsScan();
+    }
+
+    /**
+     * 모든 유저의 마지막 포인트를 순회한다. 순회하는 동안에도 쓰기를 막지 않으므로 특정 시점의 값이 아닐 수 있다.
+     * WAL 을 사용하면 재시작 후 테이블에 없는 유저도 담고 있는 UserPointImage 를 순회한다.
+     */
+    public void forEach(Consumer<UserPoint> action) {
+        if (userPointImage.isEnabled()) {
+            userPointImage.scan((userId, point, updateMillis) -> action.accept(new UserPoint(userId, point, updateMillis)));
+            return;
+        }
+
+        userPointStore.forEach(action);
+    }
+
+    private UserPoint select(long userId) {
+        long start = System.nanoTime();
+        UserPoint userPoint = userPointStore.selectById(userId);
+        pointMetrics.recordTable(PointMetrics.TableOperation.USER_POINT_SELECT, start);
+
+        return userPoint;
+    }
+}
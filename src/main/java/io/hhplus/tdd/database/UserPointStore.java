@@ -0,0 +1,30 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.function.Consumer;
+
+/**
+ * 유저 포인트 저장소, UserPointTable 과 같은 조회/저장 계약을 가진다.
+ * - table : 제공된 UserPointTable 을 그대로 사용 (기본값)
+ * - long-key : boxing 없이 long 키로 담는 LongKeyUserPointStore
+ */
+public interface UserPointStore {
+
+    // 저장된 포인트가 없으면 포인트가 0 인 UserPoint 를 반환한다.
+    UserPoint selectById(long id);
+
+    // 저장된 포인트가 없으면 null 을 반환한다. 저장 여부를 알 수 없는 저장소(UserPointTable)는 selectById 와 같다.
+    UserPoint selectStored(long id);
+
+    UserPoint insertOrUpdate(long id, long amount);
+
+    // 조회 비용이 커서 앞에 캐시를 두어야 하는지
+    boolean requiresCache();
+
+    // 저장된 모든 유저를 순회할 수 있는지
+    boolean supportsScan();
+
+    // 저장된 모든 유저의 포인트를 순회한다. supportsScan 이 false 이면 UnsupportedOperationException 으로 실패한다.
+    void forEach(Consumer<UserPoint> action);
+}
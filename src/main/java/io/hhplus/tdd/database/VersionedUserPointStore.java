@@ -0,0 +1,262 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointCommandResult;
+import io.hhplus.tdd.point.UserPoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * UserPointTable 옆에서 유저별 포인트에 버전을 붙여 관리한다. (낙관적 동시성 제어용)
+ * - read : 현재 버전의 포인트를 반환한다. 처음 조회하는 유저는 UserPointRepository 에서 읽어온다.
+ * - commit : 읽은 버전이 그대로일 때만 다음 버전으로 교체(CAS)하고, PointLedger 로 테이블과 내역에 반영된 뒤 반환한다.
+ * 테이블 반영은 유저별로 한 스레드만 맡아 마지막 버전을 저장하고, 그 사이 쌓인 버전의 내역을 순서대로 기록한다.
+ * 따라서 충돌이 없는 유저는 락을 기다리지 않고, 반영 중에 들어온 요청만 반영이 끝나기를 기다린다.
+ *
+ * 유저별 버전(slot)이 maxSlots 를 넘으면 모두 반영되어 기다리는 요청이 없는 slot 을 버린다. 버린 유저는 다음 read 에서 다시 읽어온다.
+ * 반영(PointLedger.record)이 실패하면 반영되지 않은 버전을 모두 버리고 slot 을 지워, 다음 read 에서 UserPointRepository 의 값을 다시 읽는다.
+ * 실패한 반영에 포함된 요청은 같은 예외로 실패하고, 그 뒤에 저장된 버전의 요청은 충돌과 같이 다시 시도한다.
+ */
+@Component
+public class VersionedUserPointStore {
+
+    // 버린 slot 의 current, 이 버전을 expected 로 CAS 하는 요청은 없으므로 버린 뒤의 commit 은 모두 충돌한다.
+    private static final long DISCARDED = -1;
+
+    private final UserPointRepository userPointRepository;
+    private final PointLedger pointLedger;
+    private final int maxSlots;
+
+    private final ConcurrentHashMap<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public VersionedUserPointStore(
+            UserPointRepository userPointRepository,
+            PointLedger pointLedger,
+            @Value("${point.execution.optimistic.max-slots:100000}") int maxSlots
+    ) {
+        if (maxSlots < 1) {
+            throw new IllegalArgumentException("유저별 버전 수는 1 이상이어야 합니다.");
+        }
+
+        this.userPointRepository = userPointRepository;
+        this.pointLedger = pointLedger;
+        this.maxSlots = maxSlots;
+    }
+
+    public Version read(long userId) {
+        while (true) {
+            Slot slot = slots.computeIfAbsent(userId, this::load);
+            Version current = slot.current.get();
+            if (current.version != DISCARDED) {
+                if (slots.size() > maxSlots) {
+                    evictIdle();
+                }
+                return current;
+            }
+            // 버리는 중인 slot 이면 지우고 다시 읽어온다.
+            slots.remove(userId, slot);
+        }
+    }
+
+    /**
+     * expected 가 여전히 마지막 버전이면 point 를 다음 버전으로 저장하고 반환한다.
+     * 그 사이 다른 요청이 먼저 반영되었으면 null 을 반환하므로, 다시 read 하여 재시도해야 한다.
+     * succeeded 는 이번 버전에서 성공한 요청의 결과로, 테이블에 반영될 때 내역으로 기록된다.
+     */
+    public Version commit(Version expected, UserPoint point, List<PointCommandResult> succeeded) {
+        Slot slot = slots.get(expected.userId);
+        if (slot == null) {
+            return null;
+        }
+
+        Version next = new Version(expected.userId,
+                new UserPoint(expected.userId, point.point(), System.currentTimeMillis()),
+                expected.version + 1, succeeded, expected);
+
+        if (!slot.current.compareAndSet(expected, next)) {
+            return null;
+        }
+
+        return awaitPersisted(slot, next.version) ? next : null;
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    private Slot load(long userId) {
+        return new Slot(new Version(userId, userPointRepository.findById(userId), 0, List.of(), null));
+    }
+
+    // 반영되면 true, 반영에 실패한 뒤 저장되어 버려진 버전이면 false 를 반환한다.
+    private boolean awaitPersisted(Slot slot, long version) {
+        while (true) {
+            synchronized (slot) {
+                while (slot.writing && slot.persistedVersion < version) {
+                    try {
+                        slot.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("포인트 반영을 기다리는 중 중단되었습니다.", e);
+                    }
+                }
+
+                if (slot.persistedVersion >= version) {
+                    return true;
+                }
+
+                if (slot.failure != null) {
+                    if (version <= slot.failedVersion) {
+                        throw slot.failure;
+                    }
+                    return false;
+                }
+
+                slot.writing = true;
+            }
+
+            writeBack(slot);
+        }
+    }
+
+    // 모두 반영되어 반영 중이 아닌 slot 을 maxSlots 의 3/4 이하가 될 때까지 버린다. 한 번에 한 스레드만 버린다.
+    private void evictIdle() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            int target = maxSlots - maxSlots / 4;
+            for (Slot slot : slots.values()) {
+                if (slots.size() <= target) {
+                    return;
+                }
+
+                Version current = slot.current.get();
+                synchronized (slot) {
+                    if (slot.writing || current.version != slot.persistedVersion) {
+                        continue;
+                    }
+                }
+                // 그 사이 다른 요청이 저장했다면 버리지 않는다.
+                if (slot.current.compareAndSet(current, discarded(current.userId))) {
+                    slots.remove(current.userId, slot);
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    // 반영을 맡은 스레드는 더 이상 반영할 버전이 없을 때까지 마지막 버전을 저장한다.
+    private void writeBack(Slot slot) {
+        try {
+            while (true) {
+                Version latest = slot.current.get();
+                long persistedVersion;
+
+                synchronized (slot) {
+                    if (latest.version <= slot.persistedVersion) {
+                        return;
+                    }
+                    persistedVersion = slot.persistedVersion;
+                }
+
+                try {
+                    pointLedger.record(latest.userId, latest.point.point(), pendingSince(latest, persistedVersion));
+                } catch (RuntimeException e) {
+                    discard(slot, latest, e);
+                    throw e;
+                }
+
+                synchronized (slot) {
+                    slot.persistedVersion = latest.version;
+                    latest.previous = null;
+                    slot.notifyAll();
+                }
+            }
+        } finally {
+            synchronized (slot) {
+                slot.writing = false;
+                slot.notifyAll();
+            }
+        }
+    }
+
+    // 반영되지 않은 버전을 모두 버리고 slot 을 지운다. latest 까지의 버전을 기다리는 요청은 failure 로 실패한다.
+    private void discard(Slot slot, Version latest, RuntimeException failure) {
+        synchronized (slot) {
+            slot.failure = failure;
+            slot.failedVersion = latest.version;
+        }
+        slot.current.set(discarded(latest.userId));
+        slots.remove(latest.userId, slot);
+    }
+
+    private static Version discarded(long userId) {
+        return new Version(userId, null, DISCARDED, List.of(), null);
+    }
+
+    // 반영된 버전 이후의 버전에서 성공한 요청의 결과를 오래된 순서로 반환한다.
+    private static List<PointCommandResult> pendingSince(Version latest, long persistedVersion) {
+        List<Version> pending = new ArrayList<>();
+        for (Version version = latest; version != null && version.version > persistedVersion; version = version.previous) {
+            pending.add(version);
+        }
+
+        List<PointCommandResult> succeeded = new ArrayList<>();
+        for (int i = pending.size() - 1; i >= 0; i--) {
+            succeeded.addAll(pending.get(i).succeeded);
+        }
+        return succeeded;
+    }
+
+    /**
+     * 한 유저의 특정 버전의 포인트
+     * 버전 비교는 객체 동일성으로 하므로 record 가 아닌 class 로 둔다.
+     */
+    public static final class Version {
+        private final long userId;
+        private final UserPoint point;
+        private final long version;
+        private final List<PointCommandResult> succeeded;
+        // 아직 테이블에 반영되지 않은 이전 버전, 반영되면 끊어낸다.
+        private volatile Version previous;
+
+        private Version(long userId, UserPoint point, long version, List<PointCommandResult> succeeded, Version previous) {
+            this.userId = userId;
+            this.point = point;
+            this.version = version;
+            this.succeeded = succeeded;
+            this.previous = previous;
+        }
+
+        public UserPoint point() {
+            return point;
+        }
+
+        public long version() {
+            return version;
+        }
+    }
+
+    private static final class Slot {
+        private final AtomicReference<Version> current;
+        // 아래 값은 slot 의 모니터로 보호한다.
+        private long persistedVersion;
+        private boolean writing;
+        // 반영에 실패한 예외와 실패한 반영에 포함된 마지막 버전
+        private RuntimeException failure;
+        private long failedVersion;
+
+        private Slot(Version initial) {
+            this.current = new AtomicReference<>(initial);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package io.hhplus.tdd.database.wal;
+
+import io.hhplus.tdd.database.UserPointImage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 주기적으로 UserPointImage 를 스냅샷 파일로 내리고, 스냅샷에 반영된 WAL 파일을 정리한다.
+ * 재시작 시에는 마지막 스냅샷을 읽고 그 이후의 WAL 만 다시 반영하면 되므로, 시작 시간이 WAL 길이에 비례해 늘어나지 않는다.
+ *
+ * 스냅샷은 쓰기를 멈추지 않고 만든다. (fuzzy snapshot)
+ * 1. 시작 시점의 WAL 순번(seq)을 기록한다. 기록되었지만 아직 이미지에 반영되지 않은 레코드가 있으면 그 앞 순번을 기록한다.
+ * 2. 이미지를 stripe 단위로 순회하며 기록한다. 순회 중에 바뀐 값은 새 값이 담길 수도, 아닐 수도 있다.
+ * 3. 지금까지의 WAL 을 디스크에 내린다. 이미지는 WAL 에 기록된 뒤에만 바뀌므로 스냅샷에 담긴 값은 모두 WAL 에 근거가 있다.
+ * 복구할 때 seq 이후의 레코드를 다시 반영하면, 레코드는 반영 후 잔액을 담고 있으므로 순회 중 바뀐 값도 마지막 값으로 맞춰진다.
+ *
+ * 파일 (little endian)
+ * header : magic(4) | version(4) | seq(8)
+ * body   : (userId(8) | point(8) | updateMillis(8)) * count
+ * footer : count(8) | crc32 of body(8)
+ */
+@Component
+public class PointSnapshotter {
+
+    private static final Logger log = LoggerFactory.getLogger(PointSnapshotter.class);
+
+    private static final int MAGIC = 0x50534E50; // "PSNP"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int ENTRY_SIZE = 24;
+    private static final int FOOTER_SIZE = 16;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+    private static final String SUFFIX = ".snap";
+
+    private final PointWriteAheadLog pointWriteAheadLog;
+    private final UserPointImage userPointImage;
+    private final long intervalSeconds;
+    private final int keep;
+    private final boolean archive;
+    private final Path snapshotDirectory;
+    private final Path archiveDirectory;
+
+    private ScheduledExecutorService scheduler;
+
+    public PointSnapshotter(
+            PointWriteAheadLog pointWriteAheadLog,
+            UserPointImage userPointImage,
+            @Value("${point.wal.snapshot.interval-seconds:300}") long intervalSeconds,
+            @Value("${point.wal.snapshot.keep:2}") int keep,
+            @Value("${point.wal.snapshot.archive:true}") boolean archive
+    ) {
+        if (keep < 1) {
+            throw new IllegalArgumentException("보관할 스냅샷 수는 1 이상이어야 합니다.");
+        }
+
+        this.pointWriteAheadLog = pointWriteAheadLog;
+        this.userPointImage = userPointImage;
+        this.intervalSeconds = intervalSeconds;
+        this.keep = keep;
+        this.archive = archive;
+        this.snapshotDirectory = pointWriteAheadLog.directory().resolve("snapshot");
+        this.archiveDirectory = pointWriteAheadLog.directory().resolve("archive");
+    }
+
+    // 복구가 끝난 뒤 호출된다. (PointWalRecovery)
+    public synchronized void start() {
+        if (!pointWriteAheadLog.isEnabled() || intervalSeconds <= 0 || scheduler != null) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "point-snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 스냅샷을 만들고 스냅샷에 담긴 WAL 순번을 반환한다.
+     * 보관 개수를 넘는 오래된 스냅샷은 지우고, 남은 가장 오래된 스냅샷까지 반영된 WAL 파일을 정리한다.
+     */
+    public synchronized long snapshot() {
+        if (!pointWriteAheadLog.isEnabled()) {
+            throw new IllegalStateException("WAL 을 사용하지 않으면 스냅샷을 만들 수 없습니다.");
+        }
+
+        long seq = pointWriteAheadLog.snapshotSeq();
+        Path temp = snapshotDirectory.resolve(fileName(seq) + ".tmp");
+        long count;
+
+        try {
+            Files.createDirectories(snapshotDirectory);
+            try (FileChannel channel = FileChannel.open(temp,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                count = write(channel, seq);
+                channel.force(true);
+            }
+
+            // 스냅샷에 담긴 값의 WAL 레코드가 모두 디스크에 내려간 뒤에 스냅샷을 공개한다.
+            pointWriteAheadLog.syncAppended().join();
+            Files.move(temp, snapshotDirectory.resolve(fileName(seq)), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("스냅샷을 만들 수 없습니다. " + temp, e);
+        }
+
+        List<Path> snapshots = snapshots();
+        for (int i = keep; i < snapshots.size(); i++) {
+            delete(snapshots.get(i));
+        }
+        long compactSeq = seqOf(snapshots.get(Math.min(keep, snapshots.size()) - 1));
+        pointWriteAheadLog.compact(compactSeq, archive ? archiveDirectory : null);
+
+        log.info("스냅샷을 만들었습니다. seq={}, users={}", seq, count);
+
+        return seq;
+    }
+
+    /**
+     * 가장 최근의 온전한 스냅샷을 읽어 이미지에 담고 그 WAL 순번을 반환한다. 스냅샷이 없으면 0 을 반환한다.
+     * 스냅샷이 손상되었으면 그 이전 스냅샷을 사용한다.
+     */
+    public long load() {
+        for (Path snapshot : snapshots()) {
+            try {
+                return read(snapshot);
+            } catch (IllegalStateException | IOException e) {
+                log.warn("스냅샷을 읽을 수 없어 이전 스냅샷을 사용합니다. file={}", snapshot, e);
+            }
+        }
+
+        return 0;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            log.error("스냅샷 실패", e);
+        }
+    }
+
+    private long write(FileChannel channel, long seq) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        CRC32 crc = new CRC32();
+        long[] count = new long[1];
+
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(seq);
+        buffer.flip();
+        writeFully(channel, buffer);
+        buffer.clear();
+
+        userPointImage.forEach((userId, point, updateMillis) -> {
+            if (buffer.remaining() < ENTRY_SIZE) {
+                flushBody(channel, buffer, crc);
+            }
+            buffer.putLong(userId).putLong(point).putLong(updateMillis);
+            count[0]++;
+        });
+        flushBody(channel, buffer, crc);
+
+        buffer.putLong(count[0]).putLong(crc.getValue());
+        buffer.flip();
+        writeFully(channel, buffer);
+
+        return count[0];
+    }
+
+    private long read(Path snapshot) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + FOOTER_SIZE || (size - HEADER_SIZE - FOOTER_SIZE) % ENTRY_SIZE != 0) {
+                throw new IllegalStateException("스냅샷 크기가 올바르지 않습니다.");
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IllegalStateException("스냅샷 형식이 올바르지 않습니다.");
+            }
+
+            long seq = buffer.getLong(8);
+            long count = (size - HEADER_SIZE - FOOTER_SIZE) / ENTRY_SIZE;
+            if (buffer.getLong((int) (size - FOOTER_SIZE)) != count) {
+                throw new IllegalStateException("스냅샷 건수가 올바르지 않습니다.");
+            }
+
+            CRC32 crc = new CRC32();
+            ByteBuffer body = buffer.slice(HEADER_SIZE, (int) (count * ENTRY_SIZE));
+            crc.update(body);
+            if (buffer.getLong((int) (size - FOOTER_SIZE + Long.BYTES)) != crc.getValue()) {
+                throw new IllegalStateException("스냅샷 checksum 이 올바르지 않습니다.");
+            }
+
+            for (long i = 0; i < count; i++) {
+                int position = (int) (HEADER_SIZE + i * ENTRY_SIZE);
+                userPointImage.put(buffer.getLong(position), buffer.getLong(position + 8), buffer.getLong(position + 16));
+            }
+
+            log.info("스냅샷을 읽었습니다. file={}, seq={}, users={}", snapshot, seq, count);
+            return seq;
+        }
+    }
+
+    private static void flushBody(FileChannel channel, ByteBuffer buffer, CRC32 crc) {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        writeFully(channel, buffer);
+        buffer.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) {
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("스냅샷을 기록할 수 없습니다.", e);
+        }
+    }
+
+    // 최근 스냅샷부터 정렬된 목록
+    private List<Path> snapshots() {
+        if (!Files.isDirectory(snapshotDirectory)) {
+            return List.of();
+        }
+
+        try (Stream<Path> list = Files.list(snapshotDirectory)) {
+            return list.filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted((a, b) -> b.getFileName().compareTo(a.getFileName()))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("스냅샷 디렉토리를 읽을 수 없습니다. " + snapshotDirectory, e);
+        }
+    }
+
+    private static String fileName(long seq) {
+        return String.format("%020d%s", seq, SUFFIX);
+    }
+
+    private static long seqOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.delete(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("스냅샷을 삭제할 수 없습니다. " + file, e);
+        }
+    }
+}
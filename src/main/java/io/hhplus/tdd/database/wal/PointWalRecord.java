@@ -0,0 +1,17 @@
+package io.hhplus.tdd.database.wal;
+
+import io.hhplus.tdd.point.TransactionType;
+
+/**
+ * WAL 에 기록되는 충전/사용 한 건
+ * seq 는 1 부터 1씩 증가하는 순번으로, 포인트 내역의 id 로 사용된다. balance 는 반영 직후의 포인트이다.
+ */
+public record PointWalRecord(
+        long seq,
+        long userId,
+        TransactionType type,
+        long amount,
+        long balance,
+        long updateMillis
+) {
+}
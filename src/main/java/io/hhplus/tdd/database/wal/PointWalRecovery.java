@@ -0,0 +1,66 @@
+package io.hhplus.tdd.database.wal;
+
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.PointLots;
+import io.hhplus.tdd.database.UserPointImage;
+import io.hhplus.tdd.point.PointHistory;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * 시작 시 마지막 스냅샷과 그 이후의 WAL 을 다시 읽어 포인트와 내역을 복구한다. 요청을 받기 전(빈 초기화 단계)에 실행된다.
+ * - 포인트 : 스냅샷을 UserPointImage 에 담고, 이후 레코드의 잔액으로 덮어쓴다.
+ *   UserPointTable 에 유저마다 다시 저장하면 건마다 테이블 지연이 생기므로, 조회 시 이미지에서 읽는다. (UserPointRepository)
+ * - 내역 : 스냅샷 이후 레코드를 WAL 순번을 id 로 PointHistoryRepository 의 인덱스에 담는다.
+ * - 충전 건 : 스냅샷 이후의 충전은 PointLots 에 다시 담고, 만료 레코드까지 만료된 충전 건은 뺀다.
+ * 복구가 끝나면 주기적인 스냅샷을 시작한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PointWalRecovery {
+
+    private static final Logger log = LoggerFactory.getLogger(PointWalRecovery.class);
+
+    private final PointWriteAheadLog pointWriteAheadLog;
+    private final PointSnapshotter pointSnapshotter;
+    private final UserPointImage userPointImage;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final PointLots pointLots;
+
+    @PostConstruct
+    public void recover() {
+        if (!pointWriteAheadLog.isEnabled()) {
+            return;
+        }
+
+        long snapshotSeq = pointSnapshotter.load();
+
+        // 스냅샷 이후의 레코드가 정리되어 없으면 복구할 수 없다.
+        if (pointWriteAheadLog.firstSeq() > snapshotSeq + 1) {
+            throw new IllegalStateException("스냅샷 이후의 WAL 파일이 없습니다. snapshotSeq=" + snapshotSeq
+                    + ", firstSeq=" + pointWriteAheadLog.firstSeq());
+        }
+
+        long[] records = new long[1];
+
+        pointWriteAheadLog.replay(snapshotSeq, record -> {
+            userPointImage.put(record.userId(), record.balance(), record.updateMillis());
+            pointHistoryRepository.restore(new PointHistory(
+                    record.seq(), record.userId(), record.amount(), record.type(), record.updateMillis()));
+            switch (record.type()) {
+                case CHARGE -> pointLots.charged(record.userId(), record.amount(), record.updateMillis());
+                case EXPIRE -> pointLots.retire(record.userId(), record.updateMillis());
+                default -> {
+                }
+            }
+            records[0]++;
+        });
+
+        log.info("WAL 복구 완료 snapshotSeq={}, records={}, users={}", snapshotSeq, records[0], userPointImage.size());
+
+        pointSnapshotter.start();
+    }
+}
@@ -0,0 +1,362 @@
+package io.hhplus.tdd.database.wal;
+
+import io.hhplus.tdd.point.TransactionType;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 포인트 충전/사용을 메모리 매핑된 파일에 순서대로 기록하는 WAL (write-ahead log)
+ * 테이블은 메모리에만 있으므로, 재시작 시 이 로그를 다시 읽어 포인트와 내역을 복구한다. (PointWalRecovery)
+ * - append : 레코드를 매핑된 버퍼에 쓰고 순번을 반환한다. 디스크에 내려가기를 기다리지 않는다.
+ * - appendTransfer : 포인트 전송의 두 레코드를 복구할 때 함께 반영되거나 함께 버려지도록 이어서 기록한다.
+ * - syncAppended : 지금까지 append 된 레코드가 디스크에 내려가면 완료된다.
+ * - applied : append 한 레코드가 이미지(UserPointImage)에 반영되었음을 알린다. 스냅샷은 아직 반영되지 않은 레코드 앞까지만 담는다.
+ * 디스크에 내리는(force) 작업은 flusher 스레드 하나가 맡아, 그동안 쌓인 레코드를 한 번에 내린다. (group commit)
+ * 따라서 요청이 몰릴수록 force 한 번에 더 많은 레코드가 내려간다.
+ * force 가 실패하면 대기 시간을 늘려가며 다시 내리고, FORCE_MAX_ATTEMPTS 번 연속 실패하면 기다리던 요청을 실패시킨다.
+ */
+@Component
+public class PointWriteAheadLog {
+
+    private static final Logger log = LoggerFactory.getLogger(PointWriteAheadLog.class);
+
+    private static final CompletableFuture<Void> DURABLE = CompletableFuture.completedFuture(null);
+    private static final int FORCE_MAX_ATTEMPTS = 3;
+    private static final long FORCE_INITIAL_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FORCE_MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int recordsPerSegment;
+
+    // 아래 값들은 this 의 모니터로 보호한다.
+    private final List<WalSegment> segments = new ArrayList<>();
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer scratch = ByteBuffer.allocate(WalSegment.RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private WalSegment current;
+    private long lastSeq;
+
+    // append 되었지만 아직 이미지에 반영되지 않은 순번, 추가는 this 의 모니터 안에서 한다.
+    private final ConcurrentSkipListSet<Long> unapplied = new ConcurrentSkipListSet<>();
+
+    private volatile long durableSeq;
+    // 순번 -> 해당 순번까지 디스크에 내려가기를 기다리는 future
+    private final ConcurrentSkipListMap<Long, CompletableFuture<Void>> waiters = new ConcurrentSkipListMap<>();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public PointWriteAheadLog(
+            @Value("${point.wal.enabled:false}") boolean enabled,
+            @Value("${point.wal.directory:./data/wal}") String directory,
+            @Value("${point.wal.segment-size-mb:64}") int segmentSizeMb
+    ) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.recordsPerSegment = (int) Math.min((long) segmentSizeMb * 1024 * 1024, Integer.MAX_VALUE) / WalSegment.RECORD_SIZE;
+
+        if (!enabled) {
+            this.flusher = null;
+            return;
+        }
+
+        if (recordsPerSegment < 1) {
+            throw new IllegalArgumentException("WAL 파일 크기는 1MB 이상이어야 합니다.");
+        }
+
+        open();
+
+        this.flusher = new Thread(this::flush, "point-wal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 레코드를 기록하고 순번을 반환한다. 같은 유저에 대해서는 포인트 변경과 같은 순서로 호출되어야 한다.
+     * 반환한 순번은 이미지에 반영한 뒤(반영하지 못했더라도) applied 로 알려야 한다.
+     */
+    public synchronized long append(long userId, TransactionType type, long amount, long balance, long updateMillis) {
+        if (current.isFull()) {
+            roll();
+        }
+
+        lastSeq = current.append(userId, type, amount, balance, updateMillis, false, crc, scratch);
+        unapplied.add(lastSeq);
+
+        return lastSeq;
+    }
+
+    /**
+     * 포인트 전송의 사용(fromId)과 충전(toId) 레코드를 이어서 기록하고 두 순번을 반환한다.
+     * 사용 레코드에 linked 를 표시하고 두 레코드를 한 파일에 기록하므로, 충전 레코드가 기록되기 전에 종료되면
+     * 복구할 때 사용 레코드도 버려진다. (WalSegment.recover)
+     */
+    public synchronized long[] appendTransfer(long fromId, long fromBalance, long toId, long toBalance, long amount, long updateMillis) {
+        if (current.remaining() < 2) {
+            roll();
+        }
+
+        long useSeq = current.append(fromId, TransactionType.USE, amount, fromBalance, updateMillis, true, crc, scratch);
+        unapplied.add(useSeq);
+        lastSeq = current.append(toId, TransactionType.CHARGE, amount, toBalance, updateMillis, false, crc, scratch);
+        unapplied.add(lastSeq);
+
+        return new long[]{useSeq, lastSeq};
+    }
+
+    // append 가 반환한 순번의 레코드가 이미지에 반영되었다. 0 은 append 하지 못한 자리로 보고 건너뛴다.
+    public void applied(long[] seqs) {
+        for (long seq : seqs) {
+            if (seq > 0) {
+                unapplied.remove(seq);
+            }
+        }
+    }
+
+    /**
+     * 스냅샷이 담을 수 있는 마지막 순번
+     * append 와 이미지 반영 사이의 레코드가 있으면 그 앞 순번을 반환한다. 이미지에는 아직 그 레코드 이전의 값이 담겨 있으므로,
+     * 복구할 때 그 레코드부터 다시 반영해야 한다.
+     */
+    public synchronized long snapshotSeq() {
+        return unapplied.isEmpty() ? lastSeq : unapplied.first() - 1;
+    }
+
+    // 지금까지 append 된 레코드가 모두 디스크에 내려가면 완료된다.
+    public CompletableFuture<Void> syncAppended() {
+        if (!enabled) {
+            return DURABLE;
+        }
+
+        long seq;
+        synchronized (this) {
+            seq = lastSeq;
+        }
+
+        if (seq <= durableSeq) {
+            return DURABLE;
+        }
+
+        CompletableFuture<Void> waiter = waiters.computeIfAbsent(seq, key -> new CompletableFuture<>());
+        // 등록하는 사이에 flusher 가 이미 내렸을 수 있다.
+        if (seq <= durableSeq) {
+            waiters.remove(seq, waiter);
+            waiter.complete(null);
+        }
+        LockSupport.unpark(flusher);
+
+        return waiter;
+    }
+
+    // afterSeq 이후에 기록된 레코드를 순번 순서대로 전달한다. 시작 시 복구에서 사용한다.
+    public synchronized void replay(long afterSeq, Consumer<PointWalRecord> consumer) {
+        for (WalSegment segment : segments) {
+            if (segment.lastSeq() > afterSeq) {
+                segment.replay(afterSeq, consumer);
+            }
+        }
+    }
+
+    // 남아있는 첫 레코드의 순번, 앞의 파일이 정리되었으면 1 보다 크다.
+    public synchronized long firstSeq() {
+        return segments.get(0).firstSeq();
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * uptoSeq 까지의 레코드만 담긴 파일을 정리한다. (스냅샷에 반영된 파일)
+     * archiveDirectory 가 있으면 그곳으로 옮기고, 없으면 삭제한다. 현재 기록 중인 파일은 남긴다.
+     */
+    public void compact(long uptoSeq, Path archiveDirectory) {
+        List<WalSegment> compacted = new ArrayList<>();
+
+        synchronized (this) {
+            while (segments.size() > 1 && segments.get(0).lastSeq() <= uptoSeq) {
+                compacted.add(segments.remove(0));
+            }
+        }
+
+        for (WalSegment segment : compacted) {
+            segment.close();
+            Path file = directory.resolve(WalSegment.fileName(segment.firstSeq()));
+            try {
+                if (archiveDirectory == null) {
+                    Files.delete(file);
+                } else {
+                    Files.createDirectories(archiveDirectory);
+                    Files.move(file, archiveDirectory.resolve(file.getFileName()), StandardCopyOption.ATOMIC_MOVE);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("WAL 파일을 정리할 수 없습니다. " + file, e);
+            }
+        }
+
+        if (!compacted.isEmpty()) {
+            log.info("WAL 파일을 정리했습니다. files={}, uptoSeq={}, archive={}", compacted.size(), uptoSeq, archiveDirectory);
+        }
+    }
+
+    public synchronized long lastSeq() {
+        return lastSeq;
+    }
+
+    // 남은 레코드를 모두 디스크에 내린 뒤 파일을 닫는다.
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) {
+            return;
+        }
+
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (this) {
+            current.force();
+            for (WalSegment segment : segments) {
+                segment.close();
+            }
+        }
+    }
+
+    private void open() {
+        List<Path> files;
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> list = Files.list(directory)) {
+                files = list.filter(WalSegment::isSegmentFile)
+                        .sorted()
+                        .toList();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("WAL 디렉토리를 열 수 없습니다. " + directory, e);
+        }
+
+        // 앞의 파일은 스냅샷 후 정리되었을 수 있으므로 남아있는 첫 파일부터 이어져야 한다.
+        long nextSeq = files.isEmpty() ? 1 : WalSegment.firstSeqOf(files.get(0));
+        for (Path file : files) {
+            // 앞 파일이 중간에 끊겼으면 그 뒤 파일은 이어지지 않으므로 버린다.
+            if (WalSegment.firstSeqOf(file) != nextSeq) {
+                log.warn("이어지지 않는 WAL 파일을 삭제합니다. file={}, expectedSeq={}", file, nextSeq);
+                delete(file);
+                continue;
+            }
+
+            WalSegment segment = WalSegment.open(directory, nextSeq, recordsPerSegment);
+            segment.recover(crc, scratch);
+            segments.add(segment);
+            nextSeq = segment.lastSeq() + 1;
+        }
+
+        if (segments.isEmpty()) {
+            segments.add(WalSegment.open(directory, nextSeq, recordsPerSegment));
+        }
+
+        current = segments.get(segments.size() - 1);
+        lastSeq = nextSeq - 1;
+        durableSeq = lastSeq;
+
+        log.info("WAL 을 열었습니다. directory={}, segments={}, lastSeq={}", directory, segments.size(), lastSeq);
+    }
+
+    // 현재 파일을 디스크에 내리고 다음 파일로 넘어간다.
+    private void roll() {
+        current.force();
+        current = WalSegment.open(directory, lastSeq + 1, recordsPerSegment);
+        segments.add(current);
+    }
+
+    private void flush() {
+        int failures = 0;
+        long backoffNanos = FORCE_INITIAL_BACKOFF_NANOS;
+
+        while (running || !waiters.isEmpty()) {
+            if (waiters.isEmpty()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+                continue;
+            }
+
+            long target;
+            WalSegment segment;
+            synchronized (this) {
+                target = lastSeq;
+                segment = current;
+            }
+
+            // 이전 파일은 roll 할 때 이미 내렸으므로 현재 파일만 내리면 된다.
+            if (target > durableSeq) {
+                try {
+                    segment.force();
+                } catch (RuntimeException e) {
+                    // 실패가 이어지는 동안 바로 다시 내리지 않도록 기다린다. 기다리던 요청은 FORCE_MAX_ATTEMPTS 번마다 실패시킨다.
+                    failures++;
+                    if (failures % FORCE_MAX_ATTEMPTS == 0) {
+                        log.error("WAL 을 디스크에 내리지 못했습니다. failures={}", failures, e);
+                        failWaiters(e);
+                    } else {
+                        log.warn("WAL 을 디스크에 내리지 못해 다시 시도합니다. failures={}, error={}", failures, e.toString());
+                    }
+                    LockSupport.parkNanos(backoffNanos);
+                    backoffNanos = Math.min(backoffNanos * 2, FORCE_MAX_BACKOFF_NANOS);
+                    continue;
+                }
+                durableSeq = target;
+                failures = 0;
+                backoffNanos = FORCE_INITIAL_BACKOFF_NANOS;
+            }
+
+            Map.Entry<Long, CompletableFuture<Void>> entry;
+            while ((entry = waiters.firstEntry()) != null && entry.getKey() <= durableSeq) {
+                waiters.remove(entry.getKey(), entry.getValue());
+                entry.getValue().complete(null);
+            }
+        }
+    }
+
+    private void failWaiters(RuntimeException e) {
+        Map.Entry<Long, CompletableFuture<Void>> entry;
+        while ((entry = waiters.pollFirstEntry()) != null) {
+            entry.getValue().completeExceptionally(e);
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.delete(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("WAL 파일을 삭제할 수 없습니다. " + file, e);
+        }
+    }
+}
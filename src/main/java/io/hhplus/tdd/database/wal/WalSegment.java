@@ -0,0 +1,181 @@
+package io.hhplus.tdd.database.wal;
+
+import io.hhplus.tdd.point.TransactionType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * WAL 파일 하나. 고정 크기로 메모리 매핑하고, 고정 길이 레코드를 앞에서부터 채운다.
+ * 파일 이름은 첫 레코드의 순번이며, 레코드의 순번은 (첫 순번 + 위치) 이다.
+ *
+ * scratch 는 RECORD_SIZE 크기의 little endian heap buffer 로, 레코드를 만들고 읽을 때 재사용한다.
+ *
+ * 레코드 (48 bytes, little endian)
+ * seq(8) | userId(8) | amount(8) | balance(8) | updateMillis(8) | type(1) | linked(1) | padding(2) | crc32(4)
+ * linked 가 1 이면 다음 레코드와 함께 반영되어야 하는 레코드다. (포인트 전송) 묶음은 한 파일 안에 기록된다.
+ */
+final class WalSegment {
+
+    static final int RECORD_SIZE = 48;
+    private static final int CRC_OFFSET = RECORD_SIZE - Integer.BYTES;
+    private static final int LINKED_OFFSET = 41;
+    private static final String SUFFIX = ".wal";
+
+    private final Path path;
+    private final long firstSeq;
+    private final int capacity;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    // 기록된 레코드 수, append 하는 쪽(PointWriteAheadLog 의 락)에서만 변경한다.
+    private int count;
+
+    private WalSegment(Path path, long firstSeq, int capacity) {
+        this.path = path;
+        this.firstSeq = firstSeq;
+        this.capacity = capacity;
+
+        try {
+            this.channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE);
+            this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new UncheckedIOException("WAL 파일을 열 수 없습니다. " + path, e);
+        }
+    }
+
+    static WalSegment open(Path directory, long firstSeq, int capacity) {
+        return new WalSegment(directory.resolve(fileName(firstSeq)), firstSeq, capacity);
+    }
+
+    static String fileName(long firstSeq) {
+        return String.format("%020d%s", firstSeq, SUFFIX);
+    }
+
+    static boolean isSegmentFile(Path path) {
+        return path.getFileName().toString().endsWith(SUFFIX);
+    }
+
+    static long firstSeqOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * 앞에서부터 올바른 레코드(순번이 이어지고 checksum 이 맞는)를 세어 기록 위치를 정한다.
+     * 묶음의 뒤 레코드가 기록되지 못해 끝에 linked 레코드가 남았으면 그 레코드도 버린다. (묶음은 모두 반영되거나 모두 버려진다)
+     * 비정상 종료로 일부만 기록된 레코드가 있으면 그 뒤를 모두 0 으로 지운다.
+     */
+    int recover(CRC32 crc, ByteBuffer scratch) {
+        count = 0;
+        while (count < capacity && readValid(count, crc, scratch)) {
+            count++;
+        }
+        while (count > 0 && buffer.get((count - 1) * RECORD_SIZE + LINKED_OFFSET) != 0) {
+            count--;
+        }
+
+        if (count < capacity && buffer.getLong(count * RECORD_SIZE) != 0) {
+            for (int position = count * RECORD_SIZE; position < capacity * RECORD_SIZE; position += Long.BYTES) {
+                buffer.putLong(position, 0);
+            }
+            buffer.force();
+        }
+
+        return count;
+    }
+
+    // afterSeq 이후의 레코드를 전달한다.
+    void replay(long afterSeq, Consumer<PointWalRecord> consumer) {
+        for (int index = (int) Math.max(0, afterSeq + 1 - firstSeq); index < count; index++) {
+            int position = index * RECORD_SIZE;
+            consumer.accept(new PointWalRecord(
+                    buffer.getLong(position),
+                    buffer.getLong(position + 8),
+                    TransactionType.values()[buffer.get(position + 40)],
+                    buffer.getLong(position + 16),
+                    buffer.getLong(position + 24),
+                    buffer.getLong(position + 32)));
+        }
+    }
+
+    boolean isFull() {
+        return count == capacity;
+    }
+
+    int remaining() {
+        return capacity - count;
+    }
+
+    long firstSeq() {
+        return firstSeq;
+    }
+
+    long lastSeq() {
+        return firstSeq + count - 1;
+    }
+
+    /**
+     * scratch 에 레코드를 만들어 checksum 을 붙인 뒤 한 번에 복사한다.
+     * 호출하는 쪽에서 순차적으로 호출해야 한다.
+     */
+    long append(long userId, TransactionType type, long amount, long balance, long updateMillis, boolean linked,
+                CRC32 crc, ByteBuffer scratch) {
+        long seq = firstSeq + count;
+
+        scratch.putLong(0, seq)
+                .putLong(8, userId)
+                .putLong(16, amount)
+                .putLong(24, balance)
+                .putLong(32, updateMillis)
+                .put(40, (byte) type.ordinal())
+                .put(LINKED_OFFSET, (byte) (linked ? 1 : 0))
+                .put(42, (byte) 0)
+                .put(43, (byte) 0);
+        crc.reset();
+        crc.update(scratch.array(), 0, CRC_OFFSET);
+        scratch.putInt(CRC_OFFSET, (int) crc.getValue());
+
+        buffer.put(count * RECORD_SIZE, scratch.array(), 0, RECORD_SIZE);
+        count++;
+
+        return seq;
+    }
+
+    // 매핑된 내용을 디스크에 내린다. (fsync)
+    void force() {
+        buffer.force();
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("WAL 파일을 닫을 수 없습니다. " + path, e);
+        }
+    }
+
+    private boolean readValid(int index, CRC32 crc, ByteBuffer scratch) {
+        int position = index * RECORD_SIZE;
+        if (buffer.getLong(position) != firstSeq + index) {
+            return false;
+        }
+
+        buffer.get(position, scratch.array(), 0, RECORD_SIZE);
+        crc.reset();
+        crc.update(scratch.array(), 0, CRC_OFFSET);
+        byte type = scratch.get(40);
+
+        return scratch.getInt(CRC_OFFSET) == (int) crc.getValue() && type >= 0 && type < TransactionType.values().length;
+    }
+}
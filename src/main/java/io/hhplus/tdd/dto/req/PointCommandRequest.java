@@ -0,0 +1,15 @@
+package io.hhplus.tdd.dto.req;
+
+import io.hhplus.tdd.point.PointCommand;
+import io.hhplus.tdd.point.TransactionType;
+
+public record PointCommandRequest(
+        long userId,
+        TransactionType type,
+        long amount
+) {
+    // 거래 종류는 PointBatchService 가 요청별로 검증한다.
+    public PointCommand toCommand() {
+        return new PointCommand(userId, type, amount);
+    }
+}
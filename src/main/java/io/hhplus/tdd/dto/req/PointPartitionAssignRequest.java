@@ -0,0 +1,7 @@
+package io.hhplus.tdd.dto.req;
+
+public record PointPartitionAssignRequest(
+        String owner
+) {
+
+}
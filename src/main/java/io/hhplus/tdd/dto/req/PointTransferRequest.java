@@ -0,0 +1,9 @@
+package io.hhplus.tdd.dto.req;
+
+public record PointTransferRequest(
+        long fromId,
+        long toId,
+        long amount
+) {
+
+}
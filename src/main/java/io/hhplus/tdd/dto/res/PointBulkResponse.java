@@ -0,0 +1,17 @@
+package io.hhplus.tdd.dto.res;
+
+import io.hhplus.tdd.point.bulk.PointBulkResult;
+
+public record PointBulkResponse(
+        long points,
+        long histories,
+        long elapsedMillis
+) {
+    public static PointBulkResponse from(PointBulkResult pointBulkResult) {
+        return new PointBulkResponse(
+                pointBulkResult.points(),
+                pointBulkResult.histories(),
+                pointBulkResult.elapsedMillis()
+        );
+    }
+}
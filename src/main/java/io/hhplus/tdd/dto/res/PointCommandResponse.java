@@ -0,0 +1,23 @@
+package io.hhplus.tdd.dto.res;
+
+import io.hhplus.tdd.ErrorResponse;
+import io.hhplus.tdd.point.PointCommandResult;
+import io.hhplus.tdd.point.TransactionType;
+
+public record PointCommandResponse(
+        long userId,
+        TransactionType type,
+        long amount,
+        PointResponse point,
+        ErrorResponse error
+) {
+    public static PointCommandResponse from(PointCommandResult result) {
+        return new PointCommandResponse(
+                result.command().userId(),
+                result.command().type(),
+                result.command().amount(),
+                result.isSuccess() ? PointResponse.from(result.userPoint()) : null,
+                result.isSuccess() ? null : ErrorResponse.from(result.error())
+        );
+    }
+}
@@ -4,12 +4,14 @@ import io.hhplus.tdd.point.PointHistory;
 import io.hhplus.tdd.point.TransactionType;
 
 public record PointHistoryResponse(
+        long id,
         long userId,
         long amount,
         TransactionType type
 ) {
     public static PointHistoryResponse from(PointHistory pointHistory) {
         return new PointHistoryResponse(
+                pointHistory.id(),
                 pointHistory.userId(),
                 pointHistory.amount(),
                 pointHistory.type()
@@ -0,0 +1,23 @@
+package io.hhplus.tdd.dto.res;
+
+import io.hhplus.tdd.point.PointContentionProfiler;
+
+import java.util.List;
+
+public record PointHotUsersResponse(
+        boolean enabled,
+        long halfLifeSeconds,
+        List<PointContentionProfiler.HotUser> requests,
+        List<PointContentionProfiler.HotUser> lockWaitMicros,
+        List<PointContentionProfiler.HotUser> rejections
+) {
+    public static PointHotUsersResponse from(PointContentionProfiler pointContentionProfiler) {
+        return new PointHotUsersResponse(
+                pointContentionProfiler.isEnabled(),
+                pointContentionProfiler.halfLife().toSeconds(),
+                pointContentionProfiler.topUsers(PointContentionProfiler.Dimension.REQUESTS),
+                pointContentionProfiler.topUsers(PointContentionProfiler.Dimension.LOCK_WAIT_MICROS),
+                pointContentionProfiler.topUsers(PointContentionProfiler.Dimension.REJECTIONS)
+        );
+    }
+}
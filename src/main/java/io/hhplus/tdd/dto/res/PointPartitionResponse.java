@@ -0,0 +1,9 @@
+package io.hhplus.tdd.dto.res;
+
+public record PointPartitionResponse(
+        long userId,
+        int partition,
+        String owner
+) {
+
+}
@@ -0,0 +1,27 @@
+package io.hhplus.tdd.dto.res;
+
+import io.hhplus.tdd.point.PointSummary;
+
+public record PointSummaryResponse(
+        long userId,
+        long totalCharged,
+        long totalUsed,
+        long totalExpired,
+        long chargeCount,
+        long useCount,
+        long expireCount,
+        long lastActivityMillis
+) {
+    public static PointSummaryResponse from(PointSummary pointSummary) {
+        return new PointSummaryResponse(
+                pointSummary.userId(),
+                pointSummary.totalCharged(),
+                pointSummary.totalUsed(),
+                pointSummary.totalExpired(),
+                pointSummary.chargeCount(),
+                pointSummary.useCount(),
+                pointSummary.expireCount(),
+                pointSummary.lastActivityMillis()
+        );
+    }
+}
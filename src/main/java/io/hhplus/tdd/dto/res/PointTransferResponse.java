@@ -0,0 +1,15 @@
+package io.hhplus.tdd.dto.res;
+
+import io.hhplus.tdd.point.PointTransfer;
+
+public record PointTransferResponse(
+        PointResponse from,
+        PointResponse to
+) {
+    public static PointTransferResponse from(PointTransfer pointTransfer) {
+        return new PointTransferResponse(
+                PointResponse.from(pointTransfer.from()),
+                PointResponse.from(pointTransfer.to())
+        );
+    }
+}
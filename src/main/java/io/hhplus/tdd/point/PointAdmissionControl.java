@@ -0,0 +1,125 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 동시에 처리하는 포인트 충전/사용 요청 수를 제한한다.
+ * 요청이 몰리면 모든 Tomcat 스레드가 유저 락을 기다리느라 조회까지 처리하지 못하게 되므로,
+ * 한도를 넘는 요청은 기다리지 않고 PointBusyException(429)으로 바로 실패시킨다.
+ * - 전체 : 최대 max-in-flight 건을 처리하고, queue-size 건까지만 queue-timeout 동안 자리가 나기를 기다린다.
+ * - 유저별 : 같은 유저는 최대 max-in-flight-per-user 건까지만 받는다. 같은 유저의 요청은 어차피 하나씩 처리되므로 기다리지 않는다.
+ * 처리 중인 요청은 응답이 완료될 때(WAL 기록 포함) 자리를 반납한다.
+ */
+@Component
+public class PointAdmissionControl {
+
+    private final boolean enabled;
+    private final Semaphore inFlight;
+    private final int queueSize;
+    private final long queueTimeoutNanos;
+    private final int maxInFlightPerUser;
+    private final PointMetrics pointMetrics;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final ConcurrentHashMap<Long, Integer> userInFlight = new ConcurrentHashMap<>();
+
+    public PointAdmissionControl(
+            @Value("${point.admission.enabled:true}") boolean enabled,
+            @Value("${point.admission.max-in-flight:64}") int maxInFlight,
+            @Value("${point.admission.max-in-flight-per-user:8}") int maxInFlightPerUser,
+            @Value("${point.admission.queue-size:64}") int queueSize,
+            @Value("${point.admission.queue-timeout:100ms}") Duration queueTimeout,
+            PointMetrics pointMetrics
+    ) {
+        if (maxInFlight < 1 || maxInFlightPerUser < 1 || queueSize < 0) {
+            throw new IllegalArgumentException("처리 한도는 1 이상, 대기 한도는 0 이상이어야 합니다.");
+        }
+
+        this.enabled = enabled;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.queueSize = queueSize;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.maxInFlightPerUser = maxInFlightPerUser;
+        this.pointMetrics = pointMetrics;
+    }
+
+    /**
+     * 한도 안이면 action 을 실행하고, 한도를 넘으면 실행하지 않고 PointBusyException 으로 실패한 future 를 반환한다.
+     */
+    public <T> CompletableFuture<T> admit(long userId, Supplier<CompletableFuture<T>> action) {
+        if (!enabled) {
+            return action.get();
+        }
+
+        if (!acquireUser(userId)) {
+            pointMetrics.recordAdmissionRejection(userId, PointMetrics.AdmissionScope.USER);
+            return CompletableFuture.failedFuture(new PointBusyException("같은 유저의 요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요."));
+        }
+
+        if (!acquireGlobal()) {
+            releaseUser(userId);
+            pointMetrics.recordAdmissionRejection(userId, PointMetrics.AdmissionScope.GLOBAL);
+            return CompletableFuture.failedFuture(new PointBusyException("요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요."));
+        }
+
+        CompletableFuture<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+
+        return response.whenComplete((result, throwable) -> {
+            inFlight.release();
+            releaseUser(userId);
+        });
+    }
+
+    // 자리가 없으면 대기 한도 안에서만 queue-timeout 동안 기다린다.
+    private boolean acquireGlobal() {
+        if (inFlight.tryAcquire()) {
+            return true;
+        }
+
+        if (waiting.incrementAndGet() > queueSize) {
+            waiting.decrementAndGet();
+            return false;
+        }
+
+        try {
+            return inFlight.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    // compute 는 같은 key 에 대해 원자적으로 실행되므로 유저별 처리 수를 별도의 동기화 없이 관리할 수 있다.
+    private boolean acquireUser(long userId) {
+        boolean[] admitted = {false};
+        userInFlight.compute(userId, (id, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= maxInFlightPerUser) {
+                return count;
+            }
+            admitted[0] = true;
+            return current + 1;
+        });
+        return admitted[0];
+    }
+
+    private void releaseUser(long userId) {
+        userInFlight.computeIfPresent(userId, (id, count) -> count == 1 ? null : count - 1);
+    }
+}
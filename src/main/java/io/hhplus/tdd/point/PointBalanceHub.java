@@ -0,0 +1,238 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.dto.res.PointResponse;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 유저별 포인트 변경을 SSE 구독자에게 알린다. (GET /point/{id}/stream)
+ * - 구독은 SseEmitter(servlet async)로 유지하므로 연결마다 스레드를 두지 않는다. 알림이 없는 구독자는 스레드를 쓰지 않는다.
+ * - 구독자마다 아직 내려보내지 않은 포인트를 하나만 담는다. 내려보내기 전에 새 포인트가 오면 최근 값으로 바꾸므로(conflation),
+ *   느린 구독자에게 알림이 쌓이지 않고 결국 마지막 포인트를 받는다.
+ * - 내려보내기는 소수의 sender 스레드가 맡고, 한 구독자는 한 번에 하나의 sender 만 사용한다.
+ *   한 번 내려보내는 데 slow-consumer-timeout 보다 오래 걸리는 구독자는 더 이상 알리지 않고 끊는다.
+ */
+@Component
+public class PointBalanceHub {
+
+    private static final String EVENT_NAME = "point";
+
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+    private final long slowConsumerNanos;
+    private final PointMetrics pointMetrics;
+
+    private final ConcurrentHashMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService reaper;
+
+    public PointBalanceHub(
+            @Value("${point.stream.timeout:30m}") Duration timeout,
+            @Value("${point.stream.max-subscribers:10000}") int maxSubscribers,
+            @Value("${point.stream.senders:4}") int senders,
+            @Value("${point.stream.slow-consumer-timeout:5s}") Duration slowConsumerTimeout,
+            PointMetrics pointMetrics
+    ) {
+        this.timeoutMillis = timeout.toMillis();
+        this.maxSubscribers = maxSubscribers;
+        this.slowConsumerNanos = slowConsumerTimeout.toNanos();
+        this.pointMetrics = pointMetrics;
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senders, runnable -> {
+            Thread thread = new Thread(runnable, "point-stream-sender-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "point-stream-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, slowConsumerTimeout.toMillis() / 2);
+        this.reaper.scheduleWithFixedDelay(this::dropSlowConsumers, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 유저의 포인트 변경을 구독한다. 구독하자마자 current 로 읽은 현재 포인트를 먼저 내려보낸다.
+     * 구독자 수가 한도를 넘으면 PointBusyException 으로 실패한다.
+     */
+    public SseEmitter subscribe(long userId, Supplier<UserPoint> current) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new PointBusyException("포인트 구독자 수가 한도를 넘었습니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        subscribers.compute(userId, (id, userSubscribers) -> {
+            if (userSubscribers == null) {
+                userSubscribers = ConcurrentHashMap.newKeySet();
+            }
+            userSubscribers.add(subscriber);
+            return userSubscribers;
+        });
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        // 구독한 뒤에 읽으므로 그 사이의 변경을 놓치지 않는다. 그 사이 변경이 알려졌으면 그 값이 더 최근이므로 건너뛴다.
+        try {
+            UserPoint userPoint = current.get();
+            synchronized (subscriber) {
+                if (!subscriber.published) {
+                    offer(subscriber, userPoint);
+                }
+            }
+        } catch (RuntimeException e) {
+            unsubscribe(subscriber);
+            throw e;
+        }
+
+        return emitter;
+    }
+
+    /**
+     * 저장된 포인트를 구독자에게 알린다. 구독자가 없으면 아무것도 만들지 않고 바로 반환한다.
+     * 같은 유저에 대해서는 저장 순서대로 호출되어야 한다. (PointLedger)
+     */
+    public void publish(UserPoint userPoint) {
+        Set<Subscriber> userSubscribers = subscribers.get(userPoint.id());
+        if (userSubscribers == null) {
+            return;
+        }
+
+        for (Subscriber subscriber : userSubscribers) {
+            synchronized (subscriber) {
+                subscriber.published = true;
+                offer(subscriber, userPoint);
+            }
+        }
+    }
+
+    // 현재 구독자 수
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reaper.shutdownNow();
+        senders.shutdown();
+    }
+
+    private void offer(Subscriber subscriber, UserPoint userPoint) {
+        if (subscriber.latest.getAndSet(userPoint) != null) {
+            pointMetrics.recordStreamConflated();
+        }
+
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.dropped || !subscriber.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            senders.execute(() -> send(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.scheduled.set(false);
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        UserPoint userPoint;
+        while (!subscriber.dropped && (userPoint = subscriber.latest.getAndSet(null)) != null) {
+            subscriber.sendingSince = System.nanoTime();
+            try {
+                subscriber.emitter.send(SseEmitter.event().name(EVENT_NAME).data(PointResponse.from(userPoint)));
+            } catch (IOException | IllegalStateException e) {
+                // 연결이 끊겼거나 이미 끝난 구독
+                unsubscribe(subscriber);
+                return;
+            } finally {
+                subscriber.sendingSince = 0;
+            }
+        }
+
+        if (subscriber.dropped) {
+            subscriber.emitter.complete();
+            return;
+        }
+
+        subscriber.scheduled.set(false);
+        // 내려보내는 사이 들어온 포인트가 있으면 다시 예약한다.
+        if (subscriber.latest.get() != null) {
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * 한 번 내려보내는 데 오래 걸리는 구독자는 더 이상 알리지 않는다.
+     * 내려보내는 중인 sender 는 막혀 있으므로 여기서 연결을 닫지 않고, 쓰기가 끝나면 sender 가 구독을 끝낸다.
+     */
+    private void dropSlowConsumers() {
+        long now = System.nanoTime();
+
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                long sendingSince = subscriber.sendingSince;
+                if (sendingSince != 0 && now - sendingSince > slowConsumerNanos && !subscriber.dropped) {
+                    subscriber.dropped = true;
+                    unsubscribe(subscriber);
+                    pointMetrics.recordStreamDropped();
+                }
+            }
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        boolean[] removed = {false};
+        subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+            removed[0] = userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+
+        if (removed[0]) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private static final class Subscriber {
+        private final long userId;
+        private final SseEmitter emitter;
+        // 아직 내려보내지 않은 가장 최근 포인트
+        private final AtomicReference<UserPoint> latest = new AtomicReference<>();
+        // sender 에 예약되었거나 내려보내는 중이면 true
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // 구독 후 변경이 알려졌는지, subscriber 의 모니터로 보호한다.
+        private boolean published;
+        private volatile boolean dropped;
+        // 내려보내기 시작한 시각, 내려보내는 중이 아니면 0
+        private volatile long sendingSince;
+
+        private Subscriber(long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package io.hhplus.tdd.point;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 여러 유저의 충전/사용 요청을 한 번에 처리한다.
+ * 요청을 유저별로 묶어, 유저마다 한 번의 직렬화된 구간에서 처리하고 서로 다른 유저는 병렬로 처리한다.
+ * 유저별 묶음은 단건 충전/사용과 같이 PointAdmissionControl 을 거치며, 한도를 넘은 유저의 요청은 항목별로 429 로 실패한다.
+ */
+@Service
+public class PointBatchService {
+
+    private final PointService pointService;
+    private final PointAdmissionControl pointAdmissionControl;
+    private final int maxSize;
+    private final ExecutorService executor;
+
+    public PointBatchService(
+            PointService pointService,
+            PointAdmissionControl pointAdmissionControl,
+            @Value("${point.batch.max-size:10000}") int maxSize,
+            @Value("${point.batch.parallelism:16}") int parallelism
+    ) {
+        this.pointService = pointService;
+        this.pointAdmissionControl = pointAdmissionControl;
+        this.maxSize = maxSize;
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "point-batch-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 결과는 요청과 같은 순서로 반환한다.
+    public CompletableFuture<List<PointCommandResult>> apply(List<PointCommand> commands) {
+        if (commands.size() > maxSize) {
+            throw new IllegalArgumentException("한 번에 처리할 수 있는 요청은 " + maxSize + "건 이하입니다.");
+        }
+
+        PointCommandResult[] results = new PointCommandResult[commands.size()];
+        Map<Long, List<Integer>> indexesByUser = new LinkedHashMap<>();
+        for (int i = 0; i < commands.size(); i++) {
+            PointCommand command = commands.get(i);
+            // 만료는 요청으로 받지 않는다. (PointExpirationScheduler 만 기록) 다른 요청은 그대로 처리한다.
+            if (command.type() == TransactionType.EXPIRE) {
+                results[i] = PointCommandResult.failure(command, new PointRejectedException(
+                        PointRejectedException.Reason.INVALID_TYPE, "거래 종류는 CHARGE, USE 중 하나여야 합니다."));
+                continue;
+            }
+            indexesByUser.computeIfAbsent(command.userId(), userId -> new ArrayList<>()).add(i);
+        }
+
+        List<CompletableFuture<Void>> groups = new ArrayList<>(indexesByUser.size());
+
+        indexesByUser.forEach((userId, indexes) -> {
+            List<PointCommand> group = indexes.stream().map(commands::get).toList();
+
+            CompletableFuture<Void> done = CompletableFuture
+                    .supplyAsync(() -> pointAdmissionControl.admit(userId, () -> pointService.applyCommandsAsync(userId, group)), executor)
+                    .thenCompose(Function.identity())
+                    .handle((groupResults, e) -> {
+                        for (int i = 0; i < indexes.size(); i++) {
+                            results[indexes.get(i)] = e == null
+                                    ? groupResults.get(i)
+                                    : PointCommandResult.failure(group.get(i), unwrap(e));
+                        }
+                        return null;
+                    });
+            groups.add(done);
+        });
+
+        return CompletableFuture.allOf(groups.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> Arrays.asList(results));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static RuntimeException unwrap(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof RuntimeException runtimeException
+                ? runtimeException
+                : new IllegalStateException(cause);
+    }
+}
@@ -0,0 +1,12 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 처리 중인 요청이 많아 포인트 충전/사용 요청을 받을 수 없을 때 발생하는 예외
+ * 응답은 429(Too Many Requests)로 처리되며, 클라이언트는 잠시 후 다시 요청해야 한다.
+ */
+public class PointBusyException extends RuntimeException {
+
+    public PointBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,35 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 충전/사용 요청 한 건
+ */
+public record PointCommand(
+        long userId,
+        TransactionType type,
+        long amount
+) {
+
+    public static PointCommand charge(long userId, long amount) {
+        return new PointCommand(userId, TransactionType.CHARGE, amount);
+    }
+
+    public static PointCommand use(long userId, long amount) {
+        return new PointCommand(userId, TransactionType.USE, amount);
+    }
+
+    public static PointCommand expire(long userId, long amount) {
+        return new PointCommand(userId, TransactionType.EXPIRE, amount);
+    }
+
+    public UserPoint applyTo(UserPoint userPoint) {
+        if (type == null) {
+            throw new PointRejectedException(PointRejectedException.Reason.INVALID_TYPE, "거래 종류는 CHARGE, USE 중 하나여야 합니다.");
+        }
+
+        return switch (type) {
+            case CHARGE -> userPoint.charge(amount);
+            case USE -> userPoint.use(amount);
+            case EXPIRE -> userPoint.expire(amount);
+        };
+    }
+}
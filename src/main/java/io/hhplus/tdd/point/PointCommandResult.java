@@ -0,0 +1,31 @@
+package io.hhplus.tdd.point;
+
+/**
+ * PointCommand 처리 결과
+ * 성공하면 처리 후의 UserPoint, 실패하면 실패 원인을 담는다.
+ */
+public record PointCommandResult(
+        PointCommand command,
+        UserPoint userPoint,
+        RuntimeException error
+) {
+
+    public static PointCommandResult success(PointCommand command, UserPoint userPoint) {
+        return new PointCommandResult(command, userPoint, null);
+    }
+
+    public static PointCommandResult failure(PointCommand command, RuntimeException error) {
+        return new PointCommandResult(command, null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    public UserPoint getOrThrow() {
+        if (error != null) {
+            throw error;
+        }
+        return userPoint;
+    }
+}
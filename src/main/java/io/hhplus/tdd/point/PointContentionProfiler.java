@@ -0,0 +1,240 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.Hashing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 요청 수, 락 대기 시간, 거절 수가 큰 유저를 근사적으로 찾는다. (GET /actuator/hotusers)
+ * 한 유저가 몰린 것인지, 전체 부하가 높은 것인지를 지연이 튈 때 바로 확인하기 위해 항상 켜둔다.
+ * - 항목(요청, 락 대기, 거절)마다 count-min sketch 로 유저별 값을 더한다. 메모리는 유저 수와 관계없이 depth * width 칸이다.
+ *   sketch 는 값을 크게 추정할 수만 있고(해시 충돌), 작게 추정하지 않는다.
+ * - 추정치가 후보 중 가장 작은 값보다 큰 유저만 후보(top * 4 명)에 넣는다. 이미 후보인 유저는 추정치만 바꾼다.
+ *   대부분의 기록은 sketch 의 칸 depth 개를 더하는 것으로 끝나고, 락은 새 유저가 후보에 들어갈 때만 잡는다.
+ * - half-life 마다 모든 값을 절반으로 줄여, 최근에 몰린 유저가 위로 오게 한다. 줄이는 것은 기록하는 스레드가 차례가 되었을 때 한 번 한다.
+ */
+@Component
+public class PointContentionProfiler {
+
+    public enum Dimension {
+        REQUESTS,
+        LOCK_WAIT_MICROS,
+        REJECTIONS
+    }
+
+    // 후보는 보여줄 유저 수보다 넉넉히 담아, 추정치가 비슷한 유저가 번갈아 들어오고 나가도 상위 유저가 밀려나지 않게 한다.
+    private static final int CANDIDATE_FACTOR = 4;
+
+    private final boolean enabled;
+    private final int top;
+    private final long halfLifeMillis;
+    private final HeavyHitters[] heavyHitters;
+
+    public PointContentionProfiler(
+            @Value("${point.profile.enabled:true}") boolean enabled,
+            @Value("${point.profile.top:20}") int top,
+            @Value("${point.profile.sketch-depth:4}") int depth,
+            @Value("${point.profile.sketch-width:4096}") int width,
+            @Value("${point.profile.half-life:60s}") Duration halfLife
+    ) {
+        if (top < 1 || depth < 1 || width < 2 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("상위 유저 수와 sketch 의 depth 는 1 이상, width 는 2 이상의 2의 거듭제곱이어야 합니다.");
+        }
+
+        this.enabled = enabled;
+        this.top = top;
+        this.halfLifeMillis = Math.max(1, halfLife.toMillis());
+        this.heavyHitters = new HeavyHitters[Dimension.values().length];
+        for (Dimension dimension : Dimension.values()) {
+            heavyHitters[dimension.ordinal()] = new HeavyHitters(depth, width, top * CANDIDATE_FACTOR, currentEpoch());
+        }
+    }
+
+    public void record(Dimension dimension, long userId, long amount) {
+        if (!enabled || amount <= 0) {
+            return;
+        }
+
+        HeavyHitters hitters = heavyHitters[dimension.ordinal()];
+        hitters.decayTo(currentEpoch());
+        hitters.add(userId, amount);
+    }
+
+    // 추정치가 큰 순서로 최대 top 명을 반환한다.
+    public List<HotUser> topUsers(Dimension dimension) {
+        HeavyHitters hitters = heavyHitters[dimension.ordinal()];
+        hitters.decayTo(currentEpoch());
+
+        return hitters.top(top);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration halfLife() {
+        return Duration.ofMillis(halfLifeMillis);
+    }
+
+    private long currentEpoch() {
+        return System.currentTimeMillis() / halfLifeMillis;
+    }
+
+    public record HotUser(
+            long userId,
+            long estimate
+    ) {
+    }
+
+    /**
+     * count-min sketch 와 추정치가 큰 후보 유저
+     * 후보의 추정치는 마지막으로 기록될 때의 sketch 추정치이므로, 조회할 때 sketch 에서 다시 읽어 정렬한다.
+     */
+    private static final class HeavyHitters {
+        private final int depth;
+        private final int mask;
+        private final int width;
+        private final AtomicLongArray counts;
+        private final int capacity;
+
+        private final ConcurrentHashMap<Long, Candidate> candidates = new ConcurrentHashMap<>();
+        // 후보가 가득 찼을 때 후보에 들어오려면 넘어야 하는 추정치 (후보 중 가장 작은 추정치)
+        private volatile long threshold;
+        // 마지막으로 값을 줄인 epoch (half-life 단위)
+        private final AtomicLong epoch;
+
+        private HeavyHitters(int depth, int width, int capacity, long epoch) {
+            this.depth = depth;
+            this.width = width;
+            this.mask = width - 1;
+            this.counts = new AtomicLongArray(depth * width);
+            this.capacity = capacity;
+            this.epoch = new AtomicLong(epoch);
+        }
+
+        private void add(long userId, long amount) {
+            long hash = Hashing.mix(userId);
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                estimate = Math.min(estimate, counts.addAndGet(index(hash, row), amount));
+            }
+
+            // 후보의 추정치는 threshold 보다 작지 않으므로, 작으면 후보를 찾아보지 않는다. (대부분의 유저)
+            if (estimate < threshold) {
+                return;
+            }
+
+            Candidate candidate = candidates.get(userId);
+            if (candidate != null) {
+                candidate.estimate = estimate;
+                return;
+            }
+
+            if (estimate > threshold) {
+                admit(userId, estimate);
+            }
+        }
+
+        private synchronized void admit(long userId, long estimate) {
+            if (candidates.containsKey(userId)) {
+                return;
+            }
+
+            if (candidates.size() >= capacity) {
+                Candidate smallest = smallest();
+                if (smallest == null || smallest.estimate >= estimate) {
+                    threshold = smallest == null ? 0 : smallest.estimate;
+                    return;
+                }
+                candidates.remove(smallest.userId);
+            }
+
+            candidates.put(userId, new Candidate(userId, estimate));
+            if (candidates.size() >= capacity) {
+                Candidate smallest = smallest();
+                threshold = smallest == null ? 0 : smallest.estimate;
+            }
+        }
+
+        private List<HotUser> top(int limit) {
+            List<HotUser> users = new ArrayList<>(candidates.size());
+            for (Candidate candidate : candidates.values()) {
+                long estimate = estimate(candidate.userId);
+                if (estimate > 0) {
+                    users.add(new HotUser(candidate.userId, estimate));
+                }
+            }
+            users.sort(Comparator.comparingLong(HotUser::estimate).reversed());
+
+            return users.size() > limit ? List.copyOf(users.subList(0, limit)) : users;
+        }
+
+        /**
+         * now 가 마지막으로 줄인 epoch 보다 지났으면, 지난 half-life 수만큼 모든 값을 절반씩 줄인다.
+         * epoch 를 먼저 바꾼 한 스레드만 줄이고, 그 사이 더해진 값은 CAS 로 함께 줄인다.
+         */
+        private void decayTo(long now) {
+            long last = epoch.get();
+            if (now <= last || !epoch.compareAndSet(last, now)) {
+                return;
+            }
+
+            int shift = (int) Math.min(Long.SIZE - 1, now - last);
+            for (int i = 0; i < counts.length(); i++) {
+                if (counts.get(i) != 0) {
+                    counts.getAndUpdate(i, count -> count >>> shift);
+                }
+            }
+
+            synchronized (this) {
+                candidates.values().removeIf(candidate -> (candidate.estimate >>>= shift) == 0);
+                Candidate smallest = candidates.size() >= capacity ? smallest() : null;
+                threshold = smallest == null ? 0 : smallest.estimate;
+            }
+        }
+
+        private long estimate(long userId) {
+            long hash = Hashing.mix(userId);
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                estimate = Math.min(estimate, counts.get(index(hash, row)));
+            }
+            return estimate;
+        }
+
+        private Candidate smallest() {
+            Candidate smallest = null;
+            for (Candidate candidate : candidates.values()) {
+                if (smallest == null || candidate.estimate < smallest.estimate) {
+                    smallest = candidate;
+                }
+            }
+            return smallest;
+        }
+
+        // 해시 하나를 둘로 나누어 행마다 다른 위치를 고른다. (h1 + row * h2)
+        private int index(long hash, int row) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            return row * width + ((h1 + row * h2) & mask);
+        }
+    }
+
+    private static final class Candidate {
+        private final long userId;
+        private volatile long estimate;
+
+        private Candidate(long userId, long estimate) {
+            this.userId = userId;
+            this.estimate = estimate;
+        }
+    }
+}
@@ -1,14 +1,26 @@
 package io.hhplus.tdd.point;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.dto.req.PointCommandRequest;
 import io.hhplus.tdd.dto.req.PointRequest;
+import io.hhplus.tdd.dto.req.PointTransferRequest;
+import io.hhplus.tdd.dto.res.PointCommandResponse;
 import io.hhplus.tdd.dto.res.PointHistoryResponse;
 import io.hhplus.tdd.dto.res.PointResponse;
+import io.hhplus.tdd.dto.res.PointSummaryResponse;
+import io.hhplus.tdd.dto.res.PointTransferResponse;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
@@ -18,7 +30,16 @@ public class PointController {
 
     private static final Logger log = LoggerFactory.getLogger(PointController.class);
 
+    private static final String NEXT_CURSOR_HEADER = "Next-Cursor";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int HISTORY_STREAM_CHUNK_SIZE = 500;
+
     private final PointService pointService;
+    private final PointBatchService pointBatchService;
+    private final PointIdempotencyCache pointIdempotencyCache;
+    private final PointAdmissionControl pointAdmissionControl;
+    private final PointBalanceHub pointBalanceHub;
+    private final ObjectMapper objectMapper;
 
     /**
      * TODO - 특정 유저의 포인트를 조회하는 기능을 작성해주세요.
@@ -34,41 +55,183 @@ public class PointController {
 
     /**
      * TODO - 특정 유저의 포인트 충전/이용 내역을 조회하는 기능을 작성해주세요.
+     * limit 을 지정하면 cursor(PointHistory.id) 이후의 내역을 limit 건만 조회하고,
+     * 다음 페이지가 있을 수 있으면 Next-Cursor 헤더로 다음 cursor 를 내려줍니다.
+     * from, to(epoch millis), type 중 하나라도 지정하면 [from, to) 사이의 내역을 시각 순으로 조회합니다.
      */
     @GetMapping("{id}/histories")
-    public List<PointHistoryResponse> history(
+    public ResponseEntity<List<PointHistoryResponse>> history(
+            @PathVariable(name = "id") long id,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "cursor", required = false) Long cursor,
+            @RequestParam(name = "from", required = false) Long from,
+            @RequestParam(name = "to", required = false) Long to,
+            @RequestParam(name = "type", required = false) TransactionType type
+    ) {
+        if (from != null || to != null || type != null) {
+            if (limit != null || cursor != null) {
+                throw new IllegalArgumentException("기간 조회에는 limit, cursor 를 함께 사용할 수 없습니다.");
+            }
+
+            List<PointHistory> userPointHistory = pointService.getUserPointHistoryBetween(
+                    id, from == null ? 0 : from, to == null ? Long.MAX_VALUE : to, type);
+
+            return ResponseEntity.ok(toHistoryResponses(userPointHistory));
+        }
+
+        if (limit == null) {
+            List<PointHistory> userPointHistory = pointService.getUserPointHistory(id);
+
+            return ResponseEntity.ok(toHistoryResponses(userPointHistory));
+        }
+
+        List<PointHistory> userPointHistory = pointService.getUserPointHistory(id, cursor == null ? 0 : cursor, limit);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (userPointHistory.size() == limit) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(userPointHistory.get(limit - 1).id()));
+        }
+
+        return response.body(toHistoryResponses(userPointHistory));
+    }
+
+    /**
+     * 특정 유저의 충전/사용/만료 합계와 건수, 마지막 변경 시각을 조회합니다.
+     */
+    @GetMapping("{id}/summary")
+    public PointSummaryResponse summary(
             @PathVariable(name = "id") long id
     ) {
-        List<PointHistory> userPointHistory = pointService.getUserPointHistory(id);
+        return PointSummaryResponse.from(pointService.getUserPointSummary(id));
+    }
 
-        return userPointHistory.stream()
-                .map(PointHistoryResponse::from)
-                .collect(Collectors.toList());
+    /**
+     * 특정 유저의 포인트가 바뀔 때마다 바뀐 포인트를 내려줍니다. (text/event-stream, event: point)
+     * 구독하자마자 현재 포인트를 먼저 내려주고, 빠르게 여러 번 바뀌면 중간 값은 건너뛰고 마지막 포인트를 내려줍니다.
+     */
+    @GetMapping(value = "{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @PathVariable(name = "id") long id
+    ) {
+        return pointBalanceHub.subscribe(id, () -> pointService.getUserPoint(id));
+    }
+
+    /**
+     * 특정 유저의 포인트 충전/이용 내역을 한 줄에 하나씩(application/x-ndjson) 내려줍니다.
+     * 내역을 일정 건수씩 나누어 읽고 바로 쓰기 때문에 내역이 많아도 메모리 사용량이 늘지 않습니다.
+     */
+    @GetMapping(value = "{id}/histories/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> historyStream(
+            @PathVariable(name = "id") long id
+    ) {
+        // 첫 페이지는 미리 조회하여, 내역이 없으면 스트림을 시작하기 전에 실패 응답을 내려준다.
+        List<PointHistory> firstPage = pointService.getUserPointHistory(id, 0, HISTORY_STREAM_CHUNK_SIZE);
+
+        StreamingResponseBody body = outputStream -> {
+            List<PointHistory> page = firstPage;
+
+            while (!page.isEmpty()) {
+                for (PointHistory pointHistory : page) {
+                    outputStream.write(objectMapper.writeValueAsBytes(PointHistoryResponse.from(pointHistory)));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+
+                if (page.size() < HISTORY_STREAM_CHUNK_SIZE) {
+                    break;
+                }
+                page = pointService.getUserPointHistory(id, page.get(page.size() - 1).id(), HISTORY_STREAM_CHUNK_SIZE);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     /**
      * TODO - 특정 유저의 포인트를 충전하는 기능을 작성해주세요.
+     * Idempotency-Key 헤더가 있으면 같은 키로 다시 들어온 요청은 충전하지 않고 처음 응답을 반환합니다.
+     * 처리 중인 요청이 한도를 넘으면 429 로 실패합니다.
      */
     @PatchMapping("{id}/charge")
-    public PointResponse charge(
+    public CompletableFuture<PointResponse> charge(
             @PathVariable(name = "id") long id,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody PointRequest pointRequest
             ) {
-        UserPoint userPoint = pointService.chargeUserPoint(id, pointRequest.amount());
-
-        return PointResponse.from(userPoint);
+        return idempotent(idempotencyKey, id, TransactionType.CHARGE, pointRequest.amount(), () ->
+                pointAdmissionControl.admit(id, () -> pointService.chargeUserPointAsync(id, pointRequest.amount()))
+                        .thenApply(PointResponse::from));
     }
 
     /**
      * TODO - 특정 유저의 포인트를 사용하는 기능을 작성해주세요.
+     * Idempotency-Key 헤더가 있으면 같은 키로 다시 들어온 요청은 사용하지 않고 처음 응답을 반환합니다.
+     * 처리 중인 요청이 한도를 넘으면 429 로 실패합니다.
      */
     @PatchMapping("{id}/use")
-    public PointResponse use(
+    public CompletableFuture<PointResponse> use(
             @PathVariable(name = "id") long id,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody PointRequest pointRequest
     ) {
-        UserPoint userPoint = pointService.UseUserPoint(id, pointRequest.amount());
+        return idempotent(idempotencyKey, id, TransactionType.USE, pointRequest.amount(), () ->
+                pointAdmissionControl.admit(id, () -> pointService.useUserPointAsync(id, pointRequest.amount()))
+                        .thenApply(PointResponse::from));
+    }
 
-        return PointResponse.from(userPoint);
+    /**
+     * fromId 유저의 포인트를 toId 유저에게 보냅니다.
+     * 보내는 유저의 사용과 받는 유저의 충전은 함께 반영되며, 둘 중 하나라도 실패하면 어느 쪽도 반영되지 않습니다.
+     * 처리 한도는 보내는 유저 기준으로 적용됩니다.
+     */
+    @PostMapping("transfer")
+    public CompletableFuture<PointTransferResponse> transfer(
+            @RequestBody PointTransferRequest pointTransferRequest
+    ) {
+        long fromId = pointTransferRequest.fromId();
+
+        return pointAdmissionControl.admit(fromId, () ->
+                        pointService.transferAsync(fromId, pointTransferRequest.toId(), pointTransferRequest.amount()))
+                .thenApply(PointTransferResponse::from);
+    }
+
+    /**
+     * 여러 유저의 포인트 충전/사용 요청을 한 번에 처리합니다.
+     * 요청별 결과를 요청 순서대로 반환하며, 실패한 요청은 해당 항목의 error 에 담깁니다.
+     */
+    @PostMapping("batch")
+    public CompletableFuture<List<PointCommandResponse>> batch(
+            @RequestBody List<PointCommandRequest> pointCommandRequests
+    ) {
+        List<PointCommand> commands = pointCommandRequests.stream()
+                .map(PointCommandRequest::toCommand)
+                .toList();
+
+        return pointBatchService.apply(commands)
+                .thenApply(results -> results.stream()
+                        .map(PointCommandResponse::from)
+                        .collect(Collectors.toList()));
+    }
+
+    private CompletableFuture<PointResponse> idempotent(
+            String idempotencyKey,
+            long id,
+            TransactionType type,
+            long amount,
+            Supplier<CompletableFuture<PointResponse>> action
+    ) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+
+        return pointIdempotencyCache.execute(idempotencyKey, id, type, amount, action);
+    }
+
+    private static List<PointHistoryResponse> toHistoryResponses(List<PointHistory> pointHistories) {
+        return pointHistories.stream()
+                .map(PointHistoryResponse::from)
+                .collect(Collectors.toList());
     }
 }
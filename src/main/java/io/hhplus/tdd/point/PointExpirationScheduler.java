@@ -0,0 +1,132 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointLedger;
+import io.hhplus.tdd.database.PointLots;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.point.executor.OptimisticPointUpdater;
+import io.hhplus.tdd.point.executor.PointCommandExecutor;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 충전 후 기간이 지난 포인트를 만료(EXPIRE)한다. (point.expiration.enabled)
+ * - tick 마다 PointLots 의 타이밍 휠을 진행해 만료 시각이 지난 충전 건이 있는 유저를 모으고,
+ *   유저마다 한 번씩 충전/사용과 같은 직렬화된 구간(PointCommandExecutor)에서 만료된 포인트를 모두 차감한다.
+ * - 만료를 처리하지 못한 유저는 다음 tick 에 다시 처리한다.
+ * 낙관적 변경은 충전 건이 버전보다 늦게 반영되어 만료할 포인트를 정확히 계산할 수 없으므로 함께 사용할 수 없다.
+ */
+@Component
+public class PointExpirationScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(PointExpirationScheduler.class);
+
+    private final PointLots pointLots;
+    private final UserPointRepository userPointRepository;
+    private final PointLedger pointLedger;
+    private final PointCommandExecutor pointCommandExecutor;
+    private final PointMetrics pointMetrics;
+
+    private final ExecutorService workers;
+    private final ScheduledExecutorService ticker;
+
+    public PointExpirationScheduler(
+            @Value("${point.expiration.workers:4}") int workers,
+            PointLots pointLots,
+            UserPointRepository userPointRepository,
+            PointLedger pointLedger,
+            PointCommandExecutor pointCommandExecutor,
+            OptimisticPointUpdater optimisticPointUpdater,
+            PointMetrics pointMetrics
+    ) {
+        if (pointLots.isEnabled() && optimisticPointUpdater.isEnabled()) {
+            throw new IllegalStateException("포인트 만료는 낙관적 변경(point.execution.optimistic.enabled)과 함께 사용할 수 없습니다.");
+        }
+
+        this.pointLots = pointLots;
+        this.userPointRepository = userPointRepository;
+        this.pointLedger = pointLedger;
+        this.pointCommandExecutor = pointCommandExecutor;
+        this.pointMetrics = pointMetrics;
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "point-expiration-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "point-expiration-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (pointLots.isEnabled()) {
+            long tickMillis = pointLots.tickMillis();
+            this.ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * nowMillis 까지 만료된 유저의 포인트를 차감한다. 만료할 포인트가 없으면 현재 포인트를 그대로 반환한다.
+     * 유저의 충전/사용과 같은 직렬화된 구간에서 잔액과 충전 건을 함께 읽어 계산한다.
+     */
+    public CompletableFuture<UserPoint> expire(long userId, long nowMillis) {
+        long start = System.nanoTime();
+
+        return pointCommandExecutor.execute(userId, () -> expireWithLock(userId, nowMillis))
+                .whenComplete((userPoint, e) -> pointMetrics.recordOperation(PointMetrics.Operation.EXPIRE, start));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        workers.shutdown();
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+
+        // 한 유저의 충전 건이 여러 건 만료되어도 한 번만 처리한다.
+        Set<Long> userIds = new HashSet<>();
+        pointLots.advance(now, userIds::add);
+
+        for (long userId : userIds) {
+            workers.execute(() -> expire(userId, now).whenComplete((userPoint, e) -> {
+                if (e != null) {
+                    log.warn("포인트를 만료하지 못했습니다. 다음 tick 에 다시 처리합니다. userId={}", userId, e);
+                    pointLots.retryAt(userId, System.currentTimeMillis() + pointLots.tickMillis());
+                }
+            }));
+        }
+    }
+
+    private UserPoint expireWithLock(long userId, long nowMillis) {
+        UserPoint userPoint = userPointRepository.findById(userId);
+
+        long amount = pointLots.expirable(userId, userPoint.point(), nowMillis);
+        if (amount == 0) {
+            pointLots.retire(userId, nowMillis);
+            return userPoint;
+        }
+
+        PointCommand command = PointCommand.expire(userId, amount);
+        UserPoint expired = command.applyTo(userPoint);
+        UserPoint saved = pointLedger.record(userId, expired.point(), List.of(PointCommandResult.success(command, expired)));
+        pointLots.retire(userId, nowMillis);
+
+        return saved;
+    }
+}
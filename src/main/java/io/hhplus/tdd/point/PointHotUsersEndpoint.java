@@ -0,0 +1,24 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.dto.res.PointHotUsersResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * 요청 수, 락 대기 시간(µs), 거절 수가 큰 유저를 조회합니다. (GET /actuator/hotusers)
+ * 값은 근사치이며 half-life 마다 절반으로 줄어듭니다.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "hotusers")
+public class PointHotUsersEndpoint {
+
+    private final PointContentionProfiler pointContentionProfiler;
+
+    @ReadOperation
+    public PointHotUsersResponse hotUsers() {
+        return PointHotUsersResponse.from(pointContentionProfiler);
+    }
+}
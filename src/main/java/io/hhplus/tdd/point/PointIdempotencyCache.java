@@ -0,0 +1,147 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.dto.res.PointResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key 헤더로 들어온 충전/사용 요청의 결과를 담아두는 캐시
+ * - 처음 들어온 요청만 실행하고, 같은 키로 다시 들어온 요청에는 담아둔 응답을 그대로 반환한다.
+ * - 처리 중인 요청과 같은 키로 들어온 요청은 다시 실행하지 않고 처음 요청의 결과를 함께 기다린다.
+ * - 실패한 요청은 담아두지 않으므로, 같은 키로 다시 요청하면 다시 실행된다.
+ * 키는 유저와 충전/사용 별로 구분하며, 같은 키로 금액이 다른 요청이 들어오면 실패한다.
+ * UserPointCache 와 같이 세그먼트로 나누어 세그먼트 단위로만 동기화하고, 최대 크기를 넘거나 ttl 이 지나면 제거한다.
+ */
+@Component
+public class PointIdempotencyCache {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Segment[] segments;
+    private final long ttlNanos;
+    private final PointMetrics pointMetrics;
+
+    public PointIdempotencyCache(
+            @Value("${point.idempotency.max-size:100000}") int maxSize,
+            @Value("${point.idempotency.segments:16}") int segmentCount,
+            @Value("${point.idempotency.ttl:PT24H}") Duration ttl,
+            PointMetrics pointMetrics
+    ) {
+        if (maxSize < segmentCount) {
+            throw new IllegalArgumentException("캐시 크기는 세그먼트 수보다 작을 수 없습니다.");
+        }
+
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(maxSize / segmentCount);
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.pointMetrics = pointMetrics;
+    }
+
+    /**
+     * 같은 키로 처리된(처리 중인) 요청이 있으면 그 결과를, 없으면 action 을 실행한 결과를 반환한다.
+     */
+    public CompletableFuture<PointResponse> execute(
+            String idempotencyKey,
+            long userId,
+            TransactionType type,
+            long amount,
+            Supplier<CompletableFuture<PointResponse>> action
+    ) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key 는 1자 이상 " + MAX_KEY_LENGTH + "자 이하여야 합니다.");
+        }
+
+        Key key = new Key(userId, type, idempotencyKey);
+        Segment segment = segmentOf(key);
+        CompletableFuture<PointResponse> created = new CompletableFuture<>();
+        Entry entry = segment.putIfAbsent(key, new Entry(amount, created, System.nanoTime() + ttlNanos));
+
+        if (entry.response != created) {
+            if (entry.amount != amount) {
+                throw new IllegalArgumentException("같은 Idempotency-Key 로 다른 금액을 요청할 수 없습니다.");
+            }
+            pointMetrics.recordIdempotentReplay();
+            return entry.response;
+        }
+
+        CompletableFuture<PointResponse> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+
+        response.whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                segment.remove(key, entry);
+                created.completeExceptionally(throwable);
+            } else {
+                created.complete(result);
+            }
+        });
+
+        return created;
+    }
+
+    private Segment segmentOf(Key key) {
+        return segments[Math.floorMod(key.hashCode(), segments.length)];
+    }
+
+    private record Key(
+            long userId,
+            TransactionType type,
+            String idempotencyKey
+    ) {
+    }
+
+    private record Entry(
+            long amount,
+            CompletableFuture<PointResponse> response,
+            long expiresAtNanos
+    ) {
+    }
+
+    // 먼저 들어온 키부터 담겨 있으므로(insertion order) 앞에서부터 만료된 키를 제거한다.
+    private static final class Segment {
+        private final LinkedHashMap<Key, Entry> entries;
+
+        private Segment(int maxSize) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        // 담겨있는(만료되지 않은) 값이 있으면 그 값을, 없으면 entry 를 담고 반환한다.
+        private synchronized Entry putIfAbsent(Key key, Entry entry) {
+            long now = System.nanoTime();
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext() && iterator.next().expiresAtNanos - now <= 0) {
+                iterator.remove();
+            }
+
+            Entry existing = entries.get(key);
+            if (existing != null) {
+                return existing;
+            }
+
+            entries.put(key, entry);
+            return entry;
+        }
+
+        private synchronized void remove(Key key, Entry entry) {
+            entries.remove(key, entry);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 포인트 기능의 처리 시간과 실패 사유를 /actuator/metrics, /actuator/prometheus 로 노출한다.
+ * - point.operation : 기능별(charge, use, transfer, get, history, summary, expire) 처리 시간
+ * - point.lock.wait / point.lock.hold : 락 획득까지 기다린 시간 / 락을 잡고 있던 시간
+ * - point.table : 테이블 호출별 처리 시간
+ * - point.rejections : 실패 사유별 요청 수
+ * - point.history.records : 기록된 내역 수
+ * - point.optimistic.commits / conflicts / exhausted : 낙관적 변경의 성공 / 버전 충돌 / 재시도 초과 수
+ * - point.idempotency.replays : Idempotency-Key 로 처음 응답을 다시 반환한 요청 수
+ * - point.admission.rejections : 처리 한도(전체/유저별)를 넘어 거절된 요청 수
+ * - point.stream.conflated / dropped : 내려보내기 전에 더 최근 포인트로 대체된 알림 수 / 느려서 끊은 구독 수
+ * 요청마다 태그를 만들지 않도록 모든 meter 는 생성 시점에 등록해두고 enum 의 ordinal 로 꺼내 쓴다.
+ * userId 를 태그로 달면 meter 가 유저 수만큼 늘어나므로, 유저별 요청 수/락 대기/거절은 PointContentionProfiler 에만 기록한다.
+ */
+@Component
+public class PointMetrics {
+
+    public enum Operation {
+        CHARGE,
+        USE,
+        TRANSFER,
+        GET,
+        HISTORY,
+        SUMMARY,
+        EXPIRE
+    }
+
+    public enum AdmissionScope {
+        GLOBAL,
+        USER
+    }
+
+    public enum TableOperation {
+        USER_POINT_SELECT("user_point", "select"),
+        USER_POINT_INSERT_OR_UPDATE("user_point", "insert_or_update"),
+        POINT_HISTORY_INSERT("point_history", "insert"),
+        POINT_HISTORY_SELECT_ALL("point_history", "select_all");
+
+        private final String table;
+        private final String operation;
+
+        TableOperation(String table, String operation) {
+            this.table = table;
+            this.operation = operation;
+        }
+    }
+
+    private final Timer[] operationTimers;
+    private final Timer[] tableTimers;
+    private final Timer lockWaitTimer;
+    private final Timer lockHoldTimer;
+    private final Counter[] rejectionCounters;
+    private final Counter[] historyRecordCounters;
+    private final Counter optimisticCommitCounter;
+    private final Counter optimisticConflictCounter;
+    private final Counter optimisticExhaustedCounter;
+    private final Counter idempotentReplayCounter;
+    private final Counter[] admissionRejectionCounters;
+    private final Counter streamConflatedCounter;
+    private final Counter streamDroppedCounter;
+    private final PointContentionProfiler pointContentionProfiler;
+
+    public PointMetrics(MeterRegistry registry, PointContentionProfiler pointContentionProfiler) {
+        this.pointContentionProfiler = pointContentionProfiler;
+
+        operationTimers = new Timer[Operation.values().length];
+        for (Operation operation : Operation.values()) {
+            operationTimers[operation.ordinal()] = timer("point.operation", registry, "operation", tagValue(operation));
+        }
+
+        tableTimers = new Timer[TableOperation.values().length];
+        for (TableOperation operation : TableOperation.values()) {
+            tableTimers[operation.ordinal()] = timer("point.table", registry,
+                    "table", operation.table, "operation", operation.operation);
+        }
+
+        lockWaitTimer = timer("point.lock.wait", registry);
+        lockHoldTimer = timer("point.lock.hold", registry);
+
+        rejectionCounters = new Counter[PointRejectedException.Reason.values().length];
+        for (PointRejectedException.Reason reason : PointRejectedException.Reason.values()) {
+            rejectionCounters[reason.ordinal()] = Counter.builder("point.rejections")
+                    .tag("reason", tagValue(reason))
+                    .register(registry);
+        }
+
+        historyRecordCounters = new Counter[TransactionType.values().length];
+        for (TransactionType type : TransactionType.values()) {
+            historyRecordCounters[type.ordinal()] = Counter.builder("point.history.records")
+                    .tag("type", tagValue(type))
+                    .register(registry);
+        }
+
+        optimisticCommitCounter = Counter.builder("point.optimistic.commits").register(registry);
+        optimisticConflictCounter = Counter.builder("point.optimistic.conflicts").register(registry);
+        optimisticExhaustedCounter = Counter.builder("point.optimistic.exhausted").register(registry);
+        idempotentReplayCounter = Counter.builder("point.idempotency.replays").register(registry);
+
+        admissionRejectionCounters = new Counter[AdmissionScope.values().length];
+        for (AdmissionScope scope : AdmissionScope.values()) {
+            admissionRejectionCounters[scope.ordinal()] = Counter.builder("point.admission.rejections")
+                    .tag("scope", tagValue(scope))
+                    .register(registry);
+        }
+
+        streamConflatedCounter = Counter.builder("point.stream.conflated").register(registry);
+        streamDroppedCounter = Counter.builder("point.stream.dropped").register(registry);
+    }
+
+    // startNanos 는 System.nanoTime() 으로 잰 시작 시각
+    public void recordOperation(Operation operation, long startNanos) {
+        operationTimers[operation.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTable(TableOperation operation, long startNanos) {
+        tableTimers[operation.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // 유저별 요청 수, weight 는 요청 건수 (일괄 처리)
+    public void recordRequest(long userId, int weight) {
+        pointContentionProfiler.record(PointContentionProfiler.Dimension.REQUESTS, userId, weight);
+    }
+
+    public void recordLockWait(long userId, long nanos) {
+        lockWaitTimer.record(nanos, TimeUnit.NANOSECONDS);
+        pointContentionProfiler.record(PointContentionProfiler.Dimension.LOCK_WAIT_MICROS, userId, TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    public void recordLockHold(long nanos) {
+        lockHoldTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRejection(long userId, PointRejectedException.Reason reason) {
+        rejectionCounters[reason.ordinal()].increment();
+        pointContentionProfiler.record(PointContentionProfiler.Dimension.REJECTIONS, userId, 1);
+    }
+
+    public void recordHistory(TransactionType type) {
+        historyRecordCounters[type.ordinal()].increment();
+    }
+
+    public void recordOptimisticCommit() {
+        optimisticCommitCounter.increment();
+    }
+
+    public void recordOptimisticConflict() {
+        optimisticConflictCounter.increment();
+    }
+
+    public void recordOptimisticExhausted() {
+        optimisticExhaustedCounter.increment();
+    }
+
+    // Idempotency-Key 가 같아 실행하지 않고 처음 요청의 결과를 반환한 요청
+    public void recordIdempotentReplay() {
+        idempotentReplayCounter.increment();
+    }
+
+    // 처리 한도를 넘어 429 로 실패한 요청
+    public void recordAdmissionRejection(long userId, AdmissionScope scope) {
+        admissionRejectionCounters[scope.ordinal()].increment();
+        pointContentionProfiler.record(PointContentionProfiler.Dimension.REJECTIONS, userId, 1);
+    }
+
+    // 구독자에게 내려보내기 전에 더 최근 포인트로 대체된 알림
+    public void recordStreamConflated() {
+        streamConflatedCounter.increment();
+    }
+
+    // 내려보내는 데 오래 걸려 끊은 구독
+    public void recordStreamDropped() {
+        streamDroppedCounter.increment();
+    }
+
+    // p50/p99 는 /actuator/metrics 에서 바로 확인할 수 있도록, 히스토그램은 prometheus 에서 집계할 수 있도록 함께 노출한다.
+    private static Timer timer(String name, MeterRegistry registry, String... tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,26 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 충전/사용 요청이 검증에 실패했을 때 발생하는 예외
+ * 응답은 기존과 같이 IllegalArgumentException(400)으로 처리되고, reason 은 실패 사유별 집계에 사용된다.
+ */
+public class PointRejectedException extends IllegalArgumentException {
+
+    public enum Reason {
+        INVALID_AMOUNT,
+        CAP_EXCEEDED,
+        INSUFFICIENT_BALANCE,
+        INVALID_TYPE
+    }
+
+    private final Reason reason;
+
+    public PointRejectedException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason reason() {
+        return reason;
+    }
+}
@@ -1,89 +1,322 @@
 package io.hhplus.tdd.point;
 
-import io.hhplus.tdd.database.PointHistoryTable;
-import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.database.PointHistoryOutbox;
+import io.hhplus.tdd.database.PointLedger;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.database.wal.PointWriteAheadLog;
+import io.hhplus.tdd.point.executor.PointCommandCoalescer;
+import io.hhplus.tdd.point.executor.OptimisticPointUpdater;
+import io.hhplus.tdd.point.executor.PointCommandExecutor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 @RequiredArgsConstructor
 public class PointService {
-    private final UserPointTable userPointTable;
-    private final PointHistoryTable pointHistoryTable;
+    public static final int MAX_HISTORY_PAGE_SIZE = 1_000;
 
-    private final Lock lock = new ReentrantLock();
+    private final UserPointRepository userPointRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final PointHistoryOutbox pointHistoryOutbox;
+    private final PointLedger pointLedger;
+    private final PointCommandExecutor pointCommandExecutor;
+    private final PointCommandCoalescer pointCommandCoalescer;
+    private final OptimisticPointUpdater optimisticPointUpdater;
+    private final PointWriteAheadLog pointWriteAheadLog;
+    private final PointMetrics pointMetrics;
 
     // 특정 유저의 포인트를 충전하는 기능
     public UserPoint chargeUserPoint(long userId, long amount) {
 
-        lock.lock();
+        return join(chargeUserPointAsync(userId, amount));
+    }
+
+    public CompletableFuture<UserPoint> chargeUserPointAsync(long userId, long amount) {
+
+        long start = System.nanoTime();
+
+        return applyAsync(PointCommand.charge(userId, amount))
+                .whenComplete((userPoint, e) -> pointMetrics.recordOperation(PointMetrics.Operation.CHARGE, start));
+    }
+
+    // 특정 유저의 포인트를 조회하는 기능
+    public UserPoint getUserPoint(long userId) {
+        long start = System.nanoTime();
+        pointMetrics.recordRequest(userId, 1);
 
         try {
-            UserPoint userPoint = userPointTable.selectById(userId);
+            return userPointRepository.findById(userId);
+        } finally {
+            pointMetrics.recordOperation(PointMetrics.Operation.GET, start);
+        }
+    }
 
-            if (amount <= 0) {
-                throw new IllegalArgumentException("충전금액은 0원 이하 일 수 없습니다.");
-            }
+    public UserPoint UseUserPoint(long userId, long amount) {
+
+        return join(useUserPointAsync(userId, amount));
+    }
+
+    public CompletableFuture<UserPoint> useUserPointAsync(long userId, long amount) {
+
+        long start = System.nanoTime();
+
+        return applyAsync(PointCommand.use(userId, amount))
+                .whenComplete((userPoint, e) -> pointMetrics.recordOperation(PointMetrics.Operation.USE, start));
+    }
+
+    // fromId 유저의 포인트를 toId 유저에게 보내는 기능
+    public PointTransfer transfer(long fromId, long toId, long amount) {
+
+        return join(transferAsync(fromId, toId, amount));
+    }
+
+    /**
+     * 보내는 유저의 사용과 받는 유저의 충전을 하나의 직렬화된 구간에서 함께 검증/반영한다.
+     * 둘 중 하나라도 실패하면(잔액 부족, 1_000_000 한도 초과 등) 어느 쪽도 반영하지 않는다.
+     * 두 유저는 항상 userId 순서로 직렬화되므로(PointCommandExecutor) 반대 방향 전송이 겹쳐도 교착 상태가 없고,
+     * 전체 락 없이 서로 다른 유저 쌍의 전송은 병렬로 처리된다.
+     */
+    public CompletableFuture<PointTransfer> transferAsync(long fromId, long toId, long amount) {
+
+        if (fromId == toId) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("자기 자신에게 포인트를 보낼 수 없습니다."));
+        }
 
-            if (userPoint.point() + amount >= 1_000_000) {
-                throw new IllegalArgumentException("충전 결과값이 1_000_000원을 넘을 수 없습니다.");
+        // 낙관적 변경은 유저 한 명의 버전만 비교/교체할 수 있어, 두 유저를 함께 반영할 수 없다.
+        if (optimisticPointUpdater.isEnabled()) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("낙관적 변경(point.execution.optimistic.enabled)을 사용하면 포인트를 보낼 수 없습니다."));
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<PointTransfer> transfer =
+                pointCommandExecutor.execute(fromId, toId, () -> transferWithLock(fromId, toId, amount));
+
+        return durable(transfer)
+                .whenComplete((pointTransfer, e) -> pointMetrics.recordOperation(PointMetrics.Operation.TRANSFER, start));
+    }
+
+    // 한 유저의 여러 요청을 한 번의 직렬화된 구간에서 순서대로 처리한다. 실패한 요청은 결과에만 담긴다.
+    // 낙관적 변경을 사용하면 직렬화 없이 호출한 스레드에서 바로 처리한다.
+    public CompletableFuture<List<PointCommandResult>> applyCommandsAsync(long userId, List<PointCommand> commands) {
+
+        if (optimisticPointUpdater.isEnabled()) {
+            try {
+                return durable(CompletableFuture.completedFuture(apply(userId, commands)));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
             }
+        }
 
-            userPoint = userPointTable.insertOrUpdate(userId, userPoint.point() + amount);
+        return durable(pointCommandExecutor.execute(userId, () -> apply(userId, commands)));
+    }
+
+    public List<PointHistory> getUserPointHistory(long userId) {
+        long start = System.nanoTime();
+        pointMetrics.recordRequest(userId, 1);
 
-            pointHistoryTable.insert(userId, amount, TransactionType.CHARGE, userPoint.updateMillis());
+        // 아직 outbox 에 남아있는 내역까지 기록된 뒤 조회한다.
+        pointHistoryOutbox.flush(userId);
 
-            return userPoint;
+        List<PointHistory> histories = pointHistoryRepository.findAllByUserId(userId);
+        pointMetrics.recordOperation(PointMetrics.Operation.HISTORY, start);
 
+        if (histories.isEmpty()) {
+            throw new IllegalArgumentException("포인트 내역 결과가 없습니다.");
+        }
+
+        return histories;
+    }
+
+    // 충전/사용/만료 합계, 내역이 없으면 모두 0 인 합계를 반환한다.
+    public PointSummary getUserPointSummary(long userId) {
+        long start = System.nanoTime();
+        pointMetrics.recordRequest(userId, 1);
+
+        // 아직 outbox 에 남아있는 내역까지 합계에 반영된 뒤 조회한다.
+        pointHistoryOutbox.flush(userId);
+
+        try {
+            return pointHistoryRepository.findSummaryByUserId(userId);
         } finally {
-            lock.unlock();
+            pointMetrics.recordOperation(PointMetrics.Operation.SUMMARY, start);
         }
     }
 
-    // 특정 유저의 포인트를 조회하는 기능
-    public UserPoint getUserPoint(long userId) {
+    // cursor(PointHistory.id) 이후의 내역을 최대 limit 건 조회한다.
+    public List<PointHistory> getUserPointHistory(long userId, long cursor, int limit) {
+
+        if (limit < 1 || limit > MAX_HISTORY_PAGE_SIZE) {
+            throw new IllegalArgumentException("조회 개수는 1 이상 " + MAX_HISTORY_PAGE_SIZE + " 이하여야 합니다.");
+        }
+
+        long start = System.nanoTime();
+        pointMetrics.recordRequest(userId, 1);
+        pointHistoryOutbox.flush(userId);
 
-        return userPointTable.selectById(userId);
+        List<PointHistory> histories = pointHistoryRepository.findAllByUserIdAfter(userId, cursor, limit);
+        pointMetrics.recordOperation(PointMetrics.Operation.HISTORY, start);
+
+        // 첫 페이지가 비어있으면 전체 조회와 같이 실패로 처리한다.
+        if (cursor <= 0 && histories.isEmpty()) {
+            throw new IllegalArgumentException("포인트 내역 결과가 없습니다.");
+        }
+
+        return histories;
     }
 
-    public UserPoint UseUserPoint(long userId, long amount) {
+    /**
+     * [fromMillis, toMillis) 사이의 내역을 시각 순으로 조회한다. type 이 null 이면 모든 종류를 조회한다.
+     * 기간 안에 내역이 없으면 빈 목록을 반환한다.
+     */
+    public List<PointHistory> getUserPointHistoryBetween(long userId, long fromMillis, long toMillis, TransactionType type) {
 
-        lock.lock();
+        if (fromMillis > toMillis) {
+            throw new IllegalArgumentException("조회 시작 시각은 종료 시각보다 늦을 수 없습니다.");
+        }
+
+        long start = System.nanoTime();
+        pointMetrics.recordRequest(userId, 1);
+        pointHistoryOutbox.flush(userId);
 
         try {
-            UserPoint userPoint = userPointTable.selectById(userId);
+            return pointHistoryRepository.findAllByUserIdBetween(userId, fromMillis, toMillis, type);
+        } finally {
+            pointMetrics.recordOperation(PointMetrics.Operation.HISTORY, start);
+        }
+    }
+
+    private CompletableFuture<UserPoint> applyAsync(PointCommand command) {
 
-            if (amount <= 0) {
-                throw new IllegalArgumentException("사용금액이 0원 이하 일 수 없습니다.");
+        // group commit 을 사용하면 같은 유저에게 동시에 들어온 요청과 함께 처리된다.
+        if (pointCommandCoalescer.isEnabled()) {
+            return durable(pointCommandCoalescer.submit(command, this::apply))
+                    .thenApply(PointCommandResult::getOrThrow);
+        }
+
+        return applyCommandsAsync(command.userId(), List.of(command))
+                .thenApply(results -> results.get(0).getOrThrow());
+    }
+
+    // 충전/사용 요청은 group commit, 낙관적 변경과 관계없이 모두 여기를 지나므로 유저별 요청 수도 여기서 센다.
+    private List<PointCommandResult> apply(long userId, List<PointCommand> commands) {
+        pointMetrics.recordRequest(userId, commands.size());
+
+        List<PointCommandResult> results = optimisticPointUpdater.isEnabled()
+                ? optimisticPointUpdater.apply(userId, commands, PointService::evaluate)
+                : applyWithLock(userId, commands);
+
+        for (PointCommandResult result : results) {
+            if (result.error() instanceof PointRejectedException rejected) {
+                pointMetrics.recordRejection(userId, rejected.reason());
             }
+        }
 
-            if (userPoint.point() < amount) {
-                throw new IllegalArgumentException("잔액이 부족합니다.");
+        return results;
+    }
+
+    // PointCommandExecutor 안에서 실행되므로 같은 유저에 대해 동시에 실행되지 않는다.
+    // 포인트는 한 번 읽어 요청을 순서대로 검증/반영한 뒤 최종 값만 한 번 저장하고(PointLedger),
+    // 내역은 outbox 에만 쌓고 바로 반환하므로 직렬화된 구간은 포인트 조회/저장 시간만큼만 유지된다.
+    private List<PointCommandResult> applyWithLock(long userId, List<PointCommand> commands) {
+        UserPoint userPoint = userPointRepository.findById(userId);
+
+        List<PointCommandResult> results = evaluate(userPoint, commands);
+
+        UserPoint updated = null;
+        for (PointCommandResult result : results) {
+            if (result.isSuccess()) {
+                updated = result.userPoint();
             }
+        }
 
-            userPoint = userPointTable.insertOrUpdate(userId, userPoint.point() - amount);
+        if (updated == null) {
+            return results;
+        }
 
-            pointHistoryTable.insert(userId, amount, TransactionType.USE, userPoint.updateMillis());
+        List<PointCommandResult> succeeded = results.stream().filter(PointCommandResult::isSuccess).toList();
+        UserPoint saved = pointLedger.record(userId, updated.point(), succeeded);
 
-            return userPoint;
-        } finally {
-            lock.unlock();
+        List<PointCommandResult> committed = new ArrayList<>(results.size());
+        for (PointCommandResult result : results) {
+            if (!result.isSuccess()) {
+                committed.add(result);
+                continue;
+            }
+
+            committed.add(PointCommandResult.success(result.command(),
+                    new UserPoint(userId, result.userPoint().point(), saved.updateMillis())));
         }
+
+        return committed;
     }
 
-    public List<PointHistory> getUserPointHistory(long userId) {
+    // 두 유저 모두에 대해 직렬화된 구간 안에서 실행된다. 두 유저를 모두 검증한 뒤에 저장한다.
+    private PointTransfer transferWithLock(long fromId, long toId, long amount) {
+        PointCommand use = PointCommand.use(fromId, amount);
+        PointCommand charge = PointCommand.charge(toId, amount);
+        pointMetrics.recordRequest(fromId, 1);
+        pointMetrics.recordRequest(toId, 1);
 
-        List<PointHistory> histories = pointHistoryTable.selectAllByUserId(userId);
+        UserPoint from;
+        UserPoint to;
+        try {
+            from = use.applyTo(userPointRepository.findById(fromId));
+        } catch (PointRejectedException e) {
+            pointMetrics.recordRejection(fromId, e.reason());
+            throw e;
+        }
+        try {
+            to = charge.applyTo(userPointRepository.findById(toId));
+        } catch (PointRejectedException e) {
+            pointMetrics.recordRejection(toId, e.reason());
+            throw e;
+        }
 
-        if (histories.isEmpty()) {
-            throw new IllegalArgumentException("포인트 내역 결과가 없습니다.");
+        return pointLedger.transfer(PointCommandResult.success(use, from), PointCommandResult.success(charge, to));
+    }
+
+    // WAL 을 사용하면 결과를 돌려주기 전에 WAL 이 디스크에 내려가기를 기다린다.
+    // 유저 락 밖에서 기다리므로, 그동안 다른 요청의 레코드가 쌓여 한 번에 내려간다.
+    private <T> CompletableFuture<T> durable(CompletableFuture<T> future) {
+        if (!pointWriteAheadLog.isEnabled()) {
+            return future;
         }
 
-        return histories;
+        return future.thenCompose(result -> pointWriteAheadLog.syncAppended().thenApply(ignored -> result));
+    }
+
+    // userPoint 에서 요청을 순서대로 검증/반영한 결과, 성공한 요청에는 반영 직후의 포인트를 담는다.
+    private static List<PointCommandResult> evaluate(UserPoint userPoint, List<PointCommand> commands) {
+        List<PointCommandResult> results = new ArrayList<>(commands.size());
+
+        for (PointCommand command : commands) {
+            try {
+                userPoint = command.applyTo(userPoint);
+                results.add(PointCommandResult.success(command, userPoint));
+            } catch (IllegalArgumentException e) {
+                results.add(PointCommandResult.failure(command, e));
+            }
+        }
+
+        return results;
     }
 
+    // 동기 호출에서는 CompletionException 을 벗겨 원래 예외(IllegalArgumentException 등)를 그대로 던진다.
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
 }
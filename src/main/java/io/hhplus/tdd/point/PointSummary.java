@@ -0,0 +1,22 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 한 유저의 충전/사용/만료 합계
+ * 내역이 기록될 때마다 함께 갱신되므로, 조회 시 내역을 다시 훑지 않는다. (PointHistoryRepository)
+ * 조회할 수 있는 내역의 합계이므로, WAL 을 사용하면 재시작 후에는 마지막 스냅샷 이후의 내역만 합산된다.
+ */
+public record PointSummary(
+        long userId,
+        long totalCharged,
+        long totalUsed,
+        long totalExpired,
+        long chargeCount,
+        long useCount,
+        long expireCount,
+        long lastActivityMillis
+) {
+
+    public static PointSummary empty(long userId) {
+        return new PointSummary(userId, 0, 0, 0, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 전송 결과
+ * 보낸 유저와 받은 유저의 전송 후 포인트를 담는다.
+ */
+public record PointTransfer(
+        UserPoint from,
+        UserPoint to
+) {
+}
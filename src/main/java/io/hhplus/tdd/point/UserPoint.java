@@ -9,4 +9,43 @@ public record UserPoint(
     public static UserPoint empty(long id) {
         return new UserPoint(id, 0, System.currentTimeMillis());
     }
+
+    // 충전 후의 포인트, 충전할 수 없으면 IllegalArgumentException
+    public UserPoint charge(long amount) {
+        if (amount <= 0) {
+            throw new PointRejectedException(PointRejectedException.Reason.INVALID_AMOUNT, "충전금액은 0원 이하 일 수 없습니다.");
+        }
+
+        if (point + amount >= 1_000_000) {
+            throw new PointRejectedException(PointRejectedException.Reason.CAP_EXCEEDED, "충전 결과값이 1_000_000원을 넘을 수 없습니다.");
+        }
+
+        return new UserPoint(id, point + amount, updateMillis);
+    }
+
+    // 사용 후의 포인트, 사용할 수 없으면 IllegalArgumentException
+    public UserPoint use(long amount) {
+        if (amount <= 0) {
+            throw new PointRejectedException(PointRejectedException.Reason.INVALID_AMOUNT, "사용금액이 0원 이하 일 수 없습니다.");
+        }
+
+        if (point < amount) {
+            throw new PointRejectedException(PointRejectedException.Reason.INSUFFICIENT_BALANCE, "잔액이 부족합니다.");
+        }
+
+        return new UserPoint(id, point - amount, updateMillis);
+    }
+
+    // 만료 후의 포인트, 만료할 포인트는 잔액을 넘을 수 없다.
+    public UserPoint expire(long amount) {
+        if (amount <= 0) {
+            throw new PointRejectedException(PointRejectedException.Reason.INVALID_AMOUNT, "만료금액이 0원 이하 일 수 없습니다.");
+        }
+
+        if (point < amount) {
+            throw new PointRejectedException(PointRejectedException.Reason.INSUFFICIENT_BALANCE, "잔액이 부족합니다.");
+        }
+
+        return new UserPoint(id, point - amount, updateMillis);
+    }
 }
@@ -0,0 +1,150 @@
+package io.hhplus.tdd.point.bulk;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * 길이가 앞에 붙은 레코드로 쓰는 binary 형식 (big endian)
+ * header : magic(4) | version(4)
+ * record : length(4) | kind(1) | fields (length 는 kind 부터의 byte 수)
+ * - P : userId(8) | point(8) | updateMillis(8)
+ * - H : userId(8) | id(8) | type ordinal(1) | amount(8) | updateMillis(8)
+ * 모르는 kind 의 레코드는 length 만큼 건너뛰므로, 레코드 종류를 더해도 이전 버전이 읽을 수 있다.
+ */
+final class BinaryPointBulkCodec implements PointBulkCodec {
+
+    private static final int MAGIC = 0x50424C4B; // "PBLK"
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final byte POINT = 'P';
+    private static final byte HISTORY = 'H';
+    private static final int POINT_LENGTH = 1 + 8 * 3;
+    private static final int HISTORY_LENGTH = 1 + 8 * 2 + 1 + 8 * 2;
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    @Override
+    public PointBulkCodec.Writer writer(OutputStream outputStream) {
+        return new BinaryWriter(new DataOutputStream(new BufferedOutputStream(outputStream, BUFFER_SIZE)));
+    }
+
+    @Override
+    public void read(InputStream inputStream, Visitor visitor) {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream, BUFFER_SIZE));
+        long record = 0;
+
+        try {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IllegalArgumentException("가져올 데이터의 형식이 올바르지 않습니다. (header)");
+            }
+
+            while (true) {
+                int length;
+                try {
+                    length = input.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                record++;
+
+                if (length < 1) {
+                    throw malformed(record);
+                }
+
+                byte kind = input.readByte();
+                if (kind == POINT && length == POINT_LENGTH) {
+                    visitor.point(input.readLong(), input.readLong(), input.readLong());
+                } else if (kind == HISTORY && length == HISTORY_LENGTH) {
+                    long userId = input.readLong();
+                    long id = input.readLong();
+                    int type = input.readUnsignedByte();
+                    if (type >= TYPES.length) {
+                        throw malformed(record);
+                    }
+                    visitor.history(new PointHistory(id, userId, input.readLong(), TYPES[type], input.readLong()));
+                } else if (kind == POINT || kind == HISTORY) {
+                    throw malformed(record);
+                } else {
+                    input.skipNBytes(length - 1);
+                }
+            }
+        } catch (EOFException e) {
+            throw new IllegalArgumentException("가져올 데이터가 레코드 중간에 끝났습니다. record=" + record, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static IllegalArgumentException malformed(long record) {
+        return new IllegalArgumentException("가져올 데이터의 형식이 올바르지 않습니다. record=" + record);
+    }
+
+    private static final class BinaryWriter implements PointBulkCodec.Writer {
+        private final DataOutputStream output;
+        private boolean headerWritten;
+
+        private BinaryWriter(DataOutputStream output) {
+            this.output = output;
+        }
+
+        @Override
+        public void write(UserPoint userPoint) {
+            try {
+                header();
+                output.writeInt(POINT_LENGTH);
+                output.writeByte(POINT);
+                output.writeLong(userPoint.id());
+                output.writeLong(userPoint.point());
+                output.writeLong(userPoint.updateMillis());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void write(PointHistory pointHistory) {
+            try {
+                header();
+                output.writeInt(HISTORY_LENGTH);
+                output.writeByte(HISTORY);
+                output.writeLong(pointHistory.userId());
+                output.writeLong(pointHistory.id());
+                output.writeByte(pointHistory.type().ordinal());
+                output.writeLong(pointHistory.amount());
+                output.writeLong(pointHistory.updateMillis());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void flush() {
+            try {
+                header();
+                output.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void header() throws IOException {
+            if (!headerWritten) {
+                headerWritten = true;
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+            }
+        }
+    }
+}
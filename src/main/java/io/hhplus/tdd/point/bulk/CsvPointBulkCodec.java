@@ -0,0 +1,276 @@
+package io.hhplus.tdd.point.bulk;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 한 줄에 레코드 하나를 쓰는 CSV
+ * P,userId,point,updateMillis
+ * H,userId,id,type,amount,updateMillis
+ * '#' 로 시작하는 줄과 빈 줄은 건너뛴다. 가져올 때 내역의 id 는 읽기만 하고 새로 매긴다.
+ * 레코드마다 문자열을 만들지 않도록 숫자는 byte 단위로 직접 쓰고 읽는다.
+ */
+final class CsvPointBulkCodec implements PointBulkCodec {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte[] HEADER = ("# P,userId,point,updateMillis\n"
+            + "# H,userId,id,type,amount,updateMillis\n").getBytes(StandardCharsets.US_ASCII);
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final byte[][] TYPE_NAMES = new byte[TYPES.length][];
+
+    static {
+        for (TransactionType type : TYPES) {
+            TYPE_NAMES[type.ordinal()] = type.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    @Override
+    public PointBulkCodec.Writer writer(OutputStream outputStream) {
+        return new CsvWriter(outputStream);
+    }
+
+    @Override
+    public void read(InputStream inputStream, Visitor visitor) {
+        new CsvReader(inputStream).read(visitor);
+    }
+
+    private static final class CsvWriter implements PointBulkCodec.Writer {
+        private final OutputStream outputStream;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+        private boolean headerWritten;
+
+        private CsvWriter(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public void write(UserPoint userPoint) {
+            header();
+            ensure(64);
+            buffer[position++] = 'P';
+            field(userPoint.id());
+            field(userPoint.point());
+            field(userPoint.updateMillis());
+            buffer[position++] = '\n';
+        }
+
+        @Override
+        public void write(PointHistory pointHistory) {
+            header();
+            ensure(96);
+            buffer[position++] = 'H';
+            field(pointHistory.userId());
+            field(pointHistory.id());
+            buffer[position++] = ',';
+            byte[] typeName = TYPE_NAMES[pointHistory.type().ordinal()];
+            System.arraycopy(typeName, 0, buffer, position, typeName.length);
+            position += typeName.length;
+            field(pointHistory.amount());
+            field(pointHistory.updateMillis());
+            buffer[position++] = '\n';
+        }
+
+        @Override
+        public void flush() {
+            header();
+            drain();
+            try {
+                outputStream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void header() {
+            if (!headerWritten) {
+                headerWritten = true;
+                ensure(HEADER.length);
+                System.arraycopy(HEADER, 0, buffer, position, HEADER.length);
+                position += HEADER.length;
+            }
+        }
+
+        // ',' 와 10진수 (부호 포함 최대 20자)
+        private void field(long value) {
+            buffer[position++] = ',';
+            if (value < 0) {
+                buffer[position++] = '-';
+            }
+
+            int start = position;
+            long remaining = value;
+            do {
+                buffer[position++] = (byte) ('0' + Math.abs(remaining % 10));
+                remaining /= 10;
+            } while (remaining != 0);
+
+            // 낮은 자리부터 썼으므로 뒤집는다.
+            for (int i = start, j = position - 1; i < j; i++, j--) {
+                byte digit = buffer[i];
+                buffer[i] = buffer[j];
+                buffer[j] = digit;
+            }
+        }
+
+        private void ensure(int size) {
+            if (position + size > buffer.length) {
+                drain();
+            }
+        }
+
+        private void drain() {
+            try {
+                outputStream.write(buffer, 0, position);
+                position = 0;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static final class CsvReader {
+        private static final int EOF = -1;
+        private static final int MAX_TYPE_LENGTH = 16;
+
+        private final InputStream inputStream;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private final byte[] typeName = new byte[MAX_TYPE_LENGTH];
+        private int position;
+        private int limit;
+        private long line;
+
+        private CsvReader(InputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        private void read(Visitor visitor) {
+            int first;
+            while ((first = next()) != EOF) {
+                line++;
+
+                if (first == '\n') {
+                    continue;
+                }
+                if (first == '\r' || first == '#') {
+                    skipLine();
+                    continue;
+                }
+
+                if (first == 'P') {
+                    comma();
+                    long userId = number(',');
+                    long point = number(',');
+                    long updateMillis = number('\n');
+                    visitor.point(userId, point, updateMillis);
+                } else if (first == 'H') {
+                    comma();
+                    long userId = number(',');
+                    long id = number(',');
+                    TransactionType type = type();
+                    long amount = number(',');
+                    long updateMillis = number('\n');
+                    visitor.history(new PointHistory(id, userId, amount, type, updateMillis));
+                } else {
+                    throw malformed();
+                }
+            }
+        }
+
+        private void comma() {
+            if (next() != ',') {
+                throw malformed();
+            }
+        }
+
+        // 숫자 하나를 읽고 terminator 까지 소비한다. 줄의 끝('\n')에는 "\r\n" 과 파일의 끝도 포함한다.
+        private long number(char terminator) {
+            int c = next();
+            boolean negative = c == '-';
+            if (negative) {
+                c = next();
+            }
+
+            long value = 0;
+            int digits = 0;
+            while (c >= '0' && c <= '9') {
+                // 19자리부터는 long 을 넘을 수 있으므로 받지 않는다.
+                if (++digits > 18) {
+                    throw malformed();
+                }
+                value = value * 10 + (c - '0');
+                c = next();
+            }
+
+            if (digits == 0 || !terminates(c, terminator)) {
+                throw malformed();
+            }
+
+            return negative ? -value : value;
+        }
+
+        private TransactionType type() {
+            int length = 0;
+            int c;
+            while ((c = next()) != ',') {
+                if (c == EOF || c == '\n' || length == MAX_TYPE_LENGTH) {
+                    throw malformed();
+                }
+                typeName[length++] = (byte) c;
+            }
+
+            for (TransactionType type : TYPES) {
+                byte[] name = TYPE_NAMES[type.ordinal()];
+                if (name.length == length && Arrays.equals(name, 0, length, typeName, 0, length)) {
+                    return type;
+                }
+            }
+            throw malformed();
+        }
+
+        private boolean terminates(int c, char terminator) {
+            if (terminator != '\n') {
+                return c == terminator;
+            }
+            if (c == '\r') {
+                c = next();
+            }
+            return c == '\n' || c == EOF;
+        }
+
+        private void skipLine() {
+            int c;
+            do {
+                c = next();
+            } while (c != '\n' && c != EOF);
+        }
+
+        private int next() {
+            if (position == limit) {
+                try {
+                    limit = inputStream.read(buffer, 0, buffer.length);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return EOF;
+                }
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        private IllegalArgumentException malformed() {
+            return new IllegalArgumentException("가져올 데이터의 형식이 올바르지 않습니다. line=" + line);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package io.hhplus.tdd.point.bulk;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.UserPoint;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 내보내기/가져오기 데이터의 형식
+ * 포인트 레코드(P)와 내역 레코드(H)를 한 스트림에 담는다. 내보낼 때는 유저마다 포인트 다음에 그 유저의 내역을 id 순으로 쓴다.
+ * 쓰기와 읽기 모두 레코드 단위로 바로 처리하므로, 데이터 전체를 메모리에 담지 않는다.
+ * 입출력 오류는 UncheckedIOException, 형식이 올바르지 않은 데이터는 IllegalArgumentException 으로 실패한다.
+ */
+public interface PointBulkCodec {
+
+    Writer writer(OutputStream outputStream);
+
+    // 레코드를 읽는 순서대로 visitor 에 넘긴다.
+    void read(InputStream inputStream, Visitor visitor);
+
+    interface Writer {
+        void write(UserPoint userPoint);
+
+        void write(PointHistory pointHistory);
+
+        void flush();
+    }
+
+    interface Visitor {
+        void point(long userId, long point, long updateMillis);
+
+        void history(PointHistory pointHistory);
+    }
+}
@@ -0,0 +1,50 @@
+package io.hhplus.tdd.point.bulk;
+
+import io.hhplus.tdd.dto.res.PointBulkResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admin/points")
+public class PointBulkController {
+
+    private final PointBulkService pointBulkService;
+
+    /**
+     * 모든 유저의 포인트와 내역을 format(CSV, BINARY)으로 내려줍니다.
+     * 유저마다 포인트와 내역을 읽는 대로 바로 쓰기 때문에 데이터가 많아도 메모리 사용량이 늘지 않습니다.
+     * 모든 유저를 순회할 수 없는 저장소(point.store.mode=table, WAL 미사용)에서는 400 으로 실패합니다.
+     */
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(name = "format", defaultValue = "CSV") PointBulkFormat format
+    ) {
+        // 스트림을 시작하기 전에 확인하여, 내보낼 수 없으면 실패 응답을 내려준다.
+        pointBulkService.checkExportable();
+
+        StreamingResponseBody body = outputStream -> pointBulkService.export(outputStream, format);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.mediaType()))
+                .body(body);
+    }
+
+    /**
+     * 요청 본문의 포인트와 내역을 format(CSV, BINARY)으로 읽어 반영합니다.
+     * 본문을 읽는 대로 userId 별로 나누어 병렬로 반영하므로, 본문 전체를 메모리에 담지 않습니다.
+     * 포인트는 가져온 값으로 바뀌고, 내역은 기존 내역 뒤에 새 id 로 더해집니다.
+     */
+    @PostMapping("import")
+    public PointBulkResponse importPoints(
+            @RequestParam(name = "format", defaultValue = "CSV") PointBulkFormat format,
+            InputStream body
+    ) {
+        return PointBulkResponse.from(pointBulkService.importFrom(body, format));
+    }
+}
@@ -0,0 +1,27 @@
+package io.hhplus.tdd.point.bulk;
+
+/**
+ * 내보내기/가져오기 형식
+ * - CSV : 사람이 읽고 고칠 수 있는 텍스트 (text/csv)
+ * - BINARY : 길이가 앞에 붙은 고정 크기 레코드, CSV 보다 작고 파싱 비용이 거의 없다. (application/octet-stream)
+ */
+public enum PointBulkFormat {
+    CSV("text/csv", new CsvPointBulkCodec()),
+    BINARY("application/octet-stream", new BinaryPointBulkCodec());
+
+    private final String mediaType;
+    private final PointBulkCodec codec;
+
+    PointBulkFormat(String mediaType, PointBulkCodec codec) {
+        this.mediaType = mediaType;
+        this.codec = codec;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public PointBulkCodec codec() {
+        return codec;
+    }
+}
@@ -0,0 +1,12 @@
+package io.hhplus.tdd.point.bulk;
+
+/**
+ * 내보내기/가져오기 결과
+ * points : 포인트 수 (가져오기에서는 같은 유저의 포인트 레코드가 이어지면 하나로 센다), histories : 내역 수
+ */
+public record PointBulkResult(
+        long points,
+        long histories,
+        long elapsedMillis
+) {
+}
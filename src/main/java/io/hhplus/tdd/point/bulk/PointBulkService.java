@@ -0,0 +1,348 @@
+package io.hhplus.tdd.point.bulk;
+
+import io.hhplus.tdd.database.PointHistoryOutbox;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.PointLedger;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.database.wal.PointSnapshotter;
+import io.hhplus.tdd.database.wal.PointWriteAheadLog;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.executor.OptimisticPointUpdater;
+import io.hhplus.tdd.point.executor.PointCommandExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * 모든 유저의 포인트와 내역을 내보내고 가져온다. (마이그레이션, 정산 대사용)
+ * - 내보내기 : 유저를 하나씩 순회하며 포인트와 내역을 바로 쓴다. 순회 중에도 충전/사용은 막지 않는다.
+ * - 가져오기 : 레코드를 읽는 대로 userId 로 lane 에 나누고, lane 마다 batch-size 건씩 모아 lane 들이 병렬로 반영한다.
+ *   한 유저는 항상 같은 lane 에서 읽은 순서대로 반영되고, 반영은 충전/사용과 같은 직렬화된 구간(PointCommandExecutor)에서 한다.
+ *   lane 의 대기열이 가득 차면 읽기를 멈추므로, 메모리에는 lanes * (queue-size + 2) 개 batch 만큼의 레코드만 남는다.
+ * 가져오기는 한 번에 반영되지 않는다. 중간에 실패하면 그 전까지 반영된 레코드는 남는다.
+ */
+@Service
+public class PointBulkService {
+
+    private static final Logger log = LoggerFactory.getLogger(PointBulkService.class);
+
+    private final UserPointRepository userPointRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final PointHistoryOutbox pointHistoryOutbox;
+    private final PointLedger pointLedger;
+    private final PointCommandExecutor pointCommandExecutor;
+    private final OptimisticPointUpdater optimisticPointUpdater;
+    private final PointWriteAheadLog pointWriteAheadLog;
+    private final PointSnapshotter pointSnapshotter;
+    private final int lanes;
+    private final int batchSize;
+    private final int queueSize;
+
+    public PointBulkService(
+            UserPointRepository userPointRepository,
+            PointHistoryRepository pointHistoryRepository,
+            PointHistoryOutbox pointHistoryOutbox,
+            PointLedger pointLedger,
+            PointCommandExecutor pointCommandExecutor,
+            OptimisticPointUpdater optimisticPointUpdater,
+            PointWriteAheadLog pointWriteAheadLog,
+            PointSnapshotter pointSnapshotter,
+            @Value("${point.bulk.lanes:16}") int lanes,
+            @Value("${point.bulk.batch-size:1000}") int batchSize,
+            @Value("${point.bulk.queue-size:4}") int queueSize
+    ) {
+        if (lanes < 1 || batchSize < 1 || queueSize < 1) {
+            throw new IllegalArgumentException("가져오기의 lane 수, batch 크기, 대기열 크기는 1 이상이어야 합니다.");
+        }
+
+        this.userPointRepository = userPointRepository;
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.pointHistoryOutbox = pointHistoryOutbox;
+        this.pointLedger = pointLedger;
+        this.pointCommandExecutor = pointCommandExecutor;
+        this.optimisticPointUpdater = optimisticPointUpdater;
+        this.pointWriteAheadLog = pointWriteAheadLog;
+        this.pointSnapshotter = pointSnapshotter;
+        this.lanes = lanes;
+        this.batchSize = batchSize;
+        this.queueSize = queueSize;
+    }
+
+    // 스트림을 시작하기 전에 호출하여, 내보낼 수 없으면 실패 응답을 내려준다.
+    public void checkExportable() {
+        if (!userPointRepository.supportsScan()) {
+            throw new IllegalArgumentException("UserPointTable 은 모든 유저를 순회할 수 없어 내보낼 수 없습니다. "
+                    + "point.store.mode=long-key 또는 point.wal.enabled=true 로 실행해주세요.");
+        }
+    }
+
+    /**
+     * 모든 유저의 포인트와 내역을 format 으로 쓴다. 유저마다 포인트 다음에 그 유저의 내역을 id 순으로 쓴다.
+     * 내역은 outbox 에 남은 내역까지 기록된 뒤에 읽으므로, 포인트에 반영된 내역이 빠지지 않는다.
+     * 내역은 PointHistoryRepository 의 인덱스에서 읽는다. 인덱스가 전체 내역을 담고 있으면 유저마다 테이블을 훑지 않으므로 유저 수에 비례한다.
+     */
+    public PointBulkResult export(OutputStream outputStream, PointBulkFormat format) {
+        checkExportable();
+
+        long start = System.nanoTime();
+        PointBulkCodec.Writer writer = format.codec().writer(outputStream);
+        long[] counts = new long[2];
+
+        userPointRepository.forEach(userPoint -> {
+            writer.write(userPoint);
+            counts[0]++;
+
+            pointHistoryOutbox.flush(userPoint.id());
+            for (PointHistory pointHistory : pointHistoryRepository.findAllByUserId(userPoint.id())) {
+                writer.write(pointHistory);
+                counts[1]++;
+            }
+        });
+        writer.flush();
+
+        PointBulkResult result = new PointBulkResult(counts[0], counts[1], elapsedMillis(start));
+        log.info("포인트를 내보냈습니다. format={}, points={}, histories={}, elapsedMillis={}",
+                format, result.points(), result.histories(), result.elapsedMillis());
+
+        return result;
+    }
+
+    /**
+     * format 으로 쓰인 포인트와 내역을 반영한다. 포인트는 가져온 값으로 바꾸고, 내역은 기존 내역 뒤에 더한다.
+     * 모든 내역이 기록된 뒤에 반환한다. WAL 을 사용하면 내역 없이 들어온 포인트도 남도록 마지막에 스냅샷을 만든다.
+     */
+    public PointBulkResult importFrom(InputStream inputStream, PointBulkFormat format) {
+        if (optimisticPointUpdater.isEnabled()) {
+            throw new IllegalArgumentException("낙관적 변경(point.execution.optimistic.enabled)을 사용하면 가져올 수 없습니다.");
+        }
+
+        long start = System.nanoTime();
+        ImportRun run = new ImportRun();
+        try {
+            format.codec().read(inputStream, run);
+            run.finish();
+        } catch (RuntimeException e) {
+            run.abort();
+            throw e;
+        }
+
+        if (pointWriteAheadLog.isEnabled()) {
+            pointSnapshotter.snapshot();
+        }
+
+        PointBulkResult result = new PointBulkResult(run.points.get(), run.histories.get(), elapsedMillis(start));
+        log.info("포인트를 가져왔습니다. format={}, points={}, histories={}, elapsedMillis={}",
+                format, result.points(), result.histories(), result.elapsedMillis());
+
+        return result;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    // 한 유저의 연속된 레코드, point 가 null 이면 내역만 들어온 것이다.
+    private static final class UserImport {
+        private final long userId;
+        private Long point;
+        private final List<PointHistory> histories = new ArrayList<>();
+
+        private UserImport(long userId) {
+            this.userId = userId;
+        }
+    }
+
+    /**
+     * 가져오기 한 번의 lane 과 읽는 중인 batch
+     * 읽기(visitor)는 요청 스레드 하나에서만 호출되고, lane 스레드는 자기 대기열의 batch 만 반영한다.
+     */
+    private final class ImportRun implements PointBulkCodec.Visitor {
+        // lane 을 끝내는 표시
+        private static final List<UserImport> END = List.of();
+
+        private final List<BlockingQueue<List<UserImport>>> queues = new ArrayList<>(lanes);
+        private final List<Thread> threads = new ArrayList<>(lanes);
+        private final List<List<UserImport>> pending = new ArrayList<>(lanes);
+        private final int[] pendingRecords = new int[lanes];
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final AtomicLong points = new AtomicLong();
+        private final AtomicLong histories = new AtomicLong();
+
+        // 마지막으로 읽은 유저, 같은 유저의 레코드가 이어지면 하나로 모은다.
+        private UserImport current;
+
+        private ImportRun() {
+            for (int i = 0; i < lanes; i++) {
+                BlockingQueue<List<UserImport>> queue = new ArrayBlockingQueue<>(queueSize);
+                Thread thread = new Thread(() -> drain(queue), "point-import-" + i);
+                thread.setDaemon(true);
+                thread.start();
+
+                queues.add(queue);
+                threads.add(thread);
+                pending.add(new ArrayList<>());
+            }
+        }
+
+        @Override
+        public void point(long userId, long point, long updateMillis) {
+            // 충전으로 만들 수 있는 잔액(UserPoint.charge)만 받는다.
+            if (point < 0 || point >= 1_000_000) {
+                throw new IllegalArgumentException("가져올 포인트는 0 이상 1_000_000 미만이어야 합니다. userId=" + userId);
+            }
+
+            target(userId).point = point;
+            recorded(userId);
+        }
+
+        @Override
+        public void history(PointHistory pointHistory) {
+            if (pointHistory.amount() <= 0) {
+                throw new IllegalArgumentException("가져올 내역의 금액은 0 보다 커야 합니다. userId=" + pointHistory.userId());
+            }
+
+            target(pointHistory.userId()).histories.add(pointHistory);
+            recorded(pointHistory.userId());
+        }
+
+        // 읽은 batch 를 모두 넘기고 lane 이 반영을 마칠 때까지 기다린다.
+        private void finish() {
+            for (int lane = 0; lane < lanes; lane++) {
+                if (!pending.get(lane).isEmpty()) {
+                    dispatch(lane);
+                }
+            }
+            close();
+
+            Throwable e = failure.get();
+            if (e != null) {
+                throw e instanceof RuntimeException runtimeException
+                        ? runtimeException
+                        : new IllegalStateException("포인트를 가져오지 못했습니다.", e);
+            }
+        }
+
+        // 읽기가 실패하면 대기 중인 batch 는 버리고 lane 을 끝낸다.
+        private void abort() {
+            failure.compareAndSet(null, new IllegalStateException("가져오기가 중단되었습니다."));
+            close();
+        }
+
+        private UserImport target(long userId) {
+            if (current == null || current.userId != userId) {
+                current = new UserImport(userId);
+                pending.get(laneOf(userId)).add(current);
+            }
+            return current;
+        }
+
+        private void recorded(long userId) {
+            int lane = laneOf(userId);
+            if (++pendingRecords[lane] >= batchSize) {
+                dispatch(lane);
+            }
+        }
+
+        private void dispatch(int lane) {
+            Throwable e = failure.get();
+            if (e != null) {
+                throw e instanceof RuntimeException runtimeException
+                        ? runtimeException
+                        : new IllegalStateException("포인트를 가져오지 못했습니다.", e);
+            }
+
+            put(lane, pending.get(lane));
+            pending.set(lane, new ArrayList<>());
+            pendingRecords[lane] = 0;
+            // 넘긴 batch 는 lane 이 반영하므로 더 이상 고치지 않는다.
+            current = null;
+        }
+
+        private void close() {
+            for (int lane = 0; lane < lanes; lane++) {
+                put(lane, END);
+            }
+            for (Thread thread : threads) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("가져오기가 중단되었습니다.", e);
+                }
+            }
+        }
+
+        // lane 은 실패한 뒤에도 대기열을 비우므로 put 이 계속 막히지 않는다.
+        private void put(int lane, List<UserImport> batch) {
+            try {
+                queues.get(lane).put(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, e);
+                throw new IllegalStateException("가져오기가 중단되었습니다.", e);
+            }
+        }
+
+        private void drain(BlockingQueue<List<UserImport>> queue) {
+            while (true) {
+                List<UserImport> batch;
+                try {
+                    batch = queue.take();
+                } catch (InterruptedException e) {
+                    failure.compareAndSet(null, e);
+                    return;
+                }
+
+                if (batch == END) {
+                    return;
+                }
+                if (failure.get() == null) {
+                    apply(batch);
+                }
+            }
+        }
+
+        /**
+         * batch 의 유저를 모두 실행기에 넘긴 뒤 한 번에 기다린다. (actor 실행기는 유저마다 병렬로 반영한다)
+         * 같은 유저는 넘긴 순서대로 실행되므로, 한 batch 에 같은 유저가 여러 번 있어도 순서가 유지된다.
+         */
+        private void apply(List<UserImport> batch) {
+            try {
+                List<CompletableFuture<PointHistory>> writes = new ArrayList<>(batch.size());
+                for (UserImport userImport : batch) {
+                    writes.add(pointCommandExecutor.execute(userImport.userId,
+                                    () -> pointLedger.imported(userImport.userId, userImport.point, userImport.histories))
+                            .thenCompose(Function.identity()));
+                }
+                CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).join();
+
+                for (UserImport userImport : batch) {
+                    if (userImport.point != null) {
+                        points.incrementAndGet();
+                    }
+                    histories.addAndGet(userImport.histories.size());
+                }
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            }
+        }
+
+        private int laneOf(long userId) {
+            return (int) Math.floorMod(userId ^ (userId >>> 32), (long) lanes);
+        }
+    }
+}
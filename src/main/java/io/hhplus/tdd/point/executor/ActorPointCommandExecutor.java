@@ -0,0 +1,192 @@
+package io.hhplus.tdd.point.executor;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 유저별 메일박스에 작업을 넣고, 메일박스마다 하나의 워커가 쌓인 작업을 연속으로 처리한다.
+ * 같은 유저의 작업은 메일박스 안에서만 실행되므로 락 없이도 순차적으로 처리되고,
+ * 호출한 스레드(Tomcat 스레드)는 작업이 끝날 때까지 기다리지 않는다.
+ * 메일박스가 비면 워커는 메일박스를 제거하고 다른 유저의 작업을 처리하러 돌아간다.
+ * 두 유저의 작업(포인트 전송)은 두 메일박스를 차례로 거쳐 두 메일박스가 모두 멈춘 상태에서 실행된다.
+ * 워커를 배정하지 못한 메일박스(종료 중)는 제거하고, 쌓여 있던 작업은 모두 실패시킨다.
+ */
+@Component
+@ConditionalOnProperty(name = "point.execution.mode", havingValue = "actor")
+public class ActorPointCommandExecutor implements PointCommandExecutor {
+
+    private final ConcurrentHashMap<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final ExecutorService workers;
+
+    public ActorPointCommandExecutor(@Value("${point.actor.workers:64}") int workers) {
+        AtomicInteger sequence = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "point-actor-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<T> execute(long userId, Supplier<T> command) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        enqueue(userId, mailbox -> {
+            complete(future, command);
+            return true;
+        }, future);
+
+        return future;
+    }
+
+    /**
+     * userId 가 작은 유저의 메일박스에서 차례가 오면, 그 메일박스를 멈춘 채로 큰 유저의 메일박스에 작업을 넘긴다.
+     * 큰 유저의 메일박스에서 차례가 오면 두 메일박스 모두 다른 작업을 처리하지 않는 상태이므로 작업을 실행하고,
+     * 멈춰둔 메일박스를 다시 워커에게 맡긴다.
+     * 메일박스는 항상 작은 유저에서 큰 유저 쪽으로만 넘기고 넘기는 동안 워커는 기다리지 않으므로, 교착 상태에 빠지지 않는다.
+     */
+    @Override
+    public <T> CompletableFuture<T> execute(long firstUserId, long secondUserId, Supplier<T> command) {
+        if (firstUserId == secondUserId) {
+            return execute(firstUserId, command);
+        }
+
+        long lower = Math.min(firstUserId, secondUserId);
+        long higher = Math.max(firstUserId, secondUserId);
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        enqueue(lower, lowerMailbox -> {
+            boolean handedOver = enqueue(higher, higherMailbox -> {
+                complete(future, command);
+                resume(lowerMailbox);
+                return true;
+            }, future);
+
+            // 넘기지 못했으면 멈추지 않고 계속 처리한다.
+            return !handedOver;
+        }, future);
+
+        return future;
+    }
+
+    // 현재 처리 중인 메일박스(유저)의 수
+    public int activeMailboxCount() {
+        return mailboxes.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    // 작업을 메일박스에 넣고, 새로 만든 메일박스면 워커를 배정한다. 워커를 배정하지 못하면 쌓인 작업과 함께 future 를 실패시키고 false 를 반환한다.
+    private boolean enqueue(long userId, Task task, CompletableFuture<?> future) {
+        // 메일박스 생성/제거는 compute 안에서만 일어나므로, 새로 만든 메일박스에만 워커를 배정하면
+        // 하나의 메일박스를 두 개의 워커가 동시에 처리하는 일은 없다.
+        boolean[] created = {false};
+        Mailbox mailbox = mailboxes.compute(userId, (id, current) -> {
+            if (current == null) {
+                current = new Mailbox(id);
+                created[0] = true;
+            }
+            current.tasks.add(new Envelope(task, future));
+            return current;
+        });
+
+        if (created[0]) {
+            try {
+                workers.execute(() -> drain(mailbox));
+            } catch (RejectedExecutionException e) {
+                reject(mailbox, e);
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // 멈춰둔 메일박스를 다시 워커에게 맡긴다. 그동안 쌓인 작업부터 처리된다.
+    private void resume(Mailbox mailbox) {
+        try {
+            workers.execute(() -> drain(mailbox));
+        } catch (RejectedExecutionException e) {
+            reject(mailbox, e);
+        }
+    }
+
+    /**
+     * 메일박스를 제거한 뒤 쌓여 있던 작업을 모두 실패시킨다.
+     * 작업은 compute 안에서 맵에 있는 메일박스에만 추가되므로, 제거한 뒤에는 더 쌓이지 않는다.
+     */
+    private void reject(Mailbox mailbox, RejectedExecutionException e) {
+        mailboxes.remove(mailbox.userId, mailbox);
+
+        Envelope envelope;
+        while ((envelope = mailbox.tasks.poll()) != null) {
+            envelope.future().completeExceptionally(e);
+        }
+    }
+
+    private static <T> void complete(CompletableFuture<T> future, Supplier<T> command) {
+        try {
+            future.complete(command.get());
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    private void drain(Mailbox mailbox) {
+        while (true) {
+            Envelope envelope = mailbox.tasks.poll();
+
+            if (envelope != null) {
+                // 다른 메일박스에 넘겨준 메일박스는 돌려받을 때까지 처리하지 않는다. (메일박스는 맵에 남아 작업은 계속 쌓인다)
+                if (!envelope.task().run(mailbox)) {
+                    return;
+                }
+                continue;
+            }
+
+            if (retire(mailbox)) {
+                return;
+            }
+        }
+    }
+
+    // 메일박스가 비어있으면 제거한다. 그 사이 작업이 들어왔다면 계속 처리한다.
+    private boolean retire(Mailbox mailbox) {
+        return mailboxes.computeIfPresent(mailbox.userId,
+                (id, current) -> current == mailbox && current.tasks.isEmpty() ? null : current) == null;
+    }
+
+    // 메일박스에서 실행할 작업, 이 워커가 메일박스를 계속 처리해야 하면 true 를 반환한다.
+    @FunctionalInterface
+    private interface Task {
+        boolean run(Mailbox mailbox);
+    }
+
+    // 메일박스에 쌓인 작업과, 작업을 처리하지 못했을 때 실패시킬 future
+    private record Envelope(Task task, CompletableFuture<?> future) {
+    }
+
+    private static final class Mailbox {
+        private final long userId;
+        private final Queue<Envelope> tasks = new ConcurrentLinkedQueue<>();
+
+        private Mailbox(long userId) {
+            this.userId = userId;
+        }
+    }
+}
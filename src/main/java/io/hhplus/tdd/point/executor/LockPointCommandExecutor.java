@@ -0,0 +1,40 @@
+package io.hhplus.tdd.point.executor;
+
+import io.hhplus.tdd.point.lock.PointLockManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * 호출한 스레드에서 유저 락을 잡고 바로 실행한다.
+ * 두 유저의 작업은 userId 순서대로 두 락을 모두 잡고 실행한다.
+ * 반환되는 CompletableFuture 는 항상 완료된 상태이다.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "point.execution.mode", havingValue = "lock", matchIfMissing = true)
+public class LockPointCommandExecutor implements PointCommandExecutor {
+
+    private final PointLockManager pointLockManager;
+
+    @Override
+    public <T> CompletableFuture<T> execute(long userId, Supplier<T> command) {
+        try {
+            return CompletableFuture.completedFuture(pointLockManager.executeWithLock(userId, command));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> execute(long firstUserId, long secondUserId, Supplier<T> command) {
+        try {
+            return CompletableFuture.completedFuture(pointLockManager.executeWithLocks(firstUserId, secondUserId, command));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
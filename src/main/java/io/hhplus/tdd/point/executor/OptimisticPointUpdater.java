@@ -0,0 +1,117 @@
+package io.hhplus.tdd.point.executor;
+
+import io.hhplus.tdd.database.VersionedUserPointStore;
+import io.hhplus.tdd.point.PointBusyException;
+import io.hhplus.tdd.point.PointCommand;
+import io.hhplus.tdd.point.PointCommandResult;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.UserPoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+
+/**
+ * 락 없이 버전 비교(CAS)로 포인트를 변경한다. (낙관적 동시성 제어)
+ * 포인트를 읽어 요청을 반영한 뒤, 읽은 버전이 그대로일 때만 저장한다.
+ * 그 사이 다른 요청이 먼저 저장했으면 잠시 기다렸다가(최대 대기 시간까지 두 배씩 늘림) 다시 읽어 재시도한다.
+ */
+@Component
+public class OptimisticPointUpdater {
+
+    private final VersionedUserPointStore versionedUserPointStore;
+    private final PointMetrics pointMetrics;
+    private final boolean enabled;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    public OptimisticPointUpdater(
+            VersionedUserPointStore versionedUserPointStore,
+            PointMetrics pointMetrics,
+            @Value("${point.execution.optimistic.enabled:false}") boolean enabled,
+            @Value("${point.execution.optimistic.max-attempts:10}") int maxAttempts,
+            @Value("${point.execution.optimistic.initial-backoff-micros:50}") long initialBackoffMicros,
+            @Value("${point.execution.optimistic.max-backoff-micros:5000}") long maxBackoffMicros
+    ) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("재시도 횟수는 1 이상이어야 합니다.");
+        }
+
+        this.versionedUserPointStore = versionedUserPointStore;
+        this.pointMetrics = pointMetrics;
+        this.enabled = enabled;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = TimeUnit.MICROSECONDS.toNanos(initialBackoffMicros);
+        this.maxBackoffNanos = TimeUnit.MICROSECONDS.toNanos(maxBackoffMicros);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * evaluator 는 주어진 포인트에서 요청을 순서대로 반영한 결과를 반환한다. 재시도할 때마다 다시 호출된다.
+     * 모두 실패하면 저장하지 않고 결과만 반환한다.
+     */
+    public List<PointCommandResult> apply(
+            long userId,
+            List<PointCommand> commands,
+            BiFunction<UserPoint, List<PointCommand>, List<PointCommandResult>> evaluator
+    ) {
+        long backoffNanos = initialBackoffNanos;
+
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            VersionedUserPointStore.Version read = versionedUserPointStore.read(userId);
+            List<PointCommandResult> results = evaluator.apply(read.point(), commands);
+
+            UserPoint updated = null;
+            List<PointCommandResult> succeeded = new ArrayList<>(results.size());
+            for (PointCommandResult result : results) {
+                if (result.isSuccess()) {
+                    updated = result.userPoint();
+                    succeeded.add(result);
+                }
+            }
+
+            if (updated == null) {
+                return results;
+            }
+
+            VersionedUserPointStore.Version committed = versionedUserPointStore.commit(read, updated, succeeded);
+            if (committed != null) {
+                pointMetrics.recordOptimisticCommit();
+                return withUpdateMillis(results, committed.point().updateMillis());
+            }
+
+            pointMetrics.recordOptimisticConflict();
+            if (attempt < maxAttempts) {
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(backoffNanos + 1));
+                backoffNanos = Math.min(backoffNanos * 2, maxBackoffNanos);
+            }
+        }
+
+        pointMetrics.recordOptimisticExhausted();
+        throw new PointBusyException("동시 요청이 많아 포인트를 변경하지 못했습니다. 잠시 후 다시 시도해주세요.");
+    }
+
+    private static List<PointCommandResult> withUpdateMillis(List<PointCommandResult> results, long updateMillis) {
+        List<PointCommandResult> committed = new ArrayList<>(results.size());
+        for (PointCommandResult result : results) {
+            if (!result.isSuccess()) {
+                committed.add(result);
+                continue;
+            }
+
+            UserPoint userPoint = result.userPoint();
+            committed.add(PointCommandResult.success(result.command(),
+                    new UserPoint(userPoint.id(), userPoint.point(), updateMillis)));
+        }
+        return committed;
+    }
+}
@@ -0,0 +1,118 @@
+package io.hhplus.tdd.point.executor;
+
+import io.hhplus.tdd.point.PointCommand;
+import io.hhplus.tdd.point.PointCommandResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * 같은 유저에게 동시에 들어온 충전/사용 요청을 모아 한 번에 처리한다. (group commit)
+ * 요청은 유저별 대기열에 쌓이고, 직렬화된 구간에 먼저 들어간 요청이 그때까지 쌓인 요청을 모두 꺼내 처리한다.
+ * 뒤이어 들어온 요청은 이미 처리된 자신의 결과를 받기만 하므로, 같은 유저의 요청이 몰릴수록
+ * 테이블 조회/저장 한 번에 처리되는 요청 수가 늘어난다.
+ */
+@Component
+public class PointCommandCoalescer {
+
+    private final PointCommandExecutor pointCommandExecutor;
+    private final boolean enabled;
+    private final int maxBatchSize;
+
+    private final ConcurrentHashMap<Long, ArrayDeque<PendingCommand>> pendings = new ConcurrentHashMap<>();
+
+    public PointCommandCoalescer(
+            PointCommandExecutor pointCommandExecutor,
+            @Value("${point.execution.coalesce.enabled:false}") boolean enabled,
+            @Value("${point.execution.coalesce.max-batch-size:100}") int maxBatchSize
+    ) {
+        this.pointCommandExecutor = pointCommandExecutor;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * processor 는 한 유저의 요청 목록을 순서대로 처리하고 요청별 결과를 같은 순서로 반환해야 한다.
+     */
+    public CompletableFuture<PointCommandResult> submit(
+            PointCommand command,
+            BiFunction<Long, List<PointCommand>, List<PointCommandResult>> processor
+    ) {
+        long userId = command.userId();
+        PendingCommand pending = new PendingCommand(command, new CompletableFuture<>());
+
+        pendings.compute(userId, (id, queue) -> {
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+            }
+            queue.add(pending);
+            return queue;
+        });
+
+        // 요청 하나당 한 번씩 처리를 시도하므로, 쌓인 요청은 언젠가 반드시 누군가에 의해 처리된다.
+        // 처리를 시도하지 못했다면(락 timeout, 메일박스 초과) 아직 대기열에 남은 자신의 요청을 꺼내 같은 예외로 실패시킨다.
+        // 그 사이 다른 요청의 처리가 이미 꺼내 갔다면 그 처리의 결과를 받는다.
+        pointCommandExecutor.execute(userId, () -> drain(userId, processor))
+                .whenComplete((ignored, e) -> {
+                    if (e != null && remove(userId, pending)) {
+                        pending.future().completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                    }
+                });
+
+        return pending.future();
+    }
+
+    private boolean remove(long userId, PendingCommand pending) {
+        boolean[] removed = new boolean[1];
+
+        pendings.computeIfPresent(userId, (id, queue) -> {
+            removed[0] = queue.remove(pending);
+            return queue.isEmpty() ? null : queue;
+        });
+
+        return removed[0];
+    }
+
+    private Void drain(long userId, BiFunction<Long, List<PointCommand>, List<PointCommandResult>> processor) {
+        List<PendingCommand> batch = new ArrayList<>();
+
+        pendings.computeIfPresent(userId, (id, queue) -> {
+            while (!queue.isEmpty() && batch.size() < maxBatchSize) {
+                batch.add(queue.poll());
+            }
+            return queue.isEmpty() ? null : queue;
+        });
+
+        if (batch.isEmpty()) {
+            return null;
+        }
+
+        try {
+            List<PointCommandResult> results = processor.apply(userId, batch.stream().map(PendingCommand::command).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future().complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.future().completeExceptionally(e));
+        }
+
+        return null;
+    }
+
+    private record PendingCommand(
+            PointCommand command,
+            CompletableFuture<PointCommandResult> future
+    ) {
+    }
+}
@@ -0,0 +1,18 @@
+package io.hhplus.tdd.point.executor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * 포인트 변경 작업의 실행 방식
+ * - lock : 호출한 스레드에서 유저 락을 잡고 실행 (기본값)
+ * - actor : 유저별 메일박스에 넣고, 메일박스를 담당하는 하나의 워커가 순서대로 실행
+ * 어떤 방식이든 같은 유저의 작업은 한 번에 하나씩만 실행된다.
+ */
+public interface PointCommandExecutor {
+
+    <T> CompletableFuture<T> execute(long userId, Supplier<T> command);
+
+    // 두 유저의 작업과 겹치지 않게 실행한다. (포인트 전송) 두 유저에 대해 동시에 실행되는 다른 작업은 없다.
+    <T> CompletableFuture<T> execute(long firstUserId, long secondUserId, Supplier<T> command);
+}
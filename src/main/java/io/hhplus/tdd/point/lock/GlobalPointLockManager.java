@@ -0,0 +1,59 @@
+package io.hhplus.tdd.point.lock;
+
+import io.hhplus.tdd.point.PointBusyException;
+import io.hhplus.tdd.point.PointMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 유저와 관계없이 하나의 락으로 모든 포인트 변경을 직렬화한다.
+ * timeout 안에 락을 얻지 못하면 PointBusyException 으로 실패한다.
+ */
+@Component
+@ConditionalOnProperty(name = "point.lock.mode", havingValue = "global")
+public class GlobalPointLockManager implements PointLockManager {
+
+    private final PointMetrics pointMetrics;
+    private final long timeoutNanos;
+
+    private final Lock lock = new ReentrantLock();
+
+    public GlobalPointLockManager(
+            PointMetrics pointMetrics,
+            @Value("${point.lock.timeout:30s}") Duration timeout
+    ) {
+        this.pointMetrics = pointMetrics;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    // 모든 유저가 하나의 락을 공유하므로 두 유저의 작업도 락을 한 번만 잡는다.
+    @Override
+    public <T> T executeWithLocks(long firstUserId, long secondUserId, Supplier<T> action) {
+        return executeWithLock(firstUserId, action);
+    }
+
+    @Override
+    public <T> T executeWithLock(long userId, Supplier<T> action) {
+
+        long waitStart = System.nanoTime();
+        if (!PointLocks.tryLock(lock, timeoutNanos)) {
+            pointMetrics.recordLockWait(userId, System.nanoTime() - waitStart);
+            throw new PointBusyException("포인트 변경을 기다리는 시간이 초과되었습니다. 잠시 후 다시 시도해주세요.");
+        }
+        long acquired = System.nanoTime();
+        pointMetrics.recordLockWait(userId, acquired - waitStart);
+
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+            pointMetrics.recordLockHold(System.nanoTime() - acquired);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.hhplus.tdd.point.lock;
+
+import java.util.function.Supplier;
+
+/**
+ * 포인트 변경(충전/사용) 시 사용하는 락
+ * - global : 모든 유저가 하나의 락을 공유
+ * - user : 유저별로 락을 분리 (기본값)
+ */
+public interface PointLockManager {
+
+    // 해당 유저의 락을 획득한 상태에서 action 을 실행한다.
+    <T> T executeWithLock(long userId, Supplier<T> action);
+
+    /**
+     * 두 유저의 락을 모두 획득한 상태에서 action 을 실행한다. (포인트 전송)
+     * 락은 항상 userId 가 작은 유저부터 잡으므로, 서로 반대 방향으로 동시에 실행되어도 교착 상태에 빠지지 않는다.
+     */
+    default <T> T executeWithLocks(long firstUserId, long secondUserId, Supplier<T> action) {
+        if (firstUserId == secondUserId) {
+            return executeWithLock(firstUserId, action);
+        }
+
+        long lower = Math.min(firstUserId, secondUserId);
+        long higher = Math.max(firstUserId, secondUserId);
+
+        return executeWithLock(lower, () -> executeWithLock(higher, action));
+    }
+}
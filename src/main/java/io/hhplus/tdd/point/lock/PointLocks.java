@@ -0,0 +1,20 @@
+package io.hhplus.tdd.point.lock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+final class PointLocks {
+
+    private PointLocks() {
+    }
+
+    // timeout 안에 락을 얻으면 true, 기다리는 중 인터럽트되면 인터럽트 상태를 남기고 false 를 반환한다.
+    static boolean tryLock(Lock lock, long timeoutNanos) {
+        try {
+            return lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
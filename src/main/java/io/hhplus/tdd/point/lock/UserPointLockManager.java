@@ -0,0 +1,83 @@
+package io.hhplus.tdd.point.lock;
+
+import io.hhplus.tdd.point.PointBusyException;
+import io.hhplus.tdd.point.PointMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 유저별로 락을 분리한다.
+ * 같은 유저의 요청은 순차적으로, 다른 유저의 요청은 병렬로 처리된다.
+ * 락을 사용하는 스레드가 없어지면 해당 유저의 락은 제거된다.
+ * timeout 안에 락을 얻지 못하면 PointBusyException 으로 실패한다.
+ */
+@Component
+@ConditionalOnProperty(name = "point.lock.mode", havingValue = "user", matchIfMissing = true)
+public class UserPointLockManager implements PointLockManager {
+
+    private final PointMetrics pointMetrics;
+    private final long timeoutNanos;
+
+    private final ConcurrentHashMap<Long, UserLock> locks = new ConcurrentHashMap<>();
+
+    public UserPointLockManager(
+            PointMetrics pointMetrics,
+            @Value("${point.lock.timeout:30s}") Duration timeout
+    ) {
+        this.pointMetrics = pointMetrics;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Override
+    public <T> T executeWithLock(long userId, Supplier<T> action) {
+        long waitStart = System.nanoTime();
+        UserLock userLock = acquire(userId);
+
+        if (!PointLocks.tryLock(userLock.lock, timeoutNanos)) {
+            release(userId);
+            pointMetrics.recordLockWait(userId, System.nanoTime() - waitStart);
+            throw new PointBusyException("포인트 변경을 기다리는 시간이 초과되었습니다. 잠시 후 다시 시도해주세요.");
+        }
+        long acquired = System.nanoTime();
+        pointMetrics.recordLockWait(userId, acquired - waitStart);
+
+        try {
+            return action.get();
+        } finally {
+            userLock.lock.unlock();
+            release(userId);
+            pointMetrics.recordLockHold(System.nanoTime() - acquired);
+        }
+    }
+
+    // 현재 사용 중(대기 포함)인 유저 락의 수
+    public int activeLockCount() {
+        return locks.size();
+    }
+
+    // compute 는 같은 key 에 대해 원자적으로 실행되므로 holders 는 별도의 동기화 없이 관리할 수 있다.
+    private UserLock acquire(long userId) {
+        return locks.compute(userId, (id, userLock) -> {
+            if (userLock == null) {
+                userLock = new UserLock();
+            }
+            userLock.holders++;
+            return userLock;
+        });
+    }
+
+    private void release(long userId) {
+        locks.computeIfPresent(userId, (id, userLock) -> --userLock.holders == 0 ? null : userLock);
+    }
+
+    private static final class UserLock {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int holders;
+    }
+}
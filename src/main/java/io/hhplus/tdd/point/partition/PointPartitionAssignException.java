@@ -0,0 +1,14 @@
+package io.hhplus.tdd.point.partition;
+
+import java.util.List;
+
+/**
+ * 파티션의 담당 노드를 바꾼 뒤 다른 노드에 알리지 못했을 때 발생하는 예외
+ * 요청을 받은 노드의 담당 노드는 이미 바뀌었으므로, 응답(502) 메시지의 노드들에 다시 알려야 한다.
+ */
+public class PointPartitionAssignException extends RuntimeException {
+
+    public PointPartitionAssignException(int partition, List<String> nodes) {
+        super("파티션(" + partition + ")의 담당 노드 변경을 알리지 못한 노드가 있습니다. nodes=" + nodes);
+    }
+}
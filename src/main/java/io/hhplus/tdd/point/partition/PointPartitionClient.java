@@ -0,0 +1,148 @@
+package io.hhplus.tdd.point.partition;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.dto.req.PointPartitionAssignRequest;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 다른 노드로 요청을 넘기는 HTTP 클라이언트
+ * 넘긴 요청에는 FORWARDED_HEADER 를 붙여, 받은 노드가 다시 다른 노드로 넘기지 않고 바로 처리하게 한다.
+ * 응답 본문은 스트림으로 받으므로 내역 스트림(ndjson)도 모아두지 않고 그대로 전달할 수 있다.
+ */
+@Component
+@ConditionalOnProperty(name = "point.partition.enabled", havingValue = "true")
+public class PointPartitionClient {
+
+    private static final Logger log = LoggerFactory.getLogger(PointPartitionClient.class);
+
+    public static final String FORWARDED_HEADER = "X-Point-Forwarded-By";
+
+    private final PointPartitioner pointPartitioner;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+
+    public PointPartitionClient(
+            PointPartitioner pointPartitioner,
+            ObjectMapper objectMapper,
+            @Value("${point.partition.forward-timeout:5s}") Duration timeout,
+            @Value("${point.partition.client-threads:16}") int threads
+    ) {
+        this.pointPartitioner = pointPartitioner;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "point-partition-client-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * owner 노드에 같은 요청을 보낸다. pathAndQuery 는 "/point/1/histories?limit=10" 과 같이 경로와 query 를 담는다.
+     * 응답 헤더를 받으면 완료되고, 본문은 반환된 스트림으로 읽는다.
+     */
+    public CompletableFuture<HttpResponse<InputStream>> forward(
+            String owner,
+            String method,
+            String pathAndQuery,
+            Map<String, String> headers,
+            byte[] body
+    ) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(resolve(owner, pathAndQuery))
+                .timeout(timeout)
+                .header(FORWARDED_HEADER, pointPartitioner.nodeId())
+                .method(method, body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        headers.forEach(request::header);
+
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    /**
+     * 바뀐 담당 노드를 다른 노드에 알리고, 모든 노드가 응답하면 알리지 못한 노드 목록으로 완료된다.
+     * 알리지 못한 노드는 이전 담당 노드로 요청을 보내므로, 다시 알려야 한다.
+     */
+    public CompletableFuture<List<String>> broadcastAssignment(int partition, String owner) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(new PointPartitionAssignRequest(owner));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<String> nodes = pointPartitioner.otherNodes();
+        List<CompletableFuture<Boolean>> notified = new ArrayList<>(nodes.size());
+        for (String node : nodes) {
+            HttpRequest request = HttpRequest.newBuilder(resolve(node, "/point/partitions/" + partition))
+                    .timeout(timeout)
+                    .header(FORWARDED_HEADER, pointPartitioner.nodeId())
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+
+            notified.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, e) -> {
+                        if (e != null || response.statusCode() != 200) {
+                            log.warn("파티션 담당 노드 변경을 알리지 못했습니다. node={}, partition={}, owner={}, status={}",
+                                    node, partition, owner, response == null ? null : response.statusCode(), e);
+                            return false;
+                        }
+                        return true;
+                    }));
+        }
+
+        return CompletableFuture.allOf(notified.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    List<String> failed = new ArrayList<>();
+                    for (int i = 0; i < nodes.size(); i++) {
+                        if (!notified.get(i).join()) {
+                            failed.add(nodes.get(i));
+                        }
+                    }
+                    return failed;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private URI resolve(String node, String pathAndQuery) {
+        String base = pointPartitioner.uriOf(node).toString();
+        if (base.endsWith("/")) {
+            base = base.substring(0, base.length() - 1);
+        }
+        return URI.create(base + pathAndQuery);
+    }
+}
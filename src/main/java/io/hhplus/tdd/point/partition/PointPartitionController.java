@@ -0,0 +1,67 @@
+package io.hhplus.tdd.point.partition;
+
+import io.hhplus.tdd.dto.req.PointPartitionAssignRequest;
+import io.hhplus.tdd.dto.res.PointPartitionResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/point/partitions")
+@ConditionalOnProperty(name = "point.partition.enabled", havingValue = "true")
+public class PointPartitionController {
+
+    private final PointPartitioner pointPartitioner;
+    private final PointPartitionClient pointPartitionClient;
+
+    /**
+     * 노드별 담당 파티션을 조회합니다.
+     */
+    @GetMapping
+    public Map<String, List<Integer>> partitions() {
+        return pointPartitioner.partitionsByNode();
+    }
+
+    /**
+     * 유저의 파티션과 담당 노드를 조회합니다. 클라이언트가 담당 노드로 바로 요청할 때 사용합니다.
+     */
+    @GetMapping("users/{userId}")
+    public PointPartitionResponse partitionOf(
+            @PathVariable(name = "userId") long userId
+    ) {
+        return new PointPartitionResponse(userId, pointPartitioner.partitionOf(userId), pointPartitioner.ownerOf(userId));
+    }
+
+    /**
+     * 파티션의 담당 노드를 바꿉니다.
+     * 요청을 받은 노드가 다른 노드에도 알리고, 모든 노드가 응답한 뒤 노드별 담당 파티션을 반환합니다.
+     * 알리지 못한 노드가 있으면 그 노드 목록과 함께 502 로 실패합니다. 같은 요청을 다시 보내면 됩니다.
+     * 포인트와 내역은 옮기지 않습니다.
+     */
+    @PutMapping("{partition}")
+    public CompletableFuture<Map<String, List<Integer>>> assign(
+            @PathVariable(name = "partition") int partition,
+            @RequestHeader(name = PointPartitionClient.FORWARDED_HEADER, required = false) String forwardedBy,
+            @RequestBody PointPartitionAssignRequest pointPartitionAssignRequest
+    ) {
+        pointPartitioner.assign(partition, pointPartitionAssignRequest.owner());
+
+        // 다른 노드가 알려준 변경은 다시 알리지 않는다.
+        if (forwardedBy != null) {
+            return CompletableFuture.completedFuture(pointPartitioner.partitionsByNode());
+        }
+
+        return pointPartitionClient.broadcastAssignment(partition, pointPartitionAssignRequest.owner())
+                .thenApply(failed -> {
+                    if (!failed.isEmpty()) {
+                        throw new PointPartitionAssignException(partition, failed);
+                    }
+                    return pointPartitioner.partitionsByNode();
+                });
+    }
+}
@@ -0,0 +1,263 @@
+package io.hhplus.tdd.point.partition;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.ErrorResponse;
+import io.hhplus.tdd.dto.req.PointCommandRequest;
+import io.hhplus.tdd.dto.req.PointTransferRequest;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * PointController 앞에서 요청을 담당 노드로 보낸다.
+ * - /point/{id}/** : id 유저의 담당 노드
+ * - /point/transfer : 보내는 유저의 담당 노드, 받는 유저의 담당 노드가 다르면 400
+ * - /point/batch : 요청에 담긴 유저들의 담당 노드, 여러 노드에 걸치면 400
+ * 담당 노드가 이 노드면 그대로 처리하고, 아니면 같은 요청을 담당 노드에 보내 받은 응답을 그대로 돌려준다.
+ * 다른 노드가 넘겨준 요청은 다시 넘기지 않으며, 이 노드가 담당하지 않으면 421(Misdirected Request)로 실패한다.
+ * 담당 노드의 응답을 기다리는 동안 요청 스레드는 반납한다. (servlet async)
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "point.partition.enabled", havingValue = "true")
+public class PointPartitionFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(PointPartitionFilter.class);
+
+    private static final String PREFIX = "/point/";
+    private static final List<String> FORWARDED_REQUEST_HEADERS = List.of("Content-Type", "Accept", "Idempotency-Key");
+    private static final List<String> FORWARDED_RESPONSE_HEADERS = List.of("Content-Type", "Next-Cursor");
+
+    private final PointPartitioner pointPartitioner;
+    private final PointPartitionClient pointPartitionClient;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !path(request).startsWith(PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String resource = path(request).substring(PREFIX.length());
+        int slash = resource.indexOf('/');
+        String first = slash < 0 ? resource : resource.substring(0, slash);
+
+        byte[] body = null;
+        String owner;
+        try {
+            if ("transfer".equals(first)) {
+                body = request.getInputStream().readAllBytes();
+                owner = transferOwner(body);
+            } else if ("batch".equals(first)) {
+                body = request.getInputStream().readAllBytes();
+                owner = batchOwner(body);
+            } else {
+                owner = userOwner(first);
+            }
+        } catch (IllegalArgumentException e) {
+            writeError(response, 400, e.getMessage());
+            return;
+        }
+
+        // 유저와 관계없는 요청(/point/partitions 등)이나 이 노드가 담당하는 유저는 그대로 처리한다.
+        if (owner == null || owner.equals(pointPartitioner.nodeId())) {
+            filterChain.doFilter(body == null ? request : new CachedBodyRequest(request, body), response);
+            return;
+        }
+
+        // 다른 노드가 넘겨준 요청은 다시 넘기지 않는다.
+        // 담당 노드 변경이 두 노드에 다르게 반영된 동안이면 이 노드가 처리하지 않고 421 로 실패시켜, 두 노드가 같은 유저를 처리하지 않게 한다.
+        if (request.getHeader(PointPartitionClient.FORWARDED_HEADER) != null) {
+            writeError(response, 421, "이 노드(" + pointPartitioner.nodeId() + ")는 요청한 유저를 담당하지 않습니다. 담당 노드: " + owner);
+            return;
+        }
+
+        forward(owner, request, response, body == null ? request.getInputStream().readAllBytes() : body);
+    }
+
+    private void forward(String owner, HttpServletRequest request, HttpServletResponse response, byte[] body) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : FORWARDED_REQUEST_HEADERS) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+
+        String pathAndQuery = request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+
+        // 응답 시간은 PointPartitionClient 의 timeout 으로 제한하고, 스트림 응답은 끝날 때까지 기다린다.
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(0);
+
+        pointPartitionClient.forward(owner, request.getMethod(), pathAndQuery, headers, body)
+                .whenComplete((forwarded, e) -> {
+                    try {
+                        if (e != null) {
+                            log.warn("담당 노드에 요청을 넘기지 못했습니다. owner={}, path={}", owner, pathAndQuery, e);
+                            writeError(response, 503, "포인트를 담당하는 노드(" + owner + ")에 연결할 수 없습니다.");
+                        } else {
+                            copy(forwarded, response);
+                        }
+                    } catch (IOException io) {
+                        log.warn("담당 노드의 응답을 전달하지 못했습니다. owner={}, path={}", owner, pathAndQuery, io);
+                    } finally {
+                        asyncContext.complete();
+                    }
+                });
+    }
+
+    private String userOwner(String segment) {
+        long userId;
+        try {
+            userId = Long.parseLong(segment);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        return pointPartitioner.ownerOf(userId);
+    }
+
+    // 본문을 읽을 수 없으면 이 노드에서 처리하여 PointController 가 실패 응답을 내려주게 한다.
+    private String transferOwner(byte[] body) {
+        PointTransferRequest transfer;
+        try {
+            transfer = objectMapper.readValue(body, PointTransferRequest.class);
+        } catch (IOException e) {
+            return null;
+        }
+
+        String owner = pointPartitioner.ownerOf(transfer.fromId());
+        if (!owner.equals(pointPartitioner.ownerOf(transfer.toId()))) {
+            throw new IllegalArgumentException("서로 다른 노드가 담당하는 유저 간에는 포인트를 보낼 수 없습니다.");
+        }
+
+        return owner;
+    }
+
+    private String batchOwner(byte[] body) {
+        PointCommandRequest[] commands;
+        try {
+            commands = objectMapper.readValue(body, PointCommandRequest[].class);
+        } catch (IOException e) {
+            return null;
+        }
+
+        Set<String> owners = new HashSet<>();
+        for (PointCommandRequest command : commands) {
+            owners.add(pointPartitioner.ownerOf(command.userId()));
+        }
+
+        if (owners.size() > 1) {
+            throw new IllegalArgumentException("여러 노드가 담당하는 유저의 요청은 한 번에 처리할 수 없습니다. 노드별로 나누어 요청해주세요.");
+        }
+
+        return owners.isEmpty() ? null : owners.iterator().next();
+    }
+
+    private static void copy(HttpResponse<InputStream> forwarded, HttpServletResponse response) throws IOException {
+        response.setStatus(forwarded.statusCode());
+        for (String name : FORWARDED_RESPONSE_HEADERS) {
+            forwarded.headers().firstValue(name).ifPresent(value -> response.setHeader(name, value));
+        }
+
+        // 스트림 응답(/point/{id}/stream 등)은 받은 만큼 바로 내려보낸다.
+        try (InputStream body = forwarded.body()) {
+            OutputStream out = response.getOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = body.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+        }
+    }
+
+    private void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getOutputStream().write(objectMapper.writeValueAsBytes(new ErrorResponse(String.valueOf(status), message)));
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    // 담당 노드를 고르기 위해 읽은 본문을 PointController 가 다시 읽을 수 있게 한다.
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+        }
+    }
+}
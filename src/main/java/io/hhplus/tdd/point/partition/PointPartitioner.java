@@ -0,0 +1,184 @@
+package io.hhplus.tdd.point.partition;
+
+import io.hhplus.tdd.Hashing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * userId 를 파티션으로, 파티션을 담당 노드로 나눈다. (여러 노드로 나누어 실행할 때 사용)
+ * - userId -> 파티션 : consistent hashing. 파티션마다 링 위에 여러 개의 가상 노드를 두고, userId 의 hash 에서
+ *   시계 방향으로 가장 가까운 가상 노드의 파티션을 고른다. 파티션 수를 바꿔도 옮겨지는 유저는 일부뿐이다.
+ * - 파티션 -> 노드 : 처음에는 설정된 노드 순서대로 나누어 맡고, assign 으로 담당 노드를 바꿀 수 있다.
+ * 유저의 포인트와 내역은 담당 노드의 메모리에만 있으므로, 같은 유저의 요청은 항상 담당 노드에서 처리되어야 한다.
+ * 사용하지 않으면(enabled=false) 모든 유저가 이 노드의 유저이다.
+ */
+@Component
+public class PointPartitioner {
+
+    private static final int VIRTUAL_NODES = 64;
+    // 가상 노드의 hash 가 userId 의 hash 와 같은 값에 몰리지 않도록 다른 seed 를 섞는다.
+    private static final long VIRTUAL_NODE_SEED = 0x9E3779B97F4A7C15L;
+
+    private final boolean enabled;
+    private final String nodeId;
+    private final Map<String, URI> nodes;
+    private final int partitionCount;
+
+    // 링 : hash 오름차순으로 정렬된 가상 노드와 그 파티션
+    private final long[] ring;
+    private final int[] ringPartitions;
+
+    private final AtomicReferenceArray<String> owners;
+
+    public PointPartitioner(
+            @Value("${point.partition.enabled:false}") boolean enabled,
+            @Value("${point.partition.count:64}") int partitionCount,
+            @Value("${point.partition.node-id:node-1}") String nodeId,
+            @Value("${point.partition.nodes:}") String nodes
+    ) {
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("파티션 수는 1 이상이어야 합니다.");
+        }
+
+        this.enabled = enabled;
+        this.nodeId = nodeId;
+        this.nodes = parseNodes(nodes);
+        this.partitionCount = partitionCount;
+
+        if (enabled && !this.nodes.containsKey(nodeId)) {
+            throw new IllegalArgumentException("노드 목록(point.partition.nodes)에 현재 노드(" + nodeId + ")가 없습니다.");
+        }
+
+        int size = partitionCount * VIRTUAL_NODES;
+        long[] hashes = new long[size];
+        for (int i = 0; i < size; i++) {
+            hashes[i] = Hashing.mix(((long) (i / VIRTUAL_NODES) << 32 | (i % VIRTUAL_NODES)) ^ VIRTUAL_NODE_SEED);
+        }
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+
+        this.ring = new long[size];
+        this.ringPartitions = new int[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = hashes[order[i]];
+            ringPartitions[i] = order[i] / VIRTUAL_NODES;
+        }
+
+        // 처음에는 노드 순서대로 돌아가며 맡는다.
+        List<String> nodeIds = new ArrayList<>(this.nodes.keySet());
+        this.owners = new AtomicReferenceArray<>(partitionCount);
+        for (int partition = 0; partition < partitionCount; partition++) {
+            owners.set(partition, nodeIds.isEmpty() ? nodeId : nodeIds.get(partition % nodeIds.size()));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public int partitionCount() {
+        return partitionCount;
+    }
+
+    public int partitionOf(long userId) {
+        long hash = Hashing.mix(userId);
+
+        // hash 이상인 첫 가상 노드, 없으면 링의 처음으로 돌아간다.
+        int low = 0;
+        int high = ring.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ring[mid] < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return ringPartitions[low == ring.length ? 0 : low];
+    }
+
+    public String ownerOf(long userId) {
+        return owners.get(partitionOf(userId));
+    }
+
+    // 이 노드에서 처리해야 하는 유저인지
+    public boolean isLocal(long userId) {
+        return !enabled || nodeId.equals(ownerOf(userId));
+    }
+
+    public URI uriOf(String nodeId) {
+        URI uri = nodes.get(nodeId);
+        if (uri == null) {
+            throw new IllegalArgumentException("등록되지 않은 노드입니다. " + nodeId);
+        }
+        return uri;
+    }
+
+    // 현재 노드를 제외한 노드 목록
+    public List<String> otherNodes() {
+        return nodes.keySet().stream()
+                .filter(id -> !id.equals(nodeId))
+                .toList();
+    }
+
+    /**
+     * 파티션의 담당 노드를 바꾼다. 이 노드의 라우팅만 바뀌므로 다른 노드에도 알려야 한다. (PointPartitionController)
+     * 포인트와 내역은 옮기지 않으므로, 데이터가 쌓이기 전이나 노드를 교체하며 상태를 함께 옮길 때 사용한다.
+     */
+    public void assign(int partition, String owner) {
+        if (partition < 0 || partition >= partitionCount) {
+            throw new IllegalArgumentException("파티션은 0 이상 " + partitionCount + " 미만이어야 합니다.");
+        }
+        uriOf(owner);
+
+        owners.set(partition, owner);
+    }
+
+    // 노드별 담당 파티션
+    public Map<String, List<Integer>> partitionsByNode() {
+        Map<String, List<Integer>> partitions = new LinkedHashMap<>();
+        for (String id : nodes.keySet()) {
+            partitions.put(id, new ArrayList<>());
+        }
+        for (int partition = 0; partition < partitionCount; partition++) {
+            partitions.computeIfAbsent(owners.get(partition), id -> new ArrayList<>()).add(partition);
+        }
+        return Collections.unmodifiableMap(partitions);
+    }
+
+    // "node-1=http://localhost:8080,node-2=http://localhost:8081"
+    private static Map<String, URI> parseNodes(String nodes) {
+        Map<String, URI> parsed = new LinkedHashMap<>();
+
+        for (String node : nodes.split(",")) {
+            if (node.isBlank()) {
+                continue;
+            }
+
+            String[] idAndUri = node.trim().split("=", 2);
+            if (idAndUri.length != 2 || idAndUri[0].isBlank() || idAndUri[1].isBlank()) {
+                throw new IllegalArgumentException("노드는 id=url 형식이어야 합니다. " + node);
+            }
+            parsed.put(idAndUri[0].trim(), URI.create(idAndUri[1].trim()));
+        }
+
+        return Collections.unmodifiableMap(parsed);
+    }
+}
@@ -0,0 +1,85 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.PointServiceFixture;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class LongKeyUserPointStoreTest {
+
+    private PointServiceFixture fixture;
+
+    @AfterEach
+    void tearDown() {
+        fixture.shutdown();
+    }
+
+    @Test
+    void long_key_저장소_사용_시_여러_유저의_동시_요청이_모두_반영되고_조회는_저장된_값을_그대로_반환한다() throws Exception {
+        // given
+        int users = 2_000;
+        int threads = 8;
+        long amount = 10L;
+
+        LongKeyUserPointStore userPointStore = new LongKeyUserPointStore(4);
+        fixture = new PointServiceFixture().userPointStore(userPointStore).build();
+        PointService longKeyPointService = fixture.pointService();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        // when
+        // 스레드마다 모든 유저에게 한 번씩 충전하므로, 저장소가 커지는(resize) 동안에도 조회/저장이 겹친다.
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                try {
+                    for (long userId = 1; userId <= users; userId++) {
+                        longKeyPointService.chargeUserPoint(userId, amount);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        executor.shutdown();
+
+        // then
+        assertEquals(users, userPointStore.size());
+        for (long userId = 1; userId <= users; userId++) {
+            assertEquals(amount * threads, longKeyPointService.getUserPoint(userId).point());
+        }
+        assertSame(userPointStore.selectById(1L), longKeyPointService.getUserPoint(1L));
+        assertEquals(0L, longKeyPointService.getUserPoint(users + 1).point());
+    }
+
+    @Test
+    void WAL_사용_시_저장소에_있는_유저는_저장된_값을_그대로_반환하고_이미지에만_있는_유저는_이미지에서_읽는다() {
+        // given
+        // 재시작 후에는 복구한 포인트가 이미지에만 있고, 저장소에는 유저가 처음 변경될 때 저장된다.
+        LongKeyUserPointStore userPointStore = new LongKeyUserPointStore(4);
+        UserPointImage userPointImage = new UserPointImage(true);
+        fixture = new PointServiceFixture().userPointStore(userPointStore).userPointImage(userPointImage).build();
+        UserPointRepository userPointRepository = fixture.userPointRepository();
+        userPointImage.put(1L, 1_000L, 1L);
+        userPointImage.put(2L, 2_000L, 2L);
+
+        // when
+        UserPoint saved = userPointRepository.save(1L, 1_500L);
+
+        // then
+        assertSame(saved, userPointRepository.findById(1L));
+        assertEquals(2_000L, userPointRepository.findById(2L).point());
+        assertEquals(0L, userPointRepository.findById(3L).point());
+        assertNull(userPointStore.selectStored(2L));
+    }
+}
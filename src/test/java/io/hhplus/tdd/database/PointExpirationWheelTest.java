@@ -0,0 +1,32 @@
+package io.hhplus.tdd.database;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PointExpirationWheelTest {
+
+    @Test
+    void 타이밍_휠은_레벨과_관계없이_만료_시각이_지난_첫_tick_에_알린다() {
+        // given
+        // tick 10ms, 칸 4개, 레벨 2 이면 휠이 160ms 까지 맡으므로 1_000ms 는 맨 위 레벨에서 여러 번 다시 담긴다.
+        PointExpirationWheel wheel = new PointExpirationWheel(10, 4, 2, 0);
+        long[] expireAts = {5L, 35L, 100L, 155L, 1_000L};
+        for (int userId = 0; userId < expireAts.length; userId++) {
+            wheel.schedule(userId, expireAts[userId]);
+        }
+
+        // when
+        long[] firedAt = new long[expireAts.length];
+        for (long now = 0; now <= 1_100; now += 10) {
+            long current = now;
+            wheel.advance(now, userId -> firedAt[(int) userId] = current);
+        }
+
+        // then
+        for (int userId = 0; userId < expireAts.length; userId++) {
+            long expectedTick = (expireAts[userId] + 9) / 10 * 10;
+            assertEquals(expectedTick, firedAt[userId], "userId=" + userId);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointContentionProfiler;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.PointServiceFixture;
+import io.hhplus.tdd.point.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointHistoryOutboxTest {
+
+    private final PointMetrics pointMetrics = new PointMetrics(new SimpleMeterRegistry(),
+            new PointContentionProfiler(true, 20, 4, 4096, Duration.ofSeconds(60)));
+    private final UnthrottledPointHistoryTable pointHistoryTable = new UnthrottledPointHistoryTable();
+    private final PointHistoryRepository pointHistoryRepository = new PointHistoryRepository(pointHistoryTable, pointMetrics);
+
+    private PointHistoryOutbox pointHistoryOutbox;
+
+    @AfterEach
+    void tearDown() {
+        if (pointHistoryOutbox != null) {
+            pointHistoryOutbox.shutdown();
+        }
+    }
+
+    @Test
+    void 여러_appender_로_기록해도_유저별_내역은_append_한_순서대로_기록된다() throws Exception {
+        // given
+        int threads = 8;
+        int users = 64;
+        int historiesPerUser = 500;
+        pointHistoryOutbox = new PointHistoryOutbox(pointHistoryRepository, 1_000, 8, 10);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        // 유저의 내역은 한 스레드가 순서대로 append 한다. (서비스에서는 유저별 직렬화된 구간 안에서 append 한다.)
+        for (int i = 0; i < threads; i++) {
+            int thread = i;
+            futures.add(executor.submit(() -> {
+                for (long amount = 1; amount <= historiesPerUser; amount++) {
+                    for (long userId = thread; userId < users; userId += threads) {
+                        pointHistoryOutbox.append(userId, amount, TransactionType.CHARGE, amount);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        for (long userId = 0; userId < users; userId++) {
+            pointHistoryOutbox.flush(userId);
+        }
+
+        // then
+        List<Long> expected = LongStream.rangeClosed(1, historiesPerUser).boxed().toList();
+        for (long userId = 0; userId < users; userId++) {
+            long id = userId;
+            assertEquals(expected, pointHistoryTable.rows().stream()
+                    .filter(history -> history.userId() == id).map(PointHistory::amount).toList(), "userId=" + userId);
+        }
+        // 테이블 기록이 겹치지 않으므로 id 는 빠짐없이 한 번씩 매겨진다.
+        assertEquals(LongStream.rangeClosed(1, (long) users * historiesPerUser).boxed().toList(),
+                pointHistoryTable.rows().stream().map(PointHistory::id).toList());
+    }
+
+    @Test
+    void flush_는_해당_유저의_내역이_기록된_뒤에_반환하고_이후_조회에_포함된다() throws Exception {
+        // given
+        long userId = 1L;
+        pointHistoryOutbox = new PointHistoryOutbox(pointHistoryRepository, 100, 1, 10);
+        pointHistoryTable.block();
+        pointHistoryOutbox.append(userId, 100L, TransactionType.CHARGE, 1_000L);
+
+        // when
+        CompletableFuture<Void> flushed = CompletableFuture.runAsync(() -> pointHistoryOutbox.flush(userId));
+
+        // then
+        Thread.sleep(100);
+        assertFalse(flushed.isDone());
+
+        pointHistoryTable.release();
+        flushed.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(100L), pointHistoryRepository.findAllByUserId(userId).stream().map(PointHistory::amount).toList());
+    }
+
+    @Test
+    void outbox_가_가득_차면_append_는_자리가_날_때까지_기다린다() throws Exception {
+        // given
+        // appender 1개, 대기열 2건
+        pointHistoryOutbox = new PointHistoryOutbox(pointHistoryRepository, 2, 1, 10);
+        pointHistoryTable.block();
+
+        List<CompletableFuture<PointHistory>> written = new ArrayList<>();
+        written.add(pointHistoryOutbox.append(1L, 1L, TransactionType.CHARGE, 1L));
+        // appender 가 첫 내역을 꺼내 테이블에서 기다릴 때까지 기다린다.
+        while (pointHistoryOutbox.pendingCount() > 0) {
+            Thread.sleep(1);
+        }
+        written.add(pointHistoryOutbox.append(1L, 2L, TransactionType.CHARGE, 2L));
+        written.add(pointHistoryOutbox.append(1L, 3L, TransactionType.CHARGE, 3L));
+
+        // when
+        CompletableFuture<CompletableFuture<PointHistory>> blocked =
+                CompletableFuture.supplyAsync(() -> pointHistoryOutbox.append(1L, 4L, TransactionType.CHARGE, 4L));
+
+        // then
+        Thread.sleep(100);
+        assertFalse(blocked.isDone());
+        assertEquals(2, pointHistoryOutbox.pendingCount());
+
+        pointHistoryTable.release();
+        written.add(blocked.get(5, TimeUnit.SECONDS));
+        CompletableFuture.allOf(written.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(1L, 2L, 3L, 4L), pointHistoryTable.rows().stream().map(PointHistory::amount).toList());
+    }
+
+    @Test
+    void 충전은_내역이_테이블에_기록되기를_기다리지_않고_유저_락을_반납한다() throws Exception {
+        // given
+        long userId = 1L;
+        PointServiceFixture fixture = new PointServiceFixture()
+                .userPointStore(new LongKeyUserPointStore(4))
+                .pointHistoryTable(pointHistoryTable)
+                .build();
+        PointService pointService = fixture.pointService();
+        pointHistoryTable.block();
+
+        // when
+        // 내역 테이블이 막혀 있어도 같은 유저의 다음 충전까지 처리된다.
+        long point = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            pointService.chargeUserPoint(userId, 100L);
+            return pointService.chargeUserPoint(userId, 50L).point();
+        });
+
+        // then
+        assertEquals(150L, point);
+        assertTrue(pointHistoryTable.rows().isEmpty());
+
+        pointHistoryTable.release();
+        assertEquals(List.of(100L, 50L),
+                pointService.getUserPointHistory(userId).stream().map(PointHistory::amount).toList());
+        fixture.shutdown();
+    }
+}
@@ -0,0 +1,170 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointContentionProfiler;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.PointSummary;
+import io.hhplus.tdd.point.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PointHistoryRepositoryTest {
+
+    private final PointMetrics pointMetrics = new PointMetrics(new SimpleMeterRegistry(),
+            new PointContentionProfiler(true, 20, 4, 4096, Duration.ofSeconds(60)));
+
+    @Test
+    void 처음_담은_크기보다_내역이_많아져도_테이블과_같은_순서로_조회된다() {
+        // given
+        // 유저마다 첫 조회 전 1건, 이후 100건을 다른 유저와 번갈아 기록해 유저별 배열이 여러 번 늘어나게 한다.
+        int users = 3;
+        int historiesPerUser = 100;
+        UnthrottledPointHistoryTable pointHistoryTable = new UnthrottledPointHistoryTable();
+        PointHistoryRepository pointHistoryRepository = new PointHistoryRepository(pointHistoryTable, pointMetrics);
+        for (long userId = 1; userId <= users; userId++) {
+            pointHistoryRepository.insert(userId, 1L, TransactionType.CHARGE, 1_000L);
+            pointHistoryRepository.findAllByUserId(userId);
+        }
+
+        // when
+        for (long amount = 1; amount <= historiesPerUser; amount++) {
+            for (long userId = 1; userId <= users; userId++) {
+                TransactionType type = amount % 3 == 0 ? TransactionType.USE : TransactionType.CHARGE;
+                pointHistoryRepository.insert(userId, amount, type, 1_000L + amount);
+            }
+        }
+
+        // then
+        // 처음 조회한 뒤에 기록된 내역도 테이블을 다시 읽은 결과와 같고, 합계도 같은 내역으로 계산된다.
+        for (long userId = 1; userId <= users; userId++) {
+            List<PointHistory> fromTable = pointHistoryTable.selectAllByUserId(userId);
+            assertEquals(1 + historiesPerUser, fromTable.size());
+            assertEquals(fromTable, pointHistoryRepository.findAllByUserId(userId));
+            assertEquals(fromTable, new PointHistoryRepository(pointHistoryTable, pointMetrics).findAllByUserId(userId));
+
+            PointSummary summary = pointHistoryRepository.findSummaryByUserId(userId);
+            assertEquals(sum(fromTable, TransactionType.CHARGE), summary.totalCharged());
+            assertEquals(sum(fromTable, TransactionType.USE), summary.totalUsed());
+        }
+    }
+
+    @Test
+    void 시각이_앞서는_내역이_나중에_기록되어도_기간_조회는_시각_순으로_반환한다() {
+        // given
+        long userId = 1L;
+        UnthrottledPointHistoryTable pointHistoryTable = new UnthrottledPointHistoryTable();
+        PointHistoryRepository pointHistoryRepository = new PointHistoryRepository(pointHistoryTable, pointMetrics);
+        pointHistoryRepository.insert(userId, 1L, TransactionType.CHARGE, 5_000L);
+        pointHistoryRepository.findAllByUserId(userId);
+
+        // when
+        // 시각이 거꾸로인 내역을 처음 담은 크기보다 많이 기록한다.
+        for (long amount = 2; amount <= 20; amount++) {
+            TransactionType type = amount % 2 == 0 ? TransactionType.USE : TransactionType.CHARGE;
+            pointHistoryRepository.insert(userId, amount, type, 5_000L - amount * 100);
+        }
+
+        // then
+        List<PointHistory> byTime = pointHistoryTable.selectAllByUserId(userId).stream()
+                .sorted(Comparator.comparingLong(PointHistory::updateMillis)).toList();
+        assertEquals(byTime, pointHistoryRepository.findAllByUserIdBetween(userId, 0L, Long.MAX_VALUE, null));
+        assertEquals(byTime.stream().filter(history -> history.type() == TransactionType.USE).toList(),
+                pointHistoryRepository.findAllByUserIdBetween(userId, 0L, Long.MAX_VALUE, TransactionType.USE));
+        // 기록된 순서(id 순)는 그대로다.
+        assertEquals(pointHistoryTable.selectAllByUserId(userId), pointHistoryRepository.findAllByUserId(userId));
+    }
+
+    @Test
+    void 첫_조회가_기록_직후의_테이블을_읽어도_같은_내역이_두_번_담기지_않는다() {
+        // given
+        // 테이블 기록 직후 인덱스에 추가하기 전에 첫 조회가 끼어들어, 첫 조회가 방금 기록한 내역까지 읽어오게 한다.
+        long userId = 1L;
+        PointHistoryRepository[] repository = new PointHistoryRepository[1];
+        UnthrottledPointHistoryTable pointHistoryTable = new UnthrottledPointHistoryTable() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                PointHistory history = super.insert(userId, amount, type, updateMillis);
+                repository[0].findAllByUserId(userId);
+                return history;
+            }
+        };
+        repository[0] = new PointHistoryRepository(pointHistoryTable, pointMetrics);
+
+        // when
+        repository[0].insert(userId, 100L, TransactionType.CHARGE, 1_000L);
+        repository[0].insert(userId, 50L, TransactionType.USE, 2_000L);
+
+        // then
+        assertEquals(pointHistoryTable.selectAllByUserId(userId), repository[0].findAllByUserId(userId));
+        assertEquals(List.of(100L, 50L), repository[0].findAllByUserId(userId).stream().map(PointHistory::amount).toList());
+        assertEquals(100L, repository[0].findSummaryByUserId(userId).totalCharged());
+        assertEquals(1L, repository[0].findSummaryByUserId(userId).chargeCount());
+    }
+
+    @Test
+    void WAL_순번으로_기록할_때_첫_조회가_테이블_기록과_겹쳐도_같은_내역이_두_번_담기지_않는다() {
+        // given
+        // 테이블 기록 중에 첫 조회가 끼어들게 한다. 테이블은 WAL 순번과 다른 id 를 매긴다.
+        long userId = 1L;
+        PointHistoryRepository[] repository = new PointHistoryRepository[1];
+        UnthrottledPointHistoryTable pointHistoryTable = new UnthrottledPointHistoryTable() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                PointHistory history = super.insert(userId, amount, type, updateMillis);
+                repository[0].findAllByUserId(userId);
+                return history;
+            }
+        };
+        repository[0] = new PointHistoryRepository(pointHistoryTable, pointMetrics);
+
+        // when
+        repository[0].insert(7L, userId, 100L, TransactionType.CHARGE, 1_000L);
+        repository[0].insert(8L, userId, 50L, TransactionType.USE, 2_000L);
+
+        // then
+        assertEquals(List.of(7L, 8L), repository[0].findAllByUserId(userId).stream().map(PointHistory::id).toList());
+        assertEquals(1L, repository[0].findSummaryByUserId(userId).chargeCount());
+        assertEquals(1L, repository[0].findSummaryByUserId(userId).useCount());
+    }
+
+    @Test
+    void 모든_내역을_기록한_저장소는_조회할_때_테이블을_훑지_않는다() {
+        // given
+        // 테이블을 훑은 횟수를 센다.
+        int[] scans = new int[1];
+        UnthrottledPointHistoryTable pointHistoryTable = new UnthrottledPointHistoryTable() {
+            @Override
+            public List<PointHistory> selectAllByUserId(long userId) {
+                scans[0]++;
+                return super.selectAllByUserId(userId);
+            }
+        };
+        PointHistoryRepository pointHistoryRepository = new PointHistoryRepository(pointHistoryTable, pointMetrics);
+
+        // when
+        pointHistoryRepository.insert(1L, 100L, TransactionType.CHARGE, 1_000L);
+        pointHistoryRepository.insert(2L, 200L, TransactionType.CHARGE, 2_000L);
+        pointHistoryRepository.insert(1L, 50L, TransactionType.USE, 3_000L);
+
+        // then
+        // 처음 조회하는 유저와 내역이 없는 유저도 인덱스에서 바로 반환한다.
+        assertEquals(List.of(100L, 50L), pointHistoryRepository.findAllByUserId(1L).stream().map(PointHistory::amount).toList());
+        assertEquals(List.of(200L), pointHistoryRepository.findAllByUserId(2L).stream().map(PointHistory::amount).toList());
+        assertEquals(List.of(), pointHistoryRepository.findAllByUserId(3L));
+        assertEquals(0, scans[0]);
+        // 다른 곳에서 기록한 내역이 있는 테이블은 첫 조회 시 테이블에서 읽어온다.
+        PointHistoryRepository restarted = new PointHistoryRepository(pointHistoryTable, pointMetrics);
+        assertEquals(pointHistoryTable.selectAllByUserId(1L), restarted.findAllByUserId(1L));
+        assertEquals(2, scans[0]);
+    }
+
+    private long sum(List<PointHistory> histories, TransactionType type) {
+        return histories.stream().filter(history -> history.type() == type).mapToLong(PointHistory::amount).sum();
+    }
+}
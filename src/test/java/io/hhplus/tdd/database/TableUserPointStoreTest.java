@@ -0,0 +1,59 @@
+package io.hhplus.tdd.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TableUserPointStoreTest {
+
+    @Test
+    void 여러_유저가_동시에_저장해도_테이블의_포인트가_유실되지_않는다() throws Exception {
+        // given
+        // 지연 없이 UserPointTable 과 같은 HashMap 을 사용하는 테이블로, 맵이 커지는 동안 저장이 많이 겹치게 한다.
+        int threads = 8;
+        int usersPerThread = 5_000;
+        int rounds = 3;
+
+        UnthrottledUserPointTable userPointTable = new UnthrottledUserPointTable();
+        TableUserPointStore userPointStore = new TableUserPointStore(userPointTable);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        // 스레드마다 서로 다른 유저를 맡아, 처음 저장(새 유저)과 이후 저장(이미 저장한 유저)을 모두 다른 스레드와 겹치게 한다.
+        for (int i = 0; i < threads; i++) {
+            int thread = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int round = 1; round <= rounds; round++) {
+                    for (long user = 0; user < usersPerThread; user++) {
+                        long userId = user * threads + thread;
+                        userPointStore.insertOrUpdate(userId, userId + round);
+                        userPointStore.selectById(userId);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        assertEquals((long) threads * usersPerThread, userPointTable.size());
+        for (long userId = 0; userId < (long) threads * usersPerThread; userId++) {
+            assertEquals(userId + rounds, userPointStore.selectById(userId).point(), "userId=" + userId);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * PointHistoryTable 과 같이 동기화하지 않은 ArrayList 와 id 순번을 사용하되, 지연은 없다.
+ * block() 을 호출하면 release() 할 때까지 insert 가 기다린다.
+ */
+public class UnthrottledPointHistoryTable extends PointHistoryTable {
+    private final List<PointHistory> table = new ArrayList<>();
+    private long cursor = 1;
+    private volatile CountDownLatch gate;
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        CountDownLatch current = gate;
+        if (current != null) {
+            try {
+                current.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        PointHistory pointHistory = new PointHistory(cursor++, userId, amount, type, updateMillis);
+        table.add(pointHistory);
+        return pointHistory;
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        return table.stream().filter(pointHistory -> pointHistory.userId() == userId).toList();
+    }
+
+    void block() {
+        gate = new CountDownLatch(1);
+    }
+
+    void release() {
+        gate.countDown();
+    }
+
+    List<PointHistory> rows() {
+        return table;
+    }
+}
@@ -0,0 +1,29 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * UserPointTable 과 같이 동기화하지 않은 HashMap 에 담되, 지연은 없다.
+ */
+public class UnthrottledUserPointTable extends UserPointTable {
+    private final Map<Long, UserPoint> table = new HashMap<>();
+
+    @Override
+    public UserPoint selectById(Long id) {
+        return table.getOrDefault(id, UserPoint.empty(id));
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+        table.put(id, userPoint);
+        return userPoint;
+    }
+
+    int size() {
+        return table.size();
+    }
+}
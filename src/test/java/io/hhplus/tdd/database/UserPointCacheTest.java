@@ -0,0 +1,91 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserPointCacheTest {
+
+    @Test
+    void 세그먼트가_가득_차면_그_세그먼트에서_가장_오래_사용되지_않은_유저만_제거된다() {
+        // given
+        // 세그먼트 2개, 세그먼트마다 2명 (짝수 userId 는 0번, 홀수 userId 는 1번 세그먼트)
+        UserPointCache userPointCache = new UserPointCache(4, 2);
+        userPointCache.put(0L, new UserPoint(0L, 100L, 1L));
+        userPointCache.put(2L, new UserPoint(2L, 200L, 1L));
+        userPointCache.put(1L, new UserPoint(1L, 10L, 1L));
+        userPointCache.put(3L, new UserPoint(3L, 30L, 1L));
+        // 0 을 사용해 2 가 가장 오래 사용되지 않은 유저가 된다.
+        userPointCache.get(0L);
+
+        // when
+        userPointCache.put(4L, new UserPoint(4L, 400L, 1L));
+
+        // then
+        assertNull(userPointCache.get(2L));
+        assertEquals(100L, userPointCache.get(0L).point());
+        assertEquals(400L, userPointCache.get(4L).point());
+        // 다른 세그먼트는 제거되지 않는다.
+        assertEquals(10L, userPointCache.get(1L).point());
+        assertEquals(30L, userPointCache.get(3L).point());
+        assertEquals(1L, userPointCache.stats().evictions());
+        assertEquals(4L, userPointCache.stats().size());
+    }
+
+    @Test
+    void 테이블을_읽는_동안_같은_세그먼트에_쓰기가_있으면_읽어온_값은_저장하지_않는다() {
+        // given
+        long userId = 1L;
+        UserPointCache userPointCache = new UserPointCache(100, 1);
+        long writeStamp = userPointCache.writeStamp(userId);
+
+        // when
+        // 테이블에서 100 을 읽는 동안 충전이 150 을 저장한다.
+        userPointCache.put(userId, new UserPoint(userId, 150L, 2L));
+        userPointCache.putIfUnchanged(userId, new UserPoint(userId, 100L, 1L), writeStamp);
+
+        // then
+        assertEquals(150L, userPointCache.get(userId).point());
+    }
+
+    @Test
+    void 같은_세그먼트의_다른_유저가_쓰여도_읽어온_값은_저장하지_않고_쓰기가_없으면_저장한다() {
+        // given
+        UserPointCache userPointCache = new UserPointCache(100, 1);
+        long staleStamp = userPointCache.writeStamp(1L);
+        userPointCache.put(2L, new UserPoint(2L, 200L, 1L));
+
+        // when
+        userPointCache.putIfUnchanged(1L, new UserPoint(1L, 100L, 1L), staleStamp);
+        userPointCache.putIfUnchanged(3L, new UserPoint(3L, 300L, 1L), userPointCache.writeStamp(3L));
+
+        // then
+        assertNull(userPointCache.get(1L));
+        assertEquals(300L, userPointCache.get(3L).point());
+    }
+
+    @Test
+    void 캐시_조회_결과가_hit_miss_로_집계되어_지표로_노출된다() {
+        // given
+        UserPointCache userPointCache = new UserPointCache(2, 1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new UserPointCacheMetrics(userPointCache).bindTo(registry);
+        userPointCache.put(1L, new UserPoint(1L, 100L, 1L));
+
+        // when
+        userPointCache.get(1L);
+        userPointCache.get(1L);
+        userPointCache.get(2L);
+        userPointCache.put(2L, new UserPoint(2L, 200L, 1L));
+        userPointCache.put(3L, new UserPoint(3L, 300L, 1L));
+
+        // then
+        assertEquals(new UserPointCache.Stats(2L, 1L, 1L, 2L), userPointCache.stats());
+        assertEquals(2.0, registry.get("point.cache.requests").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("point.cache.requests").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("point.cache.evictions").functionCounter().count());
+        assertEquals(2.0, registry.get("point.cache.size").gauge().value());
+    }
+}
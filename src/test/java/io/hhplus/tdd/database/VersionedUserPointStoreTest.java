@@ -0,0 +1,90 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointCommand;
+import io.hhplus.tdd.point.PointCommandResult;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointServiceFixture;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionedUserPointStoreTest {
+
+    private PointServiceFixture fixture;
+
+    @AfterEach
+    void tearDown() {
+        fixture.shutdown();
+    }
+
+    @Test
+    void 유저_수가_한도를_넘으면_반영된_유저를_버리고_다시_읽을_때_저장된_포인트를_읽는다() {
+        // given
+        int users = 10;
+        fixture = new PointServiceFixture().build();
+        VersionedUserPointStore versionedUserPointStore =
+                new VersionedUserPointStore(fixture.userPointRepository(), fixture.pointLedger(), 4);
+
+        // when
+        for (long userId = 1; userId <= users; userId++) {
+            VersionedUserPointStore.Version read = versionedUserPointStore.read(userId);
+            assertNotNull(versionedUserPointStore.commit(read, new UserPoint(userId, userId * 10, 0L), charged(userId, userId * 10)));
+        }
+
+        // then
+        assertTrue(versionedUserPointStore.size() <= 4, "size=" + versionedUserPointStore.size());
+        for (long userId = 1; userId <= users; userId++) {
+            assertEquals(userId * 10, versionedUserPointStore.read(userId).point().point());
+        }
+        assertTrue(versionedUserPointStore.size() <= 4, "size=" + versionedUserPointStore.size());
+    }
+
+    @Test
+    void 반영에_실패하면_요청은_같은_예외로_실패하고_다음_요청은_저장된_포인트를_다시_읽는다() {
+        // given
+        long userId = 1L;
+        AtomicBoolean failing = new AtomicBoolean();
+        IllegalStateException failure = new IllegalStateException("테이블에 저장하지 못했습니다.");
+        UnthrottledUserPointTable userPointTable = new UnthrottledUserPointTable() {
+            @Override
+            public UserPoint insertOrUpdate(long id, long amount) {
+                if (failing.get()) {
+                    throw failure;
+                }
+                return super.insertOrUpdate(id, amount);
+            }
+        };
+        fixture = new PointServiceFixture().userPointTable(userPointTable).build();
+        VersionedUserPointStore versionedUserPointStore =
+                new VersionedUserPointStore(fixture.userPointRepository(), fixture.pointLedger(), 100);
+        VersionedUserPointStore.Version read = versionedUserPointStore.read(userId);
+
+        // when
+        failing.set(true);
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                versionedUserPointStore.commit(read, new UserPoint(userId, 100L, 0L), charged(userId, 100L)));
+        failing.set(false);
+
+        // then
+        assertSame(failure, exception);
+        // 반영되지 않은 버전(100)은 버려지고, 테이블에 저장된 포인트(0)를 다시 읽는다.
+        VersionedUserPointStore.Version reread = versionedUserPointStore.read(userId);
+        assertEquals(0L, reread.point().point());
+        assertNull(versionedUserPointStore.commit(read, new UserPoint(userId, 100L, 0L), charged(userId, 100L)));
+
+        assertNotNull(versionedUserPointStore.commit(reread, new UserPoint(userId, 50L, 0L), charged(userId, 50L)));
+        assertEquals(50L, fixture.userPointRepository().findById(userId).point());
+        fixture.pointHistoryOutbox().flush(userId);
+        assertEquals(List.of(50L), fixture.pointHistoryRepository().findAllByUserId(userId).stream()
+                .map(PointHistory::amount).toList());
+    }
+
+    private List<PointCommandResult> charged(long userId, long amount) {
+        return List.of(PointCommandResult.success(PointCommand.charge(userId, amount), new UserPoint(userId, amount, 0L)));
+    }
+}
@@ -0,0 +1,213 @@
+package io.hhplus.tdd.database.wal;
+
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.PointLots;
+import io.hhplus.tdd.database.TableUserPointStore;
+import io.hhplus.tdd.database.UserPointCache;
+import io.hhplus.tdd.database.UserPointImage;
+import io.hhplus.tdd.database.UnthrottledPointHistoryTable;
+import io.hhplus.tdd.database.UnthrottledUserPointTable;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.PointServiceFixture;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointWalRecoveryTest {
+
+    @TempDir
+    private Path walDirectory;
+
+    @Test
+    void WAL_사용_시_재시작하면_WAL_에서_포인트와_내역이_복구된다() {
+        // given
+        long userId = 1L;
+
+        PointWriteAheadLog wal = new PointWriteAheadLog(true, walDirectory.toString(), 1);
+        PointServiceFixture fixture = new PointServiceFixture()
+                .writeAheadLog(wal)
+                .userPointImage(new UserPointImage(true))
+                .build();
+        PointService walPointService = fixture.pointService();
+
+        walPointService.chargeUserPoint(userId, 1_000L);
+        walPointService.UseUserPoint(userId, 300L);
+        walPointService.chargeUserPoint(userId, 50L);
+        fixture.shutdown();
+        wal.shutdown();
+
+        // when
+        PointWriteAheadLog reopened = new PointWriteAheadLog(true, walDirectory.toString(), 1);
+        Recovered recovered = recover(reopened, 2, true, fixture);
+
+        // then
+        assertEquals(750L, recovered.userPointRepository().findById(userId).point());
+        List<PointHistory> histories = recovered.pointHistoryRepository().findAllByUserId(userId);
+        assertEquals(List.of(1L, 2L, 3L), histories.stream().map(PointHistory::id).toList());
+        assertEquals(List.of(TransactionType.CHARGE, TransactionType.USE, TransactionType.CHARGE),
+                histories.stream().map(PointHistory::type).toList());
+        // 다음 순번은 마지막 순번 뒤부터 이어진다.
+        assertEquals(4L, reopened.append(userId, TransactionType.CHARGE, 10L, 760L, System.currentTimeMillis()));
+
+        reopened.shutdown();
+    }
+
+    @Test
+    void 스냅샷_후_재시작하면_스냅샷과_이후의_WAL_로_복구되고_반영된_WAL_파일은_정리된다() {
+        // given
+        // 1MB 파일에는 레코드가 21845 건 들어가므로, 스냅샷 전에 파일이 넘어가도록 충분히 기록한다.
+        int users = 100;
+        int rounds = 250;
+
+        PointWriteAheadLog wal = new PointWriteAheadLog(true, walDirectory.toString(), 1);
+        UserPointImage userPointImage = new UserPointImage(true);
+        PointServiceFixture fixture = new PointServiceFixture()
+                .writeAheadLog(wal)
+                .userPointImage(userPointImage)
+                .build();
+        PointService walPointService = fixture.pointService();
+
+        for (int round = 0; round < rounds; round++) {
+            for (long userId = 1; userId <= users; userId++) {
+                walPointService.chargeUserPoint(userId, 10L);
+            }
+        }
+        long snapshotSeq = new PointSnapshotter(wal, userPointImage, 0, 1, false).snapshot();
+        // 스냅샷 이후의 변경은 WAL 로 복구된다.
+        walPointService.UseUserPoint(1L, 500L);
+        fixture.shutdown();
+        wal.shutdown();
+
+        // when
+        PointWriteAheadLog reopened = new PointWriteAheadLog(true, walDirectory.toString(), 1);
+        Recovered recovered = recover(reopened, 1, false, fixture);
+
+        // then
+        assertEquals((long) users * rounds, snapshotSeq);
+        assertTrue(reopened.firstSeq() > 1);
+        assertEquals(users, recovered.userPointImage().size());
+        assertEquals(10L * rounds - 500L, recovered.userPointRepository().findById(1L).point());
+        assertEquals(10L * rounds, recovered.userPointRepository().findById(users).point());
+        assertEquals(snapshotSeq + 2, reopened.append(1L, TransactionType.CHARGE, 10L, 10L * rounds - 490L, System.currentTimeMillis()));
+
+        reopened.shutdown();
+    }
+
+    @Test
+    void WAL_기록과_포인트_저장_사이에_만든_스냅샷은_그_레코드_앞까지만_담아_재시작하면_그_레코드부터_복구된다() {
+        // given
+        long userId = 1L;
+
+        PointWriteAheadLog wal = new PointWriteAheadLog(true, walDirectory.toString(), 1);
+        UserPointImage userPointImage = new UserPointImage(true);
+        PointSnapshotter pointSnapshotter = new PointSnapshotter(wal, userPointImage, 0, 1, false);
+        long[] snapshotSeq = new long[1];
+        AtomicBoolean snapshotOnSave = new AtomicBoolean();
+        // 테이블 저장은 WAL 기록 뒤, 이미지 반영 전에 호출되므로 이때 스냅샷을 만든다.
+        UnthrottledUserPointTable userPointTable = new UnthrottledUserPointTable() {
+            @Override
+            public UserPoint insertOrUpdate(long id, long amount) {
+                if (snapshotOnSave.getAndSet(false)) {
+                    snapshotSeq[0] = pointSnapshotter.snapshot();
+                }
+                return super.insertOrUpdate(id, amount);
+            }
+        };
+        PointServiceFixture fixture = new PointServiceFixture()
+                .userPointTable(userPointTable)
+                .writeAheadLog(wal)
+                .userPointImage(userPointImage)
+                .build();
+        PointService walPointService = fixture.pointService();
+
+        walPointService.chargeUserPoint(userId, 1_000L);
+        snapshotOnSave.set(true);
+        walPointService.chargeUserPoint(userId, 500L);
+        fixture.shutdown();
+        wal.shutdown();
+
+        // when
+        PointWriteAheadLog reopened = new PointWriteAheadLog(true, walDirectory.toString(), 1);
+        Recovered recovered = recover(reopened, 1, false, fixture);
+
+        // then
+        // 스냅샷에는 두 번째 충전 전의 포인트(1000)가 담기고, 두 번째 충전은 WAL 에서 다시 반영된다.
+        assertEquals(1L, snapshotSeq[0]);
+        assertEquals(1_500L, recovered.userPointRepository().findById(userId).point());
+        assertEquals(List.of(2L), recovered.pointHistoryRepository().findAllByUserId(userId).stream().map(PointHistory::id).toList());
+
+        reopened.shutdown();
+    }
+
+    @Test
+    void 포인트_전송의_충전_레코드가_기록되기_전에_종료되면_재시작할_때_사용_레코드도_반영하지_않는다() throws Exception {
+        // given
+        long fromId = 1L;
+        long toId = 2L;
+
+        PointWriteAheadLog wal = new PointWriteAheadLog(true, walDirectory.toString(), 1);
+        PointServiceFixture fixture = new PointServiceFixture()
+                .writeAheadLog(wal)
+                .userPointImage(new UserPointImage(true))
+                .build();
+        PointService walPointService = fixture.pointService();
+
+        walPointService.chargeUserPoint(fromId, 1_000L);
+        walPointService.transfer(fromId, toId, 300L);
+        walPointService.transfer(fromId, toId, 200L);
+        fixture.shutdown();
+        wal.shutdown();
+        // 두 번째 전송의 충전 레코드(5번)가 디스크에 내려가기 전에 종료된 것처럼 지운다.
+        try (FileChannel channel = FileChannel.open(walDirectory.resolve(String.format("%020d.wal", 1)), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(WalSegment.RECORD_SIZE), 4L * WalSegment.RECORD_SIZE);
+        }
+
+        // when
+        PointWriteAheadLog reopened = new PointWriteAheadLog(true, walDirectory.toString(), 1);
+        Recovered recovered = recover(reopened, 1, false, fixture);
+
+        // then
+        // 첫 번째 전송은 모두, 두 번째 전송은 어느 쪽도 반영되지 않는다.
+        assertEquals(700L, recovered.userPointRepository().findById(fromId).point());
+        assertEquals(300L, recovered.userPointRepository().findById(toId).point());
+        assertEquals(List.of(1L, 2L), recovered.pointHistoryRepository().findAllByUserId(fromId).stream().map(PointHistory::id).toList());
+        assertEquals(List.of(3L), recovered.pointHistoryRepository().findAllByUserId(toId).stream().map(PointHistory::id).toList());
+        // 버린 사용 레코드의 순번부터 다시 기록한다.
+        assertEquals(4L, reopened.lastSeq() + 1);
+
+        reopened.shutdown();
+    }
+
+    // 새 테이블과 이미지로 reopened 의 스냅샷과 WAL 을 다시 읽는다.
+    private Recovered recover(PointWriteAheadLog reopened, int keep, boolean archive, PointServiceFixture fixture) {
+        UserPointImage userPointImage = new UserPointImage(true);
+        UserPointRepository userPointRepository =
+                new UserPointRepository(new TableUserPointStore(new UnthrottledUserPointTable()), new UserPointCache(100, 1),
+                        userPointImage, fixture.pointMetrics());
+        PointHistoryRepository pointHistoryRepository = new PointHistoryRepository(new UnthrottledPointHistoryTable(), fixture.pointMetrics());
+        PointLots pointLots = fixture.pointLots();
+        new PointWalRecovery(reopened, new PointSnapshotter(reopened, userPointImage, 0, keep, archive),
+                userPointImage, pointHistoryRepository, pointLots).recover();
+
+        return new Recovered(userPointImage, userPointRepository, pointHistoryRepository);
+    }
+
+    private record Recovered(
+            UserPointImage userPointImage,
+            UserPointRepository userPointRepository,
+            PointHistoryRepository pointHistoryRepository
+    ) {
+    }
+}
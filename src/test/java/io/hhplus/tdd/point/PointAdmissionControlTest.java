@@ -0,0 +1,44 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointAdmissionControlTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PointMetrics pointMetrics = new PointMetrics(meterRegistry,
+            new PointContentionProfiler(true, 20, 4, 4096, Duration.ofSeconds(60)));
+
+    @Test
+    void 처리_중인_요청이_한도를_넘으면_실행하지_않고_PointBusyException_으로_실패한다() {
+        // given
+        PointAdmissionControl admissionControl =
+                new PointAdmissionControl(true, 2, 1, 0, Duration.ZERO, pointMetrics);
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+
+        // when
+        CompletableFuture<String> admitted = admissionControl.admit(1L, () -> first);
+        CompletableFuture<String> sameUser = admissionControl.admit(1L, () -> CompletableFuture.completedFuture("same"));
+        admissionControl.admit(2L, () -> second);
+        CompletableFuture<String> overGlobal = admissionControl.admit(3L, () -> CompletableFuture.completedFuture("over"));
+
+        // then
+        assertInstanceOf(PointBusyException.class, assertThrows(CompletionException.class, sameUser::join).getCause());
+        assertInstanceOf(PointBusyException.class, assertThrows(CompletionException.class, overGlobal::join).getCause());
+        assertEquals(1, meterRegistry.get("point.admission.rejections").tag("scope", "user").counter().count());
+        assertEquals(1, meterRegistry.get("point.admission.rejections").tag("scope", "global").counter().count());
+
+        // 처리가 끝나면 자리를 반납한다.
+        first.complete("done");
+        assertEquals("done", admitted.join());
+        assertEquals("again", admissionControl.admit(1L, () -> CompletableFuture.completedFuture("again")).join());
+        second.complete("done");
+    }
+}
@@ -0,0 +1,82 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointBatchServiceTest {
+
+    private final PointMetrics pointMetrics = new PointMetrics(new SimpleMeterRegistry(),
+            new PointContentionProfiler(true, 20, 4, 4096, Duration.ofSeconds(60)));
+
+    private PointServiceFixture fixture;
+    private PointBatchService pointBatchService;
+
+    @AfterEach
+    void tearDown() {
+        if (pointBatchService != null) {
+            pointBatchService.shutdown();
+        }
+        if (fixture != null) {
+            fixture.shutdown();
+        }
+    }
+
+    @Test
+    void 처리_한도를_넘은_유저의_요청은_실행하지_않고_항목별로_PointBusyException_으로_실패한다() {
+        // given
+        // 유저별 한도 1건, 1번 유저는 처리 중인 요청이 이미 있다.
+        fixture = new PointServiceFixture().build();
+        PointAdmissionControl admissionControl =
+                new PointAdmissionControl(true, 64, 1, 0, Duration.ZERO, pointMetrics);
+        pointBatchService = new PointBatchService(fixture.pointService(), admissionControl, 100, 2);
+        CompletableFuture<UserPoint> inFlight = new CompletableFuture<>();
+        admissionControl.admit(1L, () -> inFlight);
+
+        // when
+        List<PointCommandResult> results = pointBatchService.apply(List.of(
+                PointCommand.charge(1L, 100L),
+                PointCommand.charge(2L, 200L),
+                PointCommand.charge(1L, 300L)
+        )).join();
+
+        // then
+        assertInstanceOf(PointBusyException.class, results.get(0).error());
+        assertEquals(200L, results.get(1).userPoint().point());
+        assertInstanceOf(PointBusyException.class, results.get(2).error());
+        assertEquals(0L, fixture.pointService().getUserPoint(1L).point());
+
+        // 처리가 끝나면 같은 유저의 일괄 요청도 다시 받는다.
+        inFlight.complete(UserPoint.empty(1L));
+        assertEquals(100L, pointBatchService.apply(List.of(PointCommand.charge(1L, 100L))).join().get(0).userPoint().point());
+    }
+
+    @Test
+    void 만료_요청은_그_항목만_실패하고_같은_유저의_나머지_요청은_처리된다() {
+        // given
+        fixture = new PointServiceFixture().build();
+        PointAdmissionControl admissionControl =
+                new PointAdmissionControl(true, 64, 8, 0, Duration.ZERO, pointMetrics);
+        pointBatchService = new PointBatchService(fixture.pointService(), admissionControl, 100, 2);
+
+        // when
+        List<PointCommandResult> results = pointBatchService.apply(List.of(
+                PointCommand.charge(1L, 500L),
+                PointCommand.expire(1L, 100L),
+                PointCommand.use(1L, 200L)
+        )).join();
+
+        // then
+        assertEquals(500L, results.get(0).userPoint().point());
+        PointRejectedException rejected = assertInstanceOf(PointRejectedException.class, results.get(1).error());
+        assertEquals(PointRejectedException.Reason.INVALID_TYPE, rejected.reason());
+        assertEquals(300L, results.get(2).userPoint().point());
+        assertEquals(300L, fixture.pointService().getUserPoint(1L).point());
+    }
+}
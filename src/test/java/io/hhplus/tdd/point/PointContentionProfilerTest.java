@@ -0,0 +1,37 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointContentionProfilerTest {
+
+    @Test
+    void 요청이_몰린_유저는_다른_유저가_많아도_요청_수_상위_유저로_조회된다() {
+        // given
+        // 칸이 64개뿐이라 가벼운 유저들이 칸을 나누어 쓰지만, 몰린 유저의 추정치가 가장 크게 남는다.
+        PointContentionProfiler profiler = new PointContentionProfiler(true, 3, 4, 64, Duration.ofMinutes(10));
+        PointMetrics pointMetrics = new PointMetrics(new SimpleMeterRegistry(), profiler);
+
+        // when
+        for (int round = 0; round < 100; round++) {
+            for (long userId = 1_000; userId < 2_000; userId++) {
+                pointMetrics.recordRequest(userId, 1);
+            }
+            pointMetrics.recordRequest(7L, 100);
+            pointMetrics.recordRequest(8L, 50);
+            pointMetrics.recordRequest(9L, 25);
+        }
+
+        // then
+        List<PointContentionProfiler.HotUser> hotUsers = profiler.topUsers(PointContentionProfiler.Dimension.REQUESTS);
+        assertEquals(List.of(7L, 8L, 9L), hotUsers.stream().map(PointContentionProfiler.HotUser::userId).toList());
+        // 추정치는 실제 값보다 작지 않다.
+        assertTrue(hotUsers.get(0).estimate() >= 10_000L);
+        assertTrue(profiler.topUsers(PointContentionProfiler.Dimension.REJECTIONS).isEmpty());
+    }
+}
@@ -0,0 +1,60 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.LongKeyUserPointStore;
+import io.hhplus.tdd.database.PointLots;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PointExpirationSchedulerTest {
+
+    private PointServiceFixture fixture;
+    private PointExpirationScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+        fixture.shutdown();
+    }
+
+    @Test
+    void 포인트_만료_시_사용은_오래된_충전부터_차감되고_기간이_지난_충전의_남은_포인트만_만료된다() throws Exception {
+        // given
+        long userId = 1L;
+        Duration period = Duration.ofHours(1);
+
+        PointLots expiringPointLots = new PointLots(true, period, Duration.ofMillis(10), 64, 5);
+        fixture = new PointServiceFixture()
+                .userPointStore(new LongKeyUserPointStore(4))
+                .pointLots(expiringPointLots)
+                .build();
+        PointService expiringPointService = fixture.pointService();
+        scheduler = new PointExpirationScheduler(1, expiringPointLots, fixture.userPointRepository(),
+                fixture.pointLedger(), fixture.pointCommandExecutor(), fixture.optimisticPointUpdater(), fixture.pointMetrics());
+
+        // 첫 충전 100 중 30 을 사용하면 첫 충전에는 70 이 남는다.
+        UserPoint first = expiringPointService.chargeUserPoint(userId, 100L);
+        Thread.sleep(5);
+        UserPoint second = expiringPointService.chargeUserPoint(userId, 200L);
+        expiringPointService.UseUserPoint(userId, 30L);
+
+        // when
+        UserPoint afterFirst = scheduler.expire(userId, first.updateMillis() + period.toMillis()).join();
+        UserPoint again = scheduler.expire(userId, first.updateMillis() + period.toMillis()).join();
+        UserPoint afterSecond = scheduler.expire(userId, second.updateMillis() + period.toMillis()).join();
+
+        // then
+        assertEquals(200L, afterFirst.point());
+        assertEquals(200L, again.point());
+        assertEquals(0L, afterSecond.point());
+
+        List<PointHistory> expired = expiringPointService.getUserPointHistoryBetween(
+                userId, 0L, Long.MAX_VALUE, TransactionType.EXPIRE);
+        assertEquals(List.of(70L, 200L), expired.stream().map(PointHistory::amount).toList());
+        assertEquals(270L, expiringPointService.getUserPointSummary(userId).totalExpired());
+    }
+}
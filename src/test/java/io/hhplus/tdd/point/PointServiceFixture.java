@@ -0,0 +1,185 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryOutbox;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.PointLedger;
+import io.hhplus.tdd.database.PointLots;
+import io.hhplus.tdd.database.TableUserPointStore;
+import io.hhplus.tdd.database.UnthrottledPointHistoryTable;
+import io.hhplus.tdd.database.UnthrottledUserPointTable;
+import io.hhplus.tdd.database.UserPointCache;
+import io.hhplus.tdd.database.UserPointImage;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.database.UserPointStore;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.database.VersionedUserPointStore;
+import io.hhplus.tdd.database.wal.PointWriteAheadLog;
+import io.hhplus.tdd.point.executor.LockPointCommandExecutor;
+import io.hhplus.tdd.point.executor.OptimisticPointUpdater;
+import io.hhplus.tdd.point.executor.PointCommandCoalescer;
+import io.hhplus.tdd.point.executor.PointCommandExecutor;
+import io.hhplus.tdd.point.lock.UserPointLockManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+
+/**
+ * 스프링 없이 PointService 와 그 아래 저장소/원장을 조립한다.
+ * 기본값은 지연 없는 테이블(UnthrottledUserPointTable, UnthrottledPointHistoryTable), 유저 락, 내역 appender 1개이며 WAL/group commit/낙관적 변경/만료는 사용하지 않는다.
+ * 테이블 지연이 필요한 테스트는 제공된 테이블을 지정한다. 테스트마다 바꿀 부분만 지정한 뒤 build() 한다.
+ */
+public class PointServiceFixture {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PointContentionProfiler pointContentionProfiler =
+            new PointContentionProfiler(true, 20, 4, 4096, Duration.ofSeconds(60));
+    private final PointMetrics pointMetrics = new PointMetrics(meterRegistry, pointContentionProfiler);
+
+    private UserPointStore userPointStore;
+    private UserPointImage userPointImage = new UserPointImage(false);
+    private PointHistoryTable pointHistoryTable;
+    private int outboxCapacity = 100_000;
+    private PointWriteAheadLog pointWriteAheadLog = new PointWriteAheadLog(false, "", 64);
+    private PointLots pointLots = new PointLots(false, Duration.ofDays(365), Duration.ofSeconds(1), 64, 5);
+    private PointCommandExecutor pointCommandExecutor;
+    private boolean coalesce;
+    private boolean optimistic;
+    private int optimisticMaxAttempts = 10;
+
+    private UserPointRepository userPointRepository;
+    private PointHistoryRepository pointHistoryRepository;
+    private PointHistoryOutbox pointHistoryOutbox;
+    private PointBalanceHub pointBalanceHub;
+    private PointLedger pointLedger;
+    private OptimisticPointUpdater optimisticPointUpdater;
+    private PointService pointService;
+
+    public PointServiceFixture userPointTable(UserPointTable userPointTable) {
+        this.userPointStore = new TableUserPointStore(userPointTable);
+        return this;
+    }
+
+    public PointServiceFixture userPointStore(UserPointStore userPointStore) {
+        this.userPointStore = userPointStore;
+        return this;
+    }
+
+    public PointServiceFixture userPointImage(UserPointImage userPointImage) {
+        this.userPointImage = userPointImage;
+        return this;
+    }
+
+    public PointServiceFixture pointHistoryTable(PointHistoryTable pointHistoryTable) {
+        this.pointHistoryTable = pointHistoryTable;
+        return this;
+    }
+
+    public PointServiceFixture outboxCapacity(int outboxCapacity) {
+        this.outboxCapacity = outboxCapacity;
+        return this;
+    }
+
+    public PointServiceFixture writeAheadLog(PointWriteAheadLog pointWriteAheadLog) {
+        this.pointWriteAheadLog = pointWriteAheadLog;
+        return this;
+    }
+
+    public PointServiceFixture pointLots(PointLots pointLots) {
+        this.pointLots = pointLots;
+        return this;
+    }
+
+    public PointServiceFixture pointCommandExecutor(PointCommandExecutor pointCommandExecutor) {
+        this.pointCommandExecutor = pointCommandExecutor;
+        return this;
+    }
+
+    public PointServiceFixture coalesce() {
+        this.coalesce = true;
+        return this;
+    }
+
+    public PointServiceFixture optimistic(int maxAttempts) {
+        this.optimistic = true;
+        this.optimisticMaxAttempts = maxAttempts;
+        return this;
+    }
+
+    public PointServiceFixture build() {
+        if (userPointStore == null) {
+            userPointStore = new TableUserPointStore(new UnthrottledUserPointTable());
+        }
+        if (pointHistoryTable == null) {
+            pointHistoryTable = new UnthrottledPointHistoryTable();
+        }
+        if (pointCommandExecutor == null) {
+            pointCommandExecutor = new LockPointCommandExecutor(new UserPointLockManager(pointMetrics, Duration.ofSeconds(30)));
+        }
+
+        pointBalanceHub = new PointBalanceHub(Duration.ofMinutes(30), 100, 1, Duration.ofSeconds(5), pointMetrics);
+        userPointRepository = new UserPointRepository(userPointStore, new UserPointCache(100, 1), userPointImage, pointMetrics);
+        pointHistoryRepository = new PointHistoryRepository(pointHistoryTable, pointMetrics);
+        pointHistoryOutbox = new PointHistoryOutbox(pointHistoryRepository, outboxCapacity, 1, 10);
+        pointLedger = new PointLedger(userPointRepository, pointHistoryOutbox, pointWriteAheadLog, pointBalanceHub, pointLots);
+        optimisticPointUpdater = new OptimisticPointUpdater(new VersionedUserPointStore(userPointRepository, pointLedger, 100_000),
+                pointMetrics, optimistic, optimisticMaxAttempts, 50, 5000);
+        pointService = new PointService(userPointRepository, pointHistoryRepository, pointHistoryOutbox, pointLedger,
+                pointCommandExecutor, new PointCommandCoalescer(pointCommandExecutor, coalesce, 100),
+                optimisticPointUpdater, pointWriteAheadLog, pointMetrics);
+        return this;
+    }
+
+    public void shutdown() {
+        pointHistoryOutbox.shutdown();
+        pointBalanceHub.shutdown();
+    }
+
+    public SimpleMeterRegistry meterRegistry() {
+        return meterRegistry;
+    }
+
+    public PointMetrics pointMetrics() {
+        return pointMetrics;
+    }
+
+    public PointContentionProfiler pointContentionProfiler() {
+        return pointContentionProfiler;
+    }
+
+    public PointWriteAheadLog pointWriteAheadLog() {
+        return pointWriteAheadLog;
+    }
+
+    public PointLots pointLots() {
+        return pointLots;
+    }
+
+    public UserPointRepository userPointRepository() {
+        return userPointRepository;
+    }
+
+    public PointHistoryRepository pointHistoryRepository() {
+        return pointHistoryRepository;
+    }
+
+    public PointHistoryOutbox pointHistoryOutbox() {
+        return pointHistoryOutbox;
+    }
+
+    public PointLedger pointLedger() {
+        return pointLedger;
+    }
+
+    public PointCommandExecutor pointCommandExecutor() {
+        return pointCommandExecutor;
+    }
+
+    public OptimisticPointUpdater optimisticPointUpdater() {
+        return optimisticPointUpdater;
+    }
+
+    public PointService pointService() {
+        return pointService;
+    }
+}
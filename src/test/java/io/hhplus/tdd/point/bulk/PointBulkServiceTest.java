@@ -0,0 +1,106 @@
+package io.hhplus.tdd.point.bulk;
+
+import io.hhplus.tdd.database.LongKeyUserPointStore;
+import io.hhplus.tdd.database.UserPointImage;
+import io.hhplus.tdd.database.wal.PointSnapshotter;
+import io.hhplus.tdd.point.PointServiceFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PointBulkServiceTest {
+
+    private final List<PointServiceFixture> fixtures = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        fixtures.forEach(PointServiceFixture::shutdown);
+    }
+
+    @Test
+    void 내보낸_포인트와_내역을_다른_저장소로_가져오면_포인트와_내역이_같다() {
+        // given
+        String csv = "P,1,700,1000\n"
+                + "H,1,1,CHARGE,1000,1000\n"
+                + "H,1,2,USE,300,2000\n"
+                + "P,2,50,1000\n"
+                + "H,2,3,CHARGE,50,3000\n";
+        PointServiceFixture sourceFixture = longKeyFixture();
+        PointBulkService source = bulkService(sourceFixture);
+        source.importFrom(csv(csv), PointBulkFormat.CSV);
+
+        PointServiceFixture targetFixture = longKeyFixture();
+        PointBulkService target = bulkService(targetFixture);
+
+        // when
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        PointBulkResult exportResult = source.export(exported, PointBulkFormat.BINARY);
+        PointBulkResult importResult = target.importFrom(new ByteArrayInputStream(exported.toByteArray()), PointBulkFormat.BINARY);
+
+        // then
+        assertEquals(2L, exportResult.points());
+        assertEquals(3L, exportResult.histories());
+        assertEquals(2L, importResult.points());
+        assertEquals(3L, importResult.histories());
+        for (long userId = 1; userId <= 2; userId++) {
+            assertEquals(sourceFixture.userPointRepository().findById(userId).point(),
+                    targetFixture.userPointRepository().findById(userId).point());
+            // 내역 id 는 새로 매겨지므로 나머지를 비교한다.
+            assertEquals(
+                    sourceFixture.pointHistoryRepository().findAllByUserId(userId).stream()
+                            .map(history -> List.of(history.type(), history.amount(), history.updateMillis())).toList(),
+                    targetFixture.pointHistoryRepository().findAllByUserId(userId).stream()
+                            .map(history -> List.of(history.type(), history.amount(), history.updateMillis())).toList());
+        }
+    }
+
+    @Test
+    void 충전으로_만들_수_없는_잔액을_가져오면_음수와_같이_실패하고_반영하지_않는다() {
+        // given
+        String csv = "P,1,700,1000\n"
+                + "P,2,1000000,1000\n";
+        PointServiceFixture fixture = longKeyFixture();
+        PointBulkService pointBulkService = bulkService(fixture);
+
+        // when
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                pointBulkService.importFrom(csv(csv), PointBulkFormat.CSV));
+
+        // then
+        assertTrue(exception.getMessage().contains("가져올 포인트는 0 이상 1_000_000 미만이어야 합니다. userId=2"), exception.getMessage());
+        assertEquals(0L, fixture.userPointRepository().findById(2L).point());
+    }
+
+    private PointServiceFixture longKeyFixture() {
+        PointServiceFixture fixture = new PointServiceFixture().userPointStore(new LongKeyUserPointStore(4)).build();
+        fixtures.add(fixture);
+        return fixture;
+    }
+
+    // lane 2개, batch 2건으로 나누어 가져온다.
+    private PointBulkService bulkService(PointServiceFixture fixture) {
+        return new PointBulkService(
+                fixture.userPointRepository(),
+                fixture.pointHistoryRepository(),
+                fixture.pointHistoryOutbox(),
+                fixture.pointLedger(),
+                fixture.pointCommandExecutor(),
+                fixture.optimisticPointUpdater(),
+                fixture.pointWriteAheadLog(),
+                new PointSnapshotter(fixture.pointWriteAheadLog(), new UserPointImage(false), 0, 2, true),
+                2, 2, 1);
+    }
+
+    private static ByteArrayInputStream csv(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,126 @@
+package io.hhplus.tdd.point.executor;
+
+import io.hhplus.tdd.database.LongKeyUserPointStore;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.PointServiceFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class ActorPointCommandExecutorTest {
+
+    // 워커 수보다 유저 쌍이 많아도 워커가 서로를 기다리지 않아야 한다.
+    private final ActorPointCommandExecutor actorPointCommandExecutor = new ActorPointCommandExecutor(2);
+
+    private PointServiceFixture fixture;
+
+    @AfterEach
+    void tearDown() {
+        actorPointCommandExecutor.shutdown();
+        if (fixture != null) {
+            fixture.shutdown();
+        }
+    }
+
+    @Test
+    void actor_방식에서_여러_유저가_서로_포인트를_보내도_교착_상태_없이_합계가_유지된다() throws Exception {
+        // given
+        int users = 4;
+        int threads = 8;
+        int transfersPerThread = 100;
+        long initialPoint = 100_000L;
+
+        // 테이블 지연 없이 많은 요청을 겹치게 하기 위해 long-key 저장소와 mock 내역 테이블을 사용한다.
+        fixture = new PointServiceFixture()
+                .userPointStore(new LongKeyUserPointStore(4))
+                .pointHistoryTable(mock(PointHistoryTable.class))
+                .pointCommandExecutor(actorPointCommandExecutor)
+                .build();
+        PointService actorPointService = fixture.pointService();
+        for (long userId = 1; userId <= users; userId++) {
+            actorPointService.chargeUserPoint(userId, initialPoint);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<CompletableFuture<?>> transfers = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(threads);
+
+        // when
+        // 스레드마다 서로 다른 방향(1 -> 2 -> 3 -> 4 -> 1 과 그 반대)으로 보내고, 충전/사용도 함께 섞는다.
+        for (int i = 0; i < threads; i++) {
+            int thread = i;
+            executor.submit(() -> {
+                try {
+                    for (int j = 0; j < transfersPerThread; j++) {
+                        long from = (thread + j) % users + 1;
+                        long to = thread % 2 == 0 ? from % users + 1 : (from + users - 2) % users + 1;
+                        transfers.add(actorPointService.transferAsync(from, to, 1L));
+                        transfers.add(actorPointService.chargeUserPointAsync(to, 1L)
+                                .thenCompose(ignored -> actorPointService.useUserPointAsync(to, 1L)));
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        executor.shutdown();
+        CompletableFuture.allOf(transfers.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        // then
+        long total = 0;
+        for (long userId = 1; userId <= users; userId++) {
+            total += actorPointService.getUserPoint(userId).point();
+        }
+        assertEquals(initialPoint * users, total);
+        assertEquals((long) threads * transfersPerThread,
+                fixture.meterRegistry().get("point.operation").tag("operation", "transfer").timer().count());
+    }
+
+    @Test
+    void 멈춰둔_메일박스를_다시_워커에게_맡기지_못하면_쌓여_있던_작업은_실패한다() throws Exception {
+        // given
+        // 1 -> 2 전송을 실행하는 동안 유저 1 의 메일박스는 멈춰 있고, 그 사이 유저 1 의 작업이 쌓인다.
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> transfer = actorPointCommandExecutor.execute(1L, 2L, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "transfer";
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = actorPointCommandExecutor.execute(1L, () -> "queued");
+
+        // when
+        // 워커가 종료되어 전송이 끝난 뒤 유저 1 의 메일박스를 다시 맡기지 못한다.
+        actorPointCommandExecutor.shutdown();
+        release.countDown();
+
+        // then
+        assertEquals("transfer", transfer.get(5, TimeUnit.SECONDS));
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+        assertEquals(0, actorPointCommandExecutor.activeMailboxCount());
+    }
+}
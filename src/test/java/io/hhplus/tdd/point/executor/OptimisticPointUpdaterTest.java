@@ -0,0 +1,112 @@
+package io.hhplus.tdd.point.executor;
+
+import io.hhplus.tdd.point.PointBusyException;
+import io.hhplus.tdd.point.PointCommand;
+import io.hhplus.tdd.point.PointCommandResult;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.PointServiceFixture;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OptimisticPointUpdaterTest {
+
+    private PointServiceFixture fixture;
+
+    @AfterEach
+    void tearDown() {
+        fixture.shutdown();
+    }
+
+    @Test
+    void 낙관적_변경_사용_시_같은_유저의_동시_요청은_충돌_시_재시도하여_모두_반영된다() throws Exception {
+        // given
+        long userId = 1L;
+        long amount = 10L;
+        int threads = 20;
+
+        fixture = new PointServiceFixture().optimistic(1_000).build();
+        PointService optimisticPointService = fixture.pointService();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        Set<Long> balances = ConcurrentHashMap.newKeySet();
+
+        // when
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    balances.add(optimisticPointService.chargeUserPoint(userId, amount).point());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        done.await();
+        executor.shutdown();
+
+        // then
+        // 요청마다 서로 다른 버전(10, 20, ..., 200)에 반영된다.
+        assertEquals(threads, balances.size());
+        assertEquals(amount * threads, optimisticPointService.getUserPoint(userId).point());
+        assertEquals(threads, optimisticPointService.getUserPointHistory(userId).size());
+        assertEquals(threads, fixture.meterRegistry().get("point.optimistic.commits").counter().count());
+        assertEquals(0, fixture.meterRegistry().get("point.optimistic.exhausted").counter().count());
+    }
+
+    @Test
+    void 낙관적_변경_사용_시_포인트_전송은_어느_쪽도_반영하지_않고_실패한다() {
+        // given
+        long fromId = 1L;
+        long toId = 2L;
+        fixture = new PointServiceFixture().optimistic(1_000).build();
+        PointService optimisticPointService = fixture.pointService();
+        optimisticPointService.chargeUserPoint(fromId, 100L);
+
+        // when
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                optimisticPointService.transfer(fromId, toId, 50L));
+
+        // then
+        assertEquals("낙관적 변경(point.execution.optimistic.enabled)을 사용하면 포인트를 보낼 수 없습니다.", exception.getMessage());
+        assertEquals(100L, optimisticPointService.getUserPoint(fromId).point());
+        assertEquals(0L, optimisticPointService.getUserPoint(toId).point());
+    }
+
+    @Test
+    void 낙관적_변경_재시도를_모두_소진하면_PointBusyException_이_발생한다() {
+        // given
+        long userId = 1L;
+        fixture = new PointServiceFixture().optimistic(1).build();
+        PointService optimisticPointService = fixture.pointService();
+        OptimisticPointUpdater optimisticPointUpdater = fixture.optimisticPointUpdater();
+        List<PointCommand> commands = List.of(new PointCommand(userId, TransactionType.CHARGE, 10L));
+
+        // when
+        // 읽은 뒤 저장하기 전에 다른 요청이 먼저 저장하여 매번 충돌한다.
+        PointBusyException exception = assertThrows(PointBusyException.class, () ->
+                optimisticPointUpdater.apply(userId, commands, (userPoint, pending) -> {
+                    optimisticPointService.chargeUserPoint(userId, 1L);
+                    return List.of(PointCommandResult.success(pending.get(0), userPoint.charge(10L)));
+                }));
+
+        // then
+        assertEquals("동시 요청이 많아 포인트를 변경하지 못했습니다. 잠시 후 다시 시도해주세요.", exception.getMessage());
+        assertEquals(1L, optimisticPointService.getUserPoint(userId).point());
+    }
+}
@@ -0,0 +1,125 @@
+package io.hhplus.tdd.point.executor;
+
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.PointBusyException;
+import io.hhplus.tdd.point.PointCommand;
+import io.hhplus.tdd.point.PointCommandResult;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.PointServiceFixture;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PointCommandCoalescerTest {
+
+    private PointServiceFixture fixture;
+
+    @AfterEach
+    void tearDown() {
+        if (fixture != null) {
+            fixture.shutdown();
+        }
+    }
+
+    @Test
+    void group_commit_사용_시_같은_유저의_동시_요청을_모아_저장하고_요청별_결과를_반환한다() throws Exception {
+        // given
+        long userId = 1L;
+        long amount = 10L;
+        int threads = 20;
+
+        UserPointTable userPointTable = spy(new UserPointTable());
+        fixture = new PointServiceFixture().userPointTable(userPointTable).coalesce().build();
+        PointService coalescingPointService = fixture.pointService();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        Set<Long> balances = ConcurrentHashMap.newKeySet();
+
+        // when
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    balances.add(coalescingPointService.chargeUserPoint(userId, amount).point());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        done.await();
+        executor.shutdown();
+
+        // then
+        // 요청마다 자신의 충전 직후 잔액(10, 20, ..., 200)을 받는다.
+        assertEquals(threads, balances.size());
+        assertEquals(amount * threads, coalescingPointService.getUserPoint(userId).point());
+        assertEquals(threads, coalescingPointService.getUserPointHistory(userId).size());
+        // 먼저 처리되는 동안 쌓인 요청은 한 번에 저장된다.
+        verify(userPointTable, atMost(threads - 1)).insertOrUpdate(eq(userId), anyLong());
+    }
+
+    @Test
+    void group_commit_사용_시_처리를_시도하지_못한_요청은_대기열에서_빠지고_같은_예외로_실패한다() throws Exception {
+        // given
+        // 첫 요청은 락 timeout 과 같이 실행되지 못하고, 이후 요청은 바로 실행된다.
+        long userId = 1L;
+        PointBusyException busy = new PointBusyException("처리 중인 요청이 많습니다.");
+        AtomicBoolean reject = new AtomicBoolean(true);
+        PointCommandExecutor pointCommandExecutor = new PointCommandExecutor() {
+            @Override
+            public <T> CompletableFuture<T> execute(long userId, Supplier<T> command) {
+                return reject.get() ? CompletableFuture.failedFuture(busy) : CompletableFuture.completedFuture(command.get());
+            }
+
+            @Override
+            public <T> CompletableFuture<T> execute(long firstUserId, long secondUserId, Supplier<T> command) {
+                throw new UnsupportedOperationException();
+            }
+        };
+        PointCommandCoalescer pointCommandCoalescer = new PointCommandCoalescer(pointCommandExecutor, true, 100);
+
+        List<List<PointCommand>> batches = new CopyOnWriteArrayList<>();
+        BiFunction<Long, List<PointCommand>, List<PointCommandResult>> processor = (id, commands) -> {
+            batches.add(commands);
+            return commands.stream()
+                    .map(command -> PointCommandResult.success(command, new UserPoint(id, command.amount(), 0L)))
+                    .toList();
+        };
+
+        // when
+        CompletableFuture<PointCommandResult> rejected = pointCommandCoalescer.submit(PointCommand.charge(userId, 100L), processor);
+        reject.set(false);
+        CompletableFuture<PointCommandResult> accepted = pointCommandCoalescer.submit(PointCommand.charge(userId, 50L), processor);
+
+        // then
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        assertSame(busy, exception.getCause());
+        assertEquals(50L, accepted.get(1, TimeUnit.SECONDS).userPoint().point());
+        // 실패한 요청은 다음 요청과 함께 처리되지 않는다.
+        assertEquals(List.of(List.of(PointCommand.charge(userId, 50L))), batches);
+    }
+}
@@ -0,0 +1,51 @@
+package io.hhplus.tdd.point.lock;
+
+import io.hhplus.tdd.point.PointBusyException;
+import io.hhplus.tdd.point.PointContentionProfiler;
+import io.hhplus.tdd.point.PointMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserPointLockManagerTest {
+
+    private final PointMetrics pointMetrics = new PointMetrics(new SimpleMeterRegistry(),
+            new PointContentionProfiler(true, 20, 4, 4096, Duration.ofSeconds(60)));
+
+    @Test
+    void 유저_락을_timeout_안에_얻지_못하면_PointBusyException_으로_실패한다() throws Exception {
+        // given
+        long userId = 1L;
+        UserPointLockManager lockManager = new UserPointLockManager(pointMetrics, Duration.ofMillis(50));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(() -> lockManager.executeWithLock(userId, () -> {
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        locked.await();
+
+        // when
+        // then
+        assertThrows(PointBusyException.class, () -> lockManager.executeWithLock(userId, () -> "never"));
+
+        release.countDown();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+        assertEquals(0, lockManager.activeLockCount());
+    }
+}
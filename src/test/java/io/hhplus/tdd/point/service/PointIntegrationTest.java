@@ -1,11 +1,19 @@
 package io.hhplus.tdd.point.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.database.PointHistoryRepository;
 import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.dto.req.PointCommandRequest;
 import io.hhplus.tdd.dto.req.PointRequest;
+import io.hhplus.tdd.dto.req.PointTransferRequest;
+import io.hhplus.tdd.dto.res.PointResponse;
+import io.hhplus.tdd.point.PointHistory;
 import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.PointTransfer;
 import io.hhplus.tdd.point.TransactionType;
 import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.lock.UserPointLockManager;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -13,14 +21,21 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -38,6 +53,12 @@ public class PointIntegrationTest {
     @Autowired
     private UserPointTable userPointTable;
 
+    @Autowired
+    private PointHistoryRepository pointHistoryRepository;
+
+    @Autowired
+    private UserPointLockManager userPointLockManager;
+
     @Nested
     @DisplayName("포인트 조회 통합 테스트")
     class UserPointTest {
@@ -90,9 +111,13 @@ public class PointIntegrationTest {
             String jsonContent = objectMapper.writeValueAsString(pointRequest);
 
             // then
-            mockMvc.perform(patch("/point/{id}/charge", userId)
-                    .contentType("application/json")
-                    .content(jsonContent))
+            MvcResult mvcResult = mockMvc.perform(patch("/point/{id}/charge", userId)
+                            .contentType("application/json")
+                            .content(jsonContent))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(mvcResult))
                     .andExpect(status().isBadRequest())
                     .andExpect(jsonPath("$.code").value("400"))  // ErrorResponse 코드가 "400"이어야 함
                     .andExpect(jsonPath("$.message").value("충전금액은 0원 이하 일 수 없습니다."));  // 예시로 지정한 오류 메시지 확인
@@ -114,9 +139,13 @@ public class PointIntegrationTest {
             String jsonContent = objectMapper.writeValueAsString(pointRequest);
 
             // then
-            mockMvc.perform(patch("/point/{id}/charge", userId)
+            MvcResult mvcResult = mockMvc.perform(patch("/point/{id}/charge", userId)
                             .contentType("application/json")
                             .content(jsonContent))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(mvcResult))
                     .andExpect(status().isBadRequest())
                     .andExpect(jsonPath("$.code").value("400"))
                     .andExpect(jsonPath("$.message").value("충전 결과값이 1_000_000원을 넘을 수 없습니다."));
@@ -139,9 +168,13 @@ public class PointIntegrationTest {
             String jsonContent = objectMapper.writeValueAsString(pointRequest);
 
             // then
-            mockMvc.perform(patch("/point/{id}/charge", userId)
+            MvcResult mvcResult = mockMvc.perform(patch("/point/{id}/charge", userId)
                             .contentType("application/json")
                             .content(jsonContent))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(mvcResult))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.id").value(userId))
                     .andExpect(jsonPath("$.point").value(resultAmount));
@@ -167,9 +200,13 @@ public class PointIntegrationTest {
             String jsonContent = objectMapper.writeValueAsString(pointRequest);
 
             // then
-            mockMvc.perform(patch("/point/{id}/use", userId)
+            MvcResult mvcResult = mockMvc.perform(patch("/point/{id}/use", userId)
                             .contentType("application/json")
                             .content(jsonContent))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(mvcResult))
                     .andExpect(status().isBadRequest())
                     .andExpect(jsonPath("$.code").value("400"))
                     .andExpect(jsonPath("$.message").value("사용금액이 0원 이하 일 수 없습니다."));
@@ -191,9 +228,13 @@ public class PointIntegrationTest {
             String jsonContent = objectMapper.writeValueAsString(pointRequest);
 
             // then
-            mockMvc.perform(patch("/point/{id}/use", userId)
+            MvcResult mvcResult = mockMvc.perform(patch("/point/{id}/use", userId)
                             .contentType("application/json")
                             .content(jsonContent))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(mvcResult))
                     .andExpect(status().isBadRequest())
                     .andExpect(jsonPath("$.code").value("400"))
                     .andExpect(jsonPath("$.message").value("잔액이 부족합니다."));
@@ -216,9 +257,13 @@ public class PointIntegrationTest {
             String jsonContent = objectMapper.writeValueAsString(pointRequest);
 
             // then
-            mockMvc.perform(patch("/point/{id}/use", userId)
+            MvcResult mvcResult = mockMvc.perform(patch("/point/{id}/use", userId)
                             .contentType("application/json")
                             .content(jsonContent))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(mvcResult))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.id").value(userId))
                     .andExpect(jsonPath("$.point").value(resultAmount));
@@ -265,6 +310,467 @@ public class PointIntegrationTest {
                     .andExpect(jsonPath("$[1].amount").value(useAmount))
                     .andExpect(jsonPath("$[1].type").value(TransactionType.USE.toString()));
         }
+
+        @Test
+        void 포인트_내역을_cursor_기반으로_나누어_조회한다() throws Exception {
+            //given
+            long userId = 32L;
+            long amount = 100L;
+
+            // when
+            pointService.chargeUserPoint(userId, amount);
+            pointService.chargeUserPoint(userId, amount);
+            pointService.UseUserPoint(userId, amount);
+
+            // then
+            MvcResult firstPage = mockMvc.perform(get("/point/{id}/histories", userId)
+                            .param("limit", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(2))
+                    .andExpect(jsonPath("$[0].type").value(TransactionType.CHARGE.toString()))
+                    .andExpect(jsonPath("$[1].type").value(TransactionType.CHARGE.toString()))
+                    .andExpect(header().exists("Next-Cursor"))
+                    .andReturn();
+
+            String cursor = firstPage.getResponse().getHeader("Next-Cursor");
+
+            mockMvc.perform(get("/point/{id}/histories", userId)
+                            .param("limit", "2")
+                            .param("cursor", cursor))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(1))
+                    .andExpect(jsonPath("$[0].type").value(TransactionType.USE.toString()))
+                    .andExpect(header().doesNotExist("Next-Cursor"));
+        }
+
+        @Test
+        void 포인트_내역을_기간과_종류로_조회한다() throws Exception {
+            //given
+            long userId = 52L;
+            long amount = 100L;
+
+            // when
+            pointService.chargeUserPoint(userId, amount);
+            pointService.UseUserPoint(userId, amount);
+            long to = System.currentTimeMillis() + 1;
+
+            // then
+            mockMvc.perform(get("/point/{id}/histories", userId)
+                            .param("from", "0")
+                            .param("to", String.valueOf(to))
+                            .param("type", TransactionType.USE.toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(1))
+                    .andExpect(jsonPath("$[0].type").value(TransactionType.USE.toString()));
+
+            mockMvc.perform(get("/point/{id}/histories", userId)
+                            .param("from", String.valueOf(to)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(0));
+        }
+
+        @Test
+        void 포인트_내역_스트림은_나누어_읽는_단위를_넘어도_모든_내역을_순서대로_내려준다() throws Exception {
+            //given
+            // 스트림은 500 건씩 나누어 읽으므로, 두 번 넘어가도록 내역을 담는다. (테이블 지연 없이 인덱스에만 담는다.)
+            long userId = 55L;
+            int histories = 1_001;
+            for (long id = 1; id <= histories; id++) {
+                TransactionType type = id % 2 == 0 ? TransactionType.USE : TransactionType.CHARGE;
+                pointHistoryRepository.restore(new PointHistory(id, userId, id, type, 1_000L + id));
+            }
+
+            // when
+            MvcResult mvcResult = mockMvc.perform(get("/point/{id}/histories/stream", userId))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mvcResult.getAsyncResult(5_000);
+
+            // then
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON));
+
+            ObjectMapper objectMapper = new ObjectMapper();
+            List<String> lines = mvcResult.getResponse().getContentAsString().lines().toList();
+            assertEquals(histories, lines.size());
+            for (int i = 0; i < histories; i++) {
+                JsonNode line = objectMapper.readTree(lines.get(i));
+                assertEquals(i + 1, line.get("id").asLong());
+                assertEquals(userId, line.get("userId").asLong());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("포인트 합계 통합 테스트")
+    class PointSummaryTest {
+        @Test
+        void 포인트_내역이_없으면_합계는_0_이다() throws Exception {
+            //given
+            long userId = 43L;
+
+            // when
+            // then
+            mockMvc.perform(get("/point/{id}/summary", userId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.userId").value(userId))
+                    .andExpect(jsonPath("$.totalCharged").value(0))
+                    .andExpect(jsonPath("$.totalUsed").value(0))
+                    .andExpect(jsonPath("$.chargeCount").value(0))
+                    .andExpect(jsonPath("$.useCount").value(0));
+        }
+
+        @Test
+        void 충전과_사용_후_합계와_건수를_조회한다() throws Exception {
+            //given
+            long userId = 44L;
+
+            // when
+            pointService.chargeUserPoint(userId, 1_000L);
+            // 첫 조회에서 테이블의 내역으로 합계를 만들고, 이후에는 내역이 기록될 때 함께 갱신된다.
+            mockMvc.perform(get("/point/{id}/summary", userId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalCharged").value(1_000L));
+            pointService.UseUserPoint(userId, 300L);
+            pointService.chargeUserPoint(userId, 50L);
+
+            // then
+            mockMvc.perform(get("/point/{id}/summary", userId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalCharged").value(1_050L))
+                    .andExpect(jsonPath("$.totalUsed").value(300L))
+                    .andExpect(jsonPath("$.chargeCount").value(2))
+                    .andExpect(jsonPath("$.useCount").value(1));
+
+            List<PointHistory> histories = pointService.getUserPointHistory(userId);
+            assertEquals(histories.get(histories.size() - 1).updateMillis(),
+                    pointService.getUserPointSummary(userId).lastActivityMillis());
+        }
+    }
+
+    @Nested
+    @DisplayName("포인트 전송 통합 테스트")
+    class PointTransferTest {
+        @Test
+        void 포인트_전송_시_보낸_유저와_받은_유저의_포인트와_내역이_함께_반영된다() throws Exception {
+            //given
+            long fromId = 45L;
+            long toId = 46L;
+            userPointTable.insertOrUpdate(fromId, 1_000L);
+            String jsonContent = new ObjectMapper().writeValueAsString(new PointTransferRequest(fromId, toId, 300L));
+
+            // when
+            MvcResult mvcResult = mockMvc.perform(post("/point/transfer")
+                            .contentType("application/json")
+                            .content(jsonContent))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // then
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.from.point").value(700L))
+                    .andExpect(jsonPath("$.to.point").value(300L));
+
+            assertEquals(TransactionType.USE, pointService.getUserPointHistory(fromId).get(0).type());
+            assertEquals(TransactionType.CHARGE, pointService.getUserPointHistory(toId).get(0).type());
+        }
+
+        @Test
+        void 받는_유저의_충전_한도를_넘으면_어느_쪽도_반영되지_않는다() throws Exception {
+            //given
+            long fromId = 47L;
+            long toId = 48L;
+            userPointTable.insertOrUpdate(fromId, 1_000L);
+            userPointTable.insertOrUpdate(toId, 999_500L);
+            String jsonContent = new ObjectMapper().writeValueAsString(new PointTransferRequest(fromId, toId, 600L));
+
+            // when
+            MvcResult mvcResult = mockMvc.perform(post("/point/transfer")
+                            .contentType("application/json")
+                            .content(jsonContent))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // then
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("충전 결과값이 1_000_000원을 넘을 수 없습니다."));
+            assertEquals(1_000L, pointService.getUserPoint(fromId).point());
+            assertEquals(999_500L, pointService.getUserPoint(toId).point());
+        }
+    }
+
+    @Nested
+    @DisplayName("포인트 변경 알림 통합 테스트")
+    class PointStreamTest {
+        @Test
+        void 구독하면_현재_포인트를_받고_포인트가_바뀌면_마지막_포인트를_받는다() throws Exception {
+            //given
+            long userId = 51L;
+            userPointTable.insertOrUpdate(userId, 1_000L);
+
+            // when
+            MvcResult mvcResult = mockMvc.perform(get("/point/{id}/stream", userId))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            String subscribed = awaitEvent(mvcResult, "\"point\":1000");
+            for (int i = 0; i < 10; i++) {
+                pointService.chargeUserPoint(userId, 100L);
+            }
+
+            // then
+            assertTrue(subscribed.startsWith("event:point"), subscribed);
+            String events = awaitEvent(mvcResult, "\"point\":2000");
+            assertTrue(events.contains("\"point\":2000"), events);
+        }
+
+        // 알림은 sender 스레드가 내려보내므로 기대한 포인트가 올 때까지 기다린다.
+        private String awaitEvent(MvcResult mvcResult, String expected) throws Exception {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            String events = mvcResult.getResponse().getContentAsString();
+            while (!events.contains(expected) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+                events = mvcResult.getResponse().getContentAsString();
+            }
+            return events;
+        }
+    }
+
+    @Nested
+    @DisplayName("포인트 일괄 처리 통합 테스트")
+    class PointBatchTest {
+        @Test
+        void 여러_유저의_요청을_한_번에_처리하고_실패한_요청은_항목별로_반환한다() throws Exception {
+            //given
+            long firstUserId = 30L;
+            long secondUserId = 31L;
+            long amount = 1_000L;
+
+            // when
+            userPointTable.insertOrUpdate(secondUserId, amount);
+            List<PointCommandRequest> pointCommandRequests = List.of(
+                    new PointCommandRequest(firstUserId, TransactionType.CHARGE, 500L),
+                    new PointCommandRequest(secondUserId, TransactionType.USE, 2_000L),
+                    new PointCommandRequest(firstUserId, TransactionType.USE, 200L),
+                    new PointCommandRequest(secondUserId, TransactionType.USE, 300L)
+            );
+
+            ObjectMapper objectMapper = new ObjectMapper();
+            String jsonContent = objectMapper.writeValueAsString(pointCommandRequests);
+
+            // then
+            MvcResult mvcResult = mockMvc.perform(post("/point/batch")
+                            .contentType("application/json")
+                            .content(jsonContent))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].point.point").value(500))
+                    .andExpect(jsonPath("$[1].error.code").value("400"))
+                    .andExpect(jsonPath("$[1].error.message").value("잔액이 부족합니다."))
+                    .andExpect(jsonPath("$[2].point.point").value(300))
+                    .andExpect(jsonPath("$[3].point.point").value(700));
+
+            assertEquals(300L, pointService.getUserPoint(firstUserId).point());
+            assertEquals(700L, pointService.getUserPoint(secondUserId).point());
+        }
+
+        @Test
+        void 만료_요청이_섞여_있으면_그_요청만_실패하고_나머지는_처리된다() throws Exception {
+            //given
+            long userId = 33L;
+
+            // when
+            List<PointCommandRequest> pointCommandRequests = List.of(
+                    new PointCommandRequest(userId, TransactionType.CHARGE, 500L),
+                    new PointCommandRequest(userId, TransactionType.EXPIRE, 100L),
+                    new PointCommandRequest(userId, TransactionType.USE, 200L)
+            );
+
+            ObjectMapper objectMapper = new ObjectMapper();
+            String jsonContent = objectMapper.writeValueAsString(pointCommandRequests);
+
+            // then
+            MvcResult mvcResult = mockMvc.perform(post("/point/batch")
+                            .contentType("application/json")
+                            .content(jsonContent))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].point.point").value(500))
+                    .andExpect(jsonPath("$[1].error.code").value("400"))
+                    .andExpect(jsonPath("$[1].error.message").value("거래 종류는 CHARGE, USE 중 하나여야 합니다."))
+                    .andExpect(jsonPath("$[2].point.point").value(300));
+
+            assertEquals(300L, pointService.getUserPoint(userId).point());
+        }
+    }
+
+    @Nested
+    @DisplayName("포인트 내보내기, 가져오기 통합 테스트")
+    class PointBulkTest {
+        @Test
+        void CSV_로_가져온_포인트와_내역이_반영된다() throws Exception {
+            //given
+            long userId = 53L;
+            String csv = "# P,userId,point,updateMillis\n"
+                    + "P," + userId + ",700,1000\n"
+                    + "H," + userId + ",1,CHARGE,1000,1000\n"
+                    + "H," + userId + ",2,USE,300,2000\n";
+
+            // when
+            // then
+            mockMvc.perform(post("/admin/points/import")
+                            .param("format", "CSV")
+                            .contentType("text/csv")
+                            .content(csv))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.points").value(1))
+                    .andExpect(jsonPath("$.histories").value(2));
+
+            assertEquals(700L, pointService.getUserPoint(userId).point());
+            mockMvc.perform(get("/point/{id}/histories", userId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(2))
+                    .andExpect(jsonPath("$[0].type").value(TransactionType.CHARGE.toString()))
+                    .andExpect(jsonPath("$[1].type").value(TransactionType.USE.toString()))
+                    .andExpect(jsonPath("$[1].amount").value(300));
+            // 내역의 시각은 가져온 값 그대로 남는다.
+            mockMvc.perform(get("/point/{id}/histories", userId)
+                            .param("from", "2000")
+                            .param("to", "2001"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(1))
+                    .andExpect(jsonPath("$[0].type").value(TransactionType.USE.toString()));
+        }
+
+        @Test
+        void 형식이_올바르지_않은_줄이_있으면_가져오기는_실패한다() throws Exception {
+            //given
+            String csv = "P,54,700,1000\nH,54,1,GIFT,1000,1000\n";
+
+            // when
+            // then
+            mockMvc.perform(post("/admin/points/import")
+                            .contentType("text/csv")
+                            .content(csv))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("가져올 데이터의 형식이 올바르지 않습니다. line=2"));
+        }
+
+        @Test
+        void 모든_유저를_순회할_수_없는_저장소에서는_내보내기가_실패한다() throws Exception {
+            // given
+            // when
+            // then
+            mockMvc.perform(get("/admin/points/export"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("400"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Idempotency-Key 통합 테스트")
+    class IdempotencyTest {
+        @Test
+        void 같은_Idempotency_Key_로_다시_충전하면_충전하지_않고_처음_응답을_반환한다() throws Exception {
+            //given
+            long userId = 40L;
+            long amount = 100L;
+            String jsonContent = new ObjectMapper().writeValueAsString(new PointRequest(userId, amount));
+
+            // when
+            for (int i = 0; i < 3; i++) {
+                MvcResult mvcResult = mockMvc.perform(patch("/point/{id}/charge", userId)
+                                .header("Idempotency-Key", "charge-40")
+                                .contentType("application/json")
+                                .content(jsonContent))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+                // then
+                mockMvc.perform(asyncDispatch(mvcResult))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.point").value(amount));
+            }
+
+            assertEquals(amount, pointService.getUserPoint(userId).point());
+            assertEquals(1, pointService.getUserPointHistory(userId).size());
+        }
+
+        @Test
+        void 같은_Idempotency_Key_로_다른_금액을_요청하면_요청은_실패한다() throws Exception {
+            //given
+            long userId = 41L;
+            ObjectMapper objectMapper = new ObjectMapper();
+
+            MvcResult mvcResult = mockMvc.perform(patch("/point/{id}/charge", userId)
+                            .header("Idempotency-Key", "charge-41")
+                            .contentType("application/json")
+                            .content(objectMapper.writeValueAsString(new PointRequest(userId, 100L))))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isOk());
+
+            // when
+            // then
+            mockMvc.perform(patch("/point/{id}/charge", userId)
+                            .header("Idempotency-Key", "charge-41")
+                            .contentType("application/json")
+                            .content(objectMapper.writeValueAsString(new PointRequest(userId, 200L))))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("같은 Idempotency-Key 로 다른 금액을 요청할 수 없습니다."));
+            assertEquals(100L, pointService.getUserPoint(userId).point());
+        }
+
+        @Test
+        void 처리_중인_요청과_같은_Idempotency_Key_로_동시에_요청하면_한_번만_사용된다() throws Exception {
+            //given
+            long userId = 42L;
+            long amount = 100L;
+            int threads = 10;
+            userPointTable.insertOrUpdate(userId, 1_000L);
+            String jsonContent = new ObjectMapper().writeValueAsString(new PointRequest(userId, amount));
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch latch = new CountDownLatch(threads);
+            List<Long> balances = Collections.synchronizedList(new ArrayList<>());
+
+            // when
+            for (int i = 0; i < threads; i++) {
+                executor.submit(() -> {
+                    try {
+                        MvcResult mvcResult = mockMvc.perform(patch("/point/{id}/use", userId)
+                                        .header("Idempotency-Key", "use-42")
+                                        .contentType("application/json")
+                                        .content(jsonContent))
+                                .andReturn();
+                        String body = mockMvc.perform(asyncDispatch(mvcResult))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+                        balances.add(new ObjectMapper().readValue(body, PointResponse.class).point());
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+            latch.await();
+            executor.shutdown();
+
+            // then
+            // 모든 요청이 처음 요청의 응답(900)을 함께 받는다.
+            assertEquals(Collections.nCopies(threads, 900L), balances);
+            assertEquals(900L, pointService.getUserPoint(userId).point());
+        }
     }
 
     @Nested
@@ -373,5 +879,96 @@ public class PointIntegrationTest {
             UserPoint userPoint = pointService.getUserPoint(userId);
             assertEquals(currentAmount, userPoint.point());
         }
+
+        @Test
+        void 여러_유저의_포인트_충전은_병렬로_처리된다() throws Exception {
+            long singleUserId = 14L;
+            long firstUserId = 15L;
+            long amount = 10L;
+            int users = 10;
+            int requestsPerUser = 5;
+
+            // 새 유저의 첫 저장은 테이블이 커질 수 있어 다른 저장과 겹치지 않게 처리되므로(TableUserPointStore), 먼저 한 번씩 충전해둔다.
+            pointService.chargeUserPoint(singleUserId, amount);
+            for (int user = 0; user < users; user++) {
+                pointService.chargeUserPoint(firstUserId + user, amount);
+            }
+
+            // 유저 한 명의 요청을 처리하는 시간
+            long singleStart = System.nanoTime();
+            for (int i = 0; i < requestsPerUser; i++) {
+                pointService.chargeUserPoint(singleUserId, amount);
+            }
+            long singleElapsed = System.nanoTime() - singleStart;
+
+            // 여러 유저의 요청을 동시에 처리하는 시간
+            ExecutorService executor = Executors.newFixedThreadPool(users * requestsPerUser);
+            CountDownLatch latch = new CountDownLatch(users * requestsPerUser);
+
+            long multiStart = System.nanoTime();
+            for (int user = 0; user < users; user++) {
+                long userId = firstUserId + user;
+                for (int i = 0; i < requestsPerUser; i++) {
+                    executor.submit(() -> {
+                        try {
+                            pointService.chargeUserPoint(userId, amount);
+                        } finally {
+                            latch.countDown();
+                        }
+                    });
+                }
+            }
+
+            latch.await();
+            long multiElapsed = System.nanoTime() - multiStart;
+            executor.shutdown();
+
+            // 결과 검증
+            // 하나의 락을 공유한다면 유저 수(10배)만큼 시간이 걸리지만, 유저별 락은 유저 한 명의 처리 시간과 비슷해야 한다.
+            for (int user = 0; user < users; user++) {
+                assertEquals(amount * (requestsPerUser + 1), pointService.getUserPoint(firstUserId + user).point());
+            }
+            assertTrue(multiElapsed < singleElapsed * 3,
+                    "single=" + singleElapsed / 1_000_000 + "ms, multi=" + multiElapsed / 1_000_000 + "ms");
+            assertEquals(0, userPointLockManager.activeLockCount());
+        }
+
+        @Test
+        void 두_유저가_동시에_서로에게_포인트를_보내도_교착_상태_없이_합계가_유지된다() throws Exception {
+            long firstUserId = 49L;
+            long secondUserId = 50L;
+            long currentAmount = 10_000L;
+            long amount = 10L;
+            // 테이블 지연(최대 300ms)을 받는 통합 테스트이므로 전송 횟수를 적게 둔다.
+            int threads = 10;
+
+            userPointTable.insertOrUpdate(firstUserId, currentAmount);
+            userPointTable.insertOrUpdate(secondUserId, currentAmount);
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<PointTransfer>> transfers = new ArrayList<>();
+
+            // 절반은 first -> second, 나머지는 second -> first 로 보낸다.
+            for (int i = 0; i < threads; i++) {
+                boolean forward = i % 2 == 0;
+                transfers.add(executor.submit(() -> forward
+                        ? pointService.transfer(firstUserId, secondUserId, amount)
+                        : pointService.transfer(secondUserId, firstUserId, amount)));
+            }
+
+            // 전송마다 성공했고, 두 유저의 포인트를 같은 시점에 본 합계가 유지되는지 확인한다.
+            for (Future<PointTransfer> transfer : transfers) {
+                PointTransfer result = transfer.get(30, TimeUnit.SECONDS);
+                assertEquals(currentAmount * 2, result.from().point() + result.to().point());
+            }
+            executor.shutdown();
+
+            // 결과 검증
+            assertEquals(currentAmount, pointService.getUserPoint(firstUserId).point());
+            assertEquals(currentAmount, pointService.getUserPoint(secondUserId).point());
+            assertEquals(threads, pointService.getUserPointHistory(firstUserId).size());
+            assertEquals(threads, pointService.getUserPointHistory(secondUserId).size());
+            assertEquals(0, userPointLockManager.activeLockCount());
+        }
     }
 }
@@ -0,0 +1,186 @@
+package io.hhplus.tdd.point.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.TddApplication;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.partition.PointPartitionClient;
+import io.hhplus.tdd.point.partition.PointPartitioner;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * localhost 에 두 노드를 띄워, 담당 노드가 아닌 노드로 들어온 요청이 담당 노드에서 처리되는지 확인한다.
+ */
+class PointPartitionTest {
+
+    private static ConfigurableApplicationContext firstNode;
+    private static ConfigurableApplicationContext secondNode;
+    private static String firstNodeUrl;
+    private static String secondNodeUrl;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void startNodes() throws IOException {
+        int firstPort = freePort();
+        int secondPort = freePort();
+        firstNodeUrl = "http://localhost:" + firstPort;
+        secondNodeUrl = "http://localhost:" + secondPort;
+        String nodes = "node-1=" + firstNodeUrl + ",node-2=" + secondNodeUrl;
+
+        firstNode = startNode("node-1", firstPort, nodes);
+        secondNode = startNode("node-2", secondPort, nodes);
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        firstNode.close();
+        secondNode.close();
+    }
+
+    @Test
+    void 담당_노드가_아닌_노드로_충전하면_담당_노드에서_처리된다() throws Exception {
+        //given
+        long userId = userOwnedBy("node-2", 1L);
+
+        // when
+        HttpResponse<String> charged = send(firstNodeUrl, "PATCH", "/point/" + userId + "/charge",
+                "{\"id\":" + userId + ",\"amount\":100}");
+
+        // then
+        assertEquals(200, charged.statusCode());
+        assertEquals(100L, secondNode.getBean(PointService.class).getUserPoint(userId).point());
+        assertEquals(0L, firstNode.getBean(PointService.class).getUserPoint(userId).point());
+
+        HttpResponse<String> point = send(firstNodeUrl, "GET", "/point/" + userId, "");
+        assertEquals(200, point.statusCode());
+        assertTrue(point.body().contains("\"point\":100"), point.body());
+    }
+
+    @Test
+    void 서로_다른_노드가_담당하는_유저_간_전송은_실패한다() throws Exception {
+        //given
+        long fromId = userOwnedBy("node-1", 1_000L);
+        long toId = userOwnedBy("node-2", 1_000L);
+
+        // when
+        HttpResponse<String> transferred = send(firstNodeUrl, "POST", "/point/transfer",
+                "{\"fromId\":" + fromId + ",\"toId\":" + toId + ",\"amount\":100}");
+
+        // then
+        assertEquals(400, transferred.statusCode());
+        assertTrue(transferred.body().contains("서로 다른 노드가 담당하는 유저 간에는 포인트를 보낼 수 없습니다."),
+                transferred.body());
+    }
+
+    @Test
+    void 파티션의_담당_노드를_바꾸면_모든_노드의_라우팅이_바뀐다() throws Exception {
+        //given
+        long userId = userOwnedBy("node-1", 2_000L);
+        int partition = firstNode.getBean(PointPartitioner.class).partitionOf(userId);
+
+        // when
+        HttpResponse<String> assigned = send(secondNodeUrl, "PUT", "/point/partitions/" + partition,
+                "{\"owner\":\"node-2\"}");
+
+        // then
+        assertEquals(200, assigned.statusCode());
+        assertEquals("node-2", firstNode.getBean(PointPartitioner.class).ownerOf(userId));
+        assertEquals("node-2", secondNode.getBean(PointPartitioner.class).ownerOf(userId));
+
+        send(firstNodeUrl, "PATCH", "/point/" + userId + "/charge", "{\"id\":" + userId + ",\"amount\":50}");
+        assertEquals(50L, secondNode.getBean(PointService.class).getUserPoint(userId).point());
+    }
+
+    @Test
+    void 다른_노드가_넘겨준_요청을_담당하지_않는_노드가_받으면_처리하지_않고_421_로_실패한다() throws Exception {
+        //given
+        // node-2 의 유저를 node-2 가 넘겨준 것처럼 node-1 에 보낸다. (담당 노드 변경이 두 노드에 다르게 반영된 경우)
+        long userId = userOwnedBy("node-2", 3_000L);
+
+        // when
+        HttpResponse<String> charged = send(firstNodeUrl, "PATCH", "/point/" + userId + "/charge",
+                "{\"id\":" + userId + ",\"amount\":100}", PointPartitionClient.FORWARDED_HEADER, "node-2");
+
+        // then
+        assertEquals(421, charged.statusCode());
+        assertTrue(charged.body().contains("담당 노드: node-2"), charged.body());
+        assertEquals(0L, firstNode.getBean(PointService.class).getUserPoint(userId).point());
+        assertEquals(0L, secondNode.getBean(PointService.class).getUserPoint(userId).point());
+    }
+
+    @Test
+    void 담당_노드_변경을_알리지_못한_노드는_결과로_반환된다() throws Exception {
+        //given
+        // node-3 은 목록에만 있고 실행되지 않은 노드다.
+        String nodes = "node-1=" + firstNodeUrl + ",node-2=" + secondNodeUrl + ",node-3=http://localhost:" + freePort();
+        PointPartitioner pointPartitioner = new PointPartitioner(true,
+                firstNode.getBean(PointPartitioner.class).partitionCount(), "node-1", nodes);
+        PointPartitionClient pointPartitionClient =
+                new PointPartitionClient(pointPartitioner, new ObjectMapper(), Duration.ofSeconds(1), 1);
+        // node-2 가 이미 담당하는 파티션을 다시 알리므로 실행 중인 노드의 라우팅은 바뀌지 않는다.
+        long userId = userOwnedBy("node-2", 4_000L);
+        int partition = firstNode.getBean(PointPartitioner.class).partitionOf(userId);
+
+        // when
+        List<String> failed = pointPartitionClient.broadcastAssignment(partition, "node-2").join();
+
+        // then
+        assertEquals(List.of("node-3"), failed);
+        pointPartitionClient.shutdown();
+    }
+
+    // headers 는 이름, 값 순서로 추가할 헤더
+    private HttpResponse<String> send(String baseUrl, String method, String path, String body, String... headers) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .method(method, body.isEmpty()
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        if (headers.length > 0) {
+            request.headers(headers);
+        }
+
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    // from 부터 찾아 node 가 담당하는 첫 유저
+    private static long userOwnedBy(String node, long from) {
+        PointPartitioner pointPartitioner = firstNode.getBean(PointPartitioner.class);
+        long userId = from;
+        while (!node.equals(pointPartitioner.ownerOf(userId))) {
+            userId++;
+        }
+        return userId;
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId, int port, String nodes) {
+        return new SpringApplicationBuilder(TddApplication.class)
+                .properties(
+                        "server.port=" + port,
+                        "point.partition.enabled=true",
+                        "point.partition.node-id=" + nodeId,
+                        "point.partition.nodes=" + nodes)
+                .run();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -4,15 +4,16 @@ import io.hhplus.tdd.database.PointHistoryTable;
 import io.hhplus.tdd.database.UserPointTable;
 import io.hhplus.tdd.point.PointHistory;
 import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.PointServiceFixture;
 import io.hhplus.tdd.point.TransactionType;
 import io.hhplus.tdd.point.UserPoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
 import java.util.List;
@@ -23,7 +24,6 @@ import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class PointServiceTest {
-    private static final Logger log = LoggerFactory.getLogger(PointServiceTest.class);
 
     @Mock
     private UserPointTable userPointTable;
@@ -31,9 +31,28 @@ class PointServiceTest {
     @Mock
     private PointHistoryTable pointHistoryTable;
 
-    @InjectMocks
+    private PointServiceFixture fixture;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private PointService pointService;
 
+    @BeforeEach
+    void setUp() {
+        fixture = new PointServiceFixture()
+                .userPointTable(userPointTable)
+                .pointHistoryTable(pointHistoryTable)
+                .build();
+        meterRegistry = fixture.meterRegistry();
+        pointService = fixture.pointService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.shutdown();
+    }
+
+
     @Test
     void 포인트_충전_시_결과값이_1_000_000원_이상일_경우_요청은_실패한다() {
         // given
@@ -94,7 +113,8 @@ class PointServiceTest {
         assertEquals(resultAmount, result.point());
 
         verify(userPointTable).selectById(userId);
-        verify(pointHistoryTable).insert(userId, plusAmount,
+        // 내역은 outbox 를 거쳐 비동기로 기록된다.
+        verify(pointHistoryTable, timeout(1_000)).insert(userId, plusAmount,
                 TransactionType.CHARGE, result.updateMillis());
     }
 
@@ -170,6 +190,30 @@ class PointServiceTest {
         assertEquals("잔액이 부족합니다.", exception.getMessage());
     }
 
+    @Test
+    void 포인트_요청_실패_시_실패_사유별로_집계된다() {
+        // given
+        long userId = 1L;
+        long amount = 500L;
+
+        UserPoint userPoint = new UserPoint(userId, amount, System.currentTimeMillis());
+
+        given(userPointTable.selectById(userId)).willReturn(userPoint);
+
+        // when
+        assertThrows(IllegalArgumentException.class, () -> pointService.UseUserPoint(userId, 1000L));
+        assertThrows(IllegalArgumentException.class, () -> pointService.UseUserPoint(userId, 2000L));
+        assertThrows(IllegalArgumentException.class, () -> pointService.chargeUserPoint(userId, 0L));
+        assertThrows(IllegalArgumentException.class, () -> pointService.chargeUserPoint(userId, 1_000_000L));
+
+        // then
+        assertEquals(2, meterRegistry.get("point.rejections").tag("reason", "insufficient_balance").counter().count());
+        assertEquals(1, meterRegistry.get("point.rejections").tag("reason", "invalid_amount").counter().count());
+        assertEquals(1, meterRegistry.get("point.rejections").tag("reason", "cap_exceeded").counter().count());
+        assertEquals(4, meterRegistry.get("point.operation").tag("operation", "use").timer().count()
+                + meterRegistry.get("point.operation").tag("operation", "charge").timer().count());
+    }
+
     @Test
     void 포인트_사용_시_요청은_성공한다() {
         // given
@@ -230,4 +274,32 @@ class PointServiceTest {
         assertEquals(resultList.get(0), pointHistories.get(0));
         assertEquals(resultList.get(1), pointHistories.get(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void 기간_내역_조회_시_기간_안의_내역을_시각_순으로_종류별로_반환한다() {
+        // given
+        long userId = 1L;
+
+        // 시각이 앞서는 내역이 나중에 기록된 경우를 포함한다.
+        List<PointHistory> pointHistories = List.of(
+                new PointHistory(1L, userId, 100L, TransactionType.CHARGE, 1_000L),
+                new PointHistory(2L, userId, 200L, TransactionType.USE, 3_000L),
+                new PointHistory(3L, userId, 300L, TransactionType.CHARGE, 2_000L),
+                new PointHistory(4L, userId, 400L, TransactionType.CHARGE, 4_000L)
+        );
+
+        given(pointHistoryTable.selectAllByUserId(userId)).willReturn(pointHistories);
+
+        // when
+        List<PointHistory> between = pointService.getUserPointHistoryBetween(userId, 2_000L, 4_000L, null);
+        List<PointHistory> charges = pointService.getUserPointHistoryBetween(userId, 0L, Long.MAX_VALUE, TransactionType.CHARGE);
+        List<PointHistory> empty = pointService.getUserPointHistoryBetween(userId, 5_000L, 6_000L, null);
+
+        // then
+        assertEquals(List.of(pointHistories.get(2), pointHistories.get(1)), between);
+        assertEquals(List.of(pointHistories.get(0), pointHistories.get(2), pointHistories.get(3)), charges);
+        assertTrue(empty.isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> pointService.getUserPointHistoryBetween(userId, 4_000L, 2_000L, null));
+    }
+}